@@ -0,0 +1,26 @@
+package io.github.mateuszuran.sisyphus_app.benchmarks;
+
+import io.github.mateuszuran.sisyphus_app.model.ApplicationStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of the status path variable of every status update.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApplicationStatusBenchmark {
+
+    @Param({"SEND", "in_progress", "Hired"})
+    String status;
+
+    @Benchmark
+    public ApplicationStatus getByUpperCaseStatus() {
+        return ApplicationStatus.getByUpperCaseStatus(status);
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.mateuszuran.sisyphus_app.benchmarks;
+
+import io.github.mateuszuran.sisyphus_app.cache.WorkGroupCache;
+import io.github.mateuszuran.sisyphus_app.metrics.CvMetrics;
+import io.github.mateuszuran.sisyphus_app.model.WorkGroup;
+import io.github.mateuszuran.sisyphus_app.repository.WorkGroupRepository;
+import io.github.mateuszuran.sisyphus_app.service.WorkGroupServiceImpl;
+import io.github.mateuszuran.sisyphus_app.util.FanOut;
+import io.github.mateuszuran.sisyphus_app.util.TimeUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    static WorkGroupCache workGroupCache() {
+        return new WorkGroupCache(new SimpleMeterRegistry(), 1000, DataSize.ofMegabytes(64), Duration.ofMinutes(10));
+    }
+
+    /**
+     * A service over the given groups, the benchmarks evict the cache before every call to measure the uncached path.
+     */
+    static WorkGroupServiceImpl workGroupService(InMemoryCvStorage cvStorage, WorkGroupCache cache, Collection<WorkGroup> groups) {
+        return new WorkGroupServiceImpl(inMemoryRepository(groups), new TimeUtil(), cvStorage, null, cache,
+                FanOut.sequential(), new CvMetrics(new SimpleMeterRegistry()));
+    }
+
+    static WorkGroup groupWithCv(InMemoryCvStorage cvStorage, String id, int cvSize) {
+        byte[] cv = new byte[cvSize];
+        new Random(cvSize).nextBytes(cv);
+        return WorkGroup.builder()
+                .id(id)
+                .cvFileId(cvStorage.store(new ByteArrayInputStream(cv), "cv.pdf", "application/pdf"))
+                .cvFileName("cv.pdf")
+                .cvSize(cvSize)
+                .creationTime(Instant.parse("2024-01-01T00:00:00Z"))
+                .send(12)
+                .inProgress(3)
+                .denied(7)
+                .build();
+    }
+
+    /**
+     * Answers only the lookups and the counter update the measured service paths send, from the heap.
+     */
+    private static WorkGroupRepository inMemoryRepository(Collection<WorkGroup> groups) {
+        Map<String, WorkGroup> byId = new LinkedHashMap<>();
+        groups.forEach(group -> byId.put(group.getId(), group));
+        return (WorkGroupRepository) Proxy.newProxyInstance(WorkGroupRepository.class.getClassLoader(),
+                new Class<?>[]{WorkGroupRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> Optional.ofNullable(byId.get((String) args[0]));
+                    case "findAllById" -> {
+                        List<WorkGroup> found = new ArrayList<>();
+                        for (Object id : (Iterable<?>) args[0]) {
+                            Optional.ofNullable(byId.get((String) id)).ifPresent(found::add);
+                        }
+                        yield found;
+                    }
+                    case "findAllSummaries" -> List.copyOf(byId.values());
+                    case "updateCounters" -> byId.containsKey((String) args[0]);
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
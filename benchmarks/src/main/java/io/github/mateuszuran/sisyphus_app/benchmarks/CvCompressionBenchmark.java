@@ -0,0 +1,65 @@
+package io.github.mateuszuran.sisyphus_app.benchmarks;
+
+import io.github.mateuszuran.sisyphus_app.metrics.CvMetrics;
+import io.github.mateuszuran.sisyphus_app.storage.CompressingCvStorage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Storing and reading a CV through the compressing storage, for text heavy CVs that get deflated and for CVs with
+ * compressed content that are only sampled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CvCompressionBenchmark {
+
+    @Param({"102400", "1048576"})
+    int cvSize;
+
+    @Param({"text", "random"})
+    String content;
+
+    private CompressingCvStorage storage;
+    private byte[] cv;
+    private String storedId;
+
+    @Setup
+    public void setUp() {
+        storage = new CompressingCvStorage(new InMemoryCvStorage(), new CvMetrics(new SimpleMeterRegistry()), true, 0.9);
+        cv = new byte[cvSize];
+        if (content.equals("text")) {
+            byte[] text = "BT /F1 12 Tf 72 712 Td (Lorem ipsum dolor sit amet) Tj ET\n".getBytes(StandardCharsets.US_ASCII);
+            for (int i = 0; i < cvSize; i++) {
+                cv[i] = text[i % text.length];
+            }
+        } else {
+            new Random(cvSize).nextBytes(cv);
+        }
+        storedId = storage.store(new ByteArrayInputStream(cv), "cv.pdf", "application/pdf");
+    }
+
+    @Benchmark
+    public String store() {
+        String fileId = storage.store(new ByteArrayInputStream(cv), "cv.pdf", "application/pdf");
+        storage.delete(fileId);
+        return fileId;
+    }
+
+    @Benchmark
+    public byte[] load() throws IOException {
+        try (InputStream stored = storage.load(storedId).getInputStream()) {
+            return stored.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.mateuszuran.sisyphus_app.benchmarks;
+
+import io.github.mateuszuran.sisyphus_app.cache.WorkGroupCache;
+import io.github.mateuszuran.sisyphus_app.dto.WorkGroupDTO;
+import io.github.mateuszuran.sisyphus_app.service.WorkGroupServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading and Base64 encoding of a stored CV, done for every group view that is not cached.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CvEncodingBenchmark {
+
+    @Param({"102400", "1048576", "10485760"})
+    int cvSize;
+
+    private WorkGroupCache cache;
+    private WorkGroupServiceImpl service;
+
+    @Setup
+    public void setUp() {
+        var cvStorage = new InMemoryCvStorage();
+        cache = Benchmarks.workGroupCache();
+        service = Benchmarks.workGroupService(cvStorage, cache, List.of(Benchmarks.groupWithCv(cvStorage, "group", cvSize)));
+    }
+
+    @Benchmark
+    public WorkGroupDTO getMappedSingleWorkGroup() {
+        cache.evictAll();
+        return service.getMappedSingleWorkGroup("group");
+    }
+}
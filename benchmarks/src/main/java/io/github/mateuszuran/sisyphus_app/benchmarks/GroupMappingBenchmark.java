@@ -0,0 +1,51 @@
+package io.github.mateuszuran.sisyphus_app.benchmarks;
+
+import io.github.mateuszuran.sisyphus_app.cache.WorkGroupCache;
+import io.github.mateuszuran.sisyphus_app.dto.WorkGroupDTO;
+import io.github.mateuszuran.sisyphus_app.model.WorkGroup;
+import io.github.mateuszuran.sisyphus_app.service.WorkGroupServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Mapping of loaded groups to views, the work {@code getAllMappedWorkGroups} does when none of them is cached.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GroupMappingBenchmark {
+
+    @Param({"10", "100"})
+    int groups;
+
+    @Param({"0", "102400"})
+    int cvSize;
+
+    private WorkGroupCache cache;
+    private WorkGroupServiceImpl service;
+
+    @Setup
+    public void setUp() {
+        var cvStorage = new InMemoryCvStorage();
+        var loadedGroups = IntStream.range(0, groups)
+                .mapToObj(i -> cvSize == 0
+                        ? WorkGroup.builder().id("group-" + i).cvFileName("cv.pdf").creationTime(Instant.parse("2024-01-01T00:00:00Z")).build()
+                        : Benchmarks.groupWithCv(cvStorage, "group-" + i, cvSize))
+                .toList();
+        cache = Benchmarks.workGroupCache();
+        service = Benchmarks.workGroupService(cvStorage, cache, loadedGroups);
+    }
+
+    @Benchmark
+    public List<WorkGroupDTO> getAllMappedWorkGroups() {
+        cache.evictAll();
+        return service.getAllMappedWorkGroups();
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.mateuszuran.sisyphus_app.benchmarks;
+
+import io.github.mateuszuran.sisyphus_app.storage.CvStorage;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the CVs on the heap, so the benchmarks measure encoding and mapping rather than storage I/O.
+ */
+class InMemoryCvStorage implements CvStorage {
+    private final Map<String, byte[]> files = new ConcurrentHashMap<>();
+
+    @Override
+    public String store(InputStream content, String fileName, String contentType) {
+        try {
+            String id = UUID.randomUUID().toString();
+            files.put(id, content.readAllBytes());
+            return id;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Resource load(String fileId) {
+        return new ByteArrayResource(files.get(fileId));
+    }
+
+    @Override
+    public void delete(String fileId) {
+        files.remove(fileId);
+    }
+}
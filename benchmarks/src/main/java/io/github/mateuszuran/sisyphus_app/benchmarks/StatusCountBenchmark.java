@@ -0,0 +1,43 @@
+package io.github.mateuszuran.sisyphus_app.benchmarks;
+
+import io.github.mateuszuran.sisyphus_app.model.ApplicationStatus;
+import io.github.mateuszuran.sisyphus_app.model.WorkGroup;
+import io.github.mateuszuran.sisyphus_app.service.StatusTransition;
+import io.github.mateuszuran.sisyphus_app.service.WorkGroupServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counter deltas of a status change and their update, computed for every status update.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatusCountBenchmark {
+
+    @Param({"SEND", "IN_PROGRESS", "HIRED"})
+    ApplicationStatus oldStatus;
+
+    @Param({"DENIED"})
+    ApplicationStatus newStatus;
+
+    private WorkGroupServiceImpl service;
+    private List<StatusTransition> transitions;
+
+    @Setup
+    public void setUp() {
+        service = Benchmarks.workGroupService(new InMemoryCvStorage(), Benchmarks.workGroupCache(),
+                List.of(WorkGroup.builder().id("group").build()));
+        transitions = List.of(new StatusTransition("group", oldStatus, newStatus));
+    }
+
+    @Benchmark
+    public void applyStatusTransitions() {
+        service.applyStatusTransitions(transitions);
+    }
+}
@@ -0,0 +1,25 @@
+package io.github.mateuszuran.sisyphus_app.benchmarks;
+
+import io.github.mateuszuran.sisyphus_app.util.TimeUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Display date formatting, done for every mapped group view and summary.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimeUtilBenchmark {
+
+    private final TimeUtil timeUtil = new TimeUtil();
+
+    @Benchmark
+    public String formatDisplayDate() {
+        return TimeUtil.format(timeUtil.now());
+    }
+}
@@ -0,0 +1,175 @@
+package io.github.mateuszuran.sisyphus_app.loadtest;
+
+import com.mongodb.client.model.Projections;
+import io.github.mateuszuran.sisyphus_app.SisyphusAppApplication;
+import io.github.mateuszuran.sisyphus_app.dto.WorkApplicationDTO;
+import io.github.mateuszuran.sisyphus_app.model.WorkApplications;
+import io.github.mateuszuran.sisyphus_app.service.WorkApplicationsServiceImpl;
+import io.github.mateuszuran.sisyphus_app.service.WorkGroupServiceImpl;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+/**
+ * Boots the app against a Testcontainers Mongo and seeds it through the services, so counters, references and
+ * stored CVs look like production data. Volumes are tuned with system properties:
+ * {@code load.groups}, {@code load.cvBytes} and {@code load.applications}.
+ */
+final class LoadTestEnvironment implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(LoadTestEnvironment.class);
+
+    static final int GROUPS = Integer.getInteger("load.groups", 2000);
+    static final int CV_BYTES = Integer.getInteger("load.cvBytes", 2 * 1024 * 1024);
+    static final int APPLICATIONS = Integer.getInteger("load.applications", 200_000);
+    private static final int SEED_THREADS = Integer.getInteger("load.seedThreads", 8);
+
+    private final MongoDBContainer mongo;
+    private final ConfigurableApplicationContext context;
+
+    /**
+     * Groups that are only read, each with its share of the applications.
+     */
+    final List<String> groupIds;
+    /**
+     * Extra groups without applications, every one is deleted once.
+     */
+    final List<String> deletableGroupIds;
+    /**
+     * Applications whose status is changed over and over.
+     */
+    final List<String> applicationIds = new ArrayList<>();
+    /**
+     * Applications that are deleted once each.
+     */
+    final List<String> deletableApplicationIds = new ArrayList<>();
+
+    private LoadTestEnvironment(int deletableGroups, int deletableApplications) {
+        mongo = new MongoDBContainer(DockerImageName.parse("mongo:6-jammy"));
+        mongo.start();
+        context = new SpringApplicationBuilder(SisyphusAppApplication.class)
+                .run("--server.port=0",
+                        "--spring.data.mongodb.uri=" + mongo.getReplicaSetUrl(),
+                        "--sisyphus.cv.max-size=" + Math.max(CV_BYTES, 5 * 1024 * 1024) + "B");
+
+        long start = System.nanoTime();
+        groupIds = seedGroups(GROUPS, APPLICATIONS / Math.max(GROUPS, 1));
+        deletableGroupIds = seedGroups(deletableGroups, 0);
+        splitApplicationIds(deletableApplications);
+        log.info("Seeded {} groups with {} byte CVs and {} applications in {} s.",
+                groupIds.size() + deletableGroupIds.size(), CV_BYTES,
+                applicationIds.size() + deletableApplicationIds.size(), (System.nanoTime() - start) / 1_000_000_000);
+    }
+
+    static LoadTestEnvironment start(int deletableGroups, int deletableApplications) {
+        return new LoadTestEnvironment(deletableGroups, deletableApplications);
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        mongo.stop();
+    }
+
+    private List<String> seedGroups(int count, int applicationsPerGroup) {
+        var groupService = context.getBean(WorkGroupServiceImpl.class);
+        var applicationsService = context.getBean(WorkApplicationsServiceImpl.class);
+        ExecutorService executor = Executors.newFixedThreadPool(SEED_THREADS);
+        try {
+            List<Future<String>> seeded = IntStream.range(0, count)
+                    .mapToObj(i -> executor.submit(() -> {
+                        var groupId = groupService.createNewWorkGroup(new CvContent(CV_BYTES, i), "cv-" + i + ".pdf", "application/pdf");
+                        if (applicationsPerGroup > 0) {
+                            applicationsService.createWorkApplication(IntStream.range(0, applicationsPerGroup)
+                                    .mapToObj(j -> new WorkApplicationDTO("https://jobs.example.com/" + groupId + "/" + j))
+                                    .toList(), groupId);
+                        }
+                        return groupId;
+                    }))
+                    .toList();
+            List<String> groupIds = new ArrayList<>(count);
+            for (Future<String> groupId : seeded) {
+                groupIds.add(groupId.get());
+            }
+            return groupIds;
+        } catch (Exception e) {
+            throw new IllegalStateException("Seeding failed", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void splitApplicationIds(int deletableApplications) {
+        var mongoTemplate = context.getBean(MongoTemplate.class);
+        List<String> ids = new ArrayList<>();
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(WorkApplications.class))
+                .find()
+                .projection(Projections.include("_id"))
+                .forEach((Document application) -> ids.add(application.get("_id").toString()));
+        Collections.shuffle(ids, new Random(42));
+
+        int deletable = Math.min(deletableApplications, ids.size() / 2);
+        deletableApplicationIds.addAll(ids.subList(0, deletable));
+        applicationIds.addAll(ids.subList(deletable, ids.size()));
+    }
+
+    /**
+     * A CV of the given size generated on the fly, so seeding never holds more than one chunk of it. Only the header
+     * makes it a PDF, which is all the upload checks look at.
+     */
+    private static final class CvContent extends InputStream {
+        private final byte[] chunk = new byte[64 * 1024];
+        private long remaining;
+        private int position;
+
+        private CvContent(long size, long seed) {
+            new Random(seed).nextBytes(chunk);
+            byte[] pdfHeader = "%PDF-1.7\n".getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(pdfHeader, 0, chunk, 0, pdfHeader.length);
+            this.remaining = size;
+        }
+
+        @Override
+        public int read() {
+            if (remaining <= 0) {
+                return -1;
+            }
+            remaining--;
+            int value = chunk[position] & 0xff;
+            position = (position + 1) % chunk.length;
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int count = (int) Math.min(Math.min(length, remaining), chunk.length - position);
+            System.arraycopy(chunk, position, buffer, offset, count);
+            position = (position + count) % chunk.length;
+            remaining -= count;
+            return count;
+        }
+    }
+}
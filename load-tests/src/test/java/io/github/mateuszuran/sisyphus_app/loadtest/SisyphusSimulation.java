@@ -0,0 +1,136 @@
+package io.github.mateuszuran.sisyphus_app.loadtest;
+
+import io.gatling.javaapi.core.ChainBuilder;
+import io.gatling.javaapi.core.Choice;
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static io.gatling.javaapi.core.CoreDsl.*;
+import static io.gatling.javaapi.http.HttpDsl.*;
+
+/**
+ * Mixed create, status update, list and delete traffic over every endpoint of the group and application controllers.
+ * The Gatling report has throughput and latency percentiles per request name, i.e. per endpoint.
+ * <p>
+ * Run with {@code mvn -f load-tests/pom.xml gatling:test}; the arrival rate and length are set with
+ * {@code load.usersPerSecond} and {@code load.durationSeconds}. The unpaged {@code GET /group/all} returns every CV
+ * and is left out unless {@code load.includeUnpagedGroups=true}, at full volume it exhausts the heap.
+ */
+public class SisyphusSimulation extends Simulation {
+    private static final int USERS_PER_SECOND = Integer.getInteger("load.usersPerSecond", 20);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.durationSeconds", 300);
+    private static final boolean INCLUDE_UNPAGED_GROUPS = Boolean.getBoolean("load.includeUnpagedGroups");
+    private static final String[] STATUSES = {"send", "in_progress", "denied", "hired"};
+
+    private static final double GROUP_DELETE_PERCENT = 2.0;
+    private static final double APPLICATION_DELETE_PERCENT = 3.0;
+    private static final int CREATED_CV_BYTES = Integer.getInteger("load.createdCvBytes", 512 * 1024);
+
+    private final LoadTestEnvironment environment = LoadTestEnvironment.start(
+            expectedRequests(GROUP_DELETE_PERCENT), expectedRequests(APPLICATION_DELETE_PERCENT));
+
+    {
+        HttpProtocolBuilder protocol = http.baseUrl(environment.baseUrl())
+                .acceptHeader("application/json");
+
+        var groups = listFeeder(ids("groupId", environment.groupIds)).random();
+        var applications = listFeeder(ids("applicationId", environment.applicationIds)).random();
+        var deletableGroups = listFeeder(ids("groupId", environment.deletableGroupIds)).queue();
+        var deletableApplications = listFeeder(ids("applicationId", environment.deletableApplicationIds)).queue();
+        byte[] createdCv = new byte[CREATED_CV_BYTES];
+        ThreadLocalRandom.current().nextBytes(createdCv);
+        byte[] pdfHeader = "%PDF-1.7\n".getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(pdfHeader, 0, createdCv, 0, pdfHeader.length);
+
+        List<Choice.WithWeight> traffic = new ArrayList<>(List.of(
+                percent(15.0).then(feed(groups).exec(http("GET /group/all?limit")
+                        .get("/group/all?limit=20&after=#{groupId}"))),
+                percent(10.0).then(exec(http("GET /group/summary")
+                        .get("/group/summary"))),
+                percent(15.0).then(feed(groups).exec(http("GET /group/single/{id}")
+                        .get("/group/single/#{groupId}"))),
+                percent(10.0).then(feed(groups).exec(http("GET /group/{id}/cv")
+                        .get("/group/#{groupId}/cv")
+                        .header("Accept", "*/*"))),
+                percent(3.0).then(exec(http("POST /group/create")
+                        .post("/group/create")
+                        .bodyPart(ByteArrayBodyPart("cv", createdCv).fileName("cv.pdf").contentType("application/pdf"))
+                        .asMultipartForm())),
+                percent(GROUP_DELETE_PERCENT).then(feed(deletableGroups).exec(http("DELETE /group/delete/{id}")
+                        .delete("/group/delete/#{groupId}"))),
+                percent(10.0).then(feed(groups).exec(http("GET /applications/all/{id}")
+                        .get("/applications/all/#{groupId}"))),
+                percent(10.0).then(feed(groups).exec(http("GET /applications/all/{id}?limit")
+                        .get("/applications/all/#{groupId}?limit=50"))),
+                percent(5.0).then(feed(groups).exec(http("POST /applications/save/{id}")
+                        .post("/applications/save/#{groupId}")
+                        .body(StringBody(IntStream.range(0, 5)
+                                .mapToObj(i -> "{\"workUrl\":\"https://jobs.example.com/new/#{randomUuid()}\"}")
+                                .collect(Collectors.joining(",", "[", "]")))).asJson()
+                        .check(status().is(201)))),
+                percent(12.0).then(feed(applications).exec(session -> session.set("status", randomStatus()))
+                        .exec(http("PATCH /applications/update/{id}/{status}")
+                                .patch("/applications/update/#{applicationId}/#{status}"))),
+                percent(5.0).then(feed(statusChanges()).exec(http("PATCH /applications/status")
+                        .patch("/applications/status")
+                        .body(StringBody("#{statusChanges}")).asJson())),
+                percent(APPLICATION_DELETE_PERCENT).then(feed(deletableApplications).exec(http("DELETE /applications/delete/{id}")
+                        .delete("/applications/delete/#{applicationId}")))));
+        if (INCLUDE_UNPAGED_GROUPS) {
+            // taken from the paged listing so the weights still add up to 100
+            traffic.set(0, percent(14.0).then(feed(groups).exec(http("GET /group/all?limit")
+                    .get("/group/all?limit=20&after=#{groupId}"))));
+            traffic.add(percent(1.0).then(exec(http("GET /group/all")
+                    .get("/group/all"))));
+        }
+
+        ScenarioBuilder mixed = scenario("mixed traffic")
+                .randomSwitch().on(traffic);
+
+        setUp(mixed.injectOpen(constantUsersPerSec(USERS_PER_SECOND).during(DURATION_SECONDS)))
+                .protocols(protocol)
+                .assertions(global().failedRequests().percent().lt(1.0));
+    }
+
+    @Override
+    public void after() {
+        environment.close();
+    }
+
+    private Iterator<Map<String, Object>> statusChanges() {
+        return Stream.generate(() -> Map.<String, Object>of("statusChanges", IntStream.range(0, 10)
+                        .mapToObj(i -> "{\"applicationId\":\"%s\",\"status\":\"%s\"}".formatted(randomApplicationId(), randomStatus()))
+                        .collect(Collectors.joining(",", "[", "]"))))
+                .iterator();
+    }
+
+    private String randomApplicationId() {
+        return environment.applicationIds.get(ThreadLocalRandom.current().nextInt(environment.applicationIds.size()));
+    }
+
+    private static String randomStatus() {
+        return STATUSES[ThreadLocalRandom.current().nextInt(STATUSES.length)];
+    }
+
+    private static List<Map<String, Object>> ids(String key, List<String> ids) {
+        return ids.stream().map(id -> Map.<String, Object>of(key, id)).toList();
+    }
+
+    /**
+     * Deletes need an id that was not deleted yet, seeded with headroom over the expected number of requests.
+     */
+    private static int expectedRequests(double percent) {
+        return (int) Math.ceil(USERS_PER_SECOND * DURATION_SECONDS * percent / 100 * 1.5);
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.mateuszuran.sisyphus_app.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.mateuszuran.sisyphus_app.dto.WorkGroupDTO;
+import io.github.mateuszuran.sisyphus_app.model.WorkGroup;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-process cache of work groups and their mapped views, so polling reads neither query Mongo nor re-encode CVs.
+ * Views are weighed by the size of the encoded CV. Every write to a group has to evict it, expiry only limits the damage of a missed one.
+ */
+@Component
+public class WorkGroupCache {
+    private static final String ALL_GROUPS_KEY = "all";
+    private static final int VIEW_OVERHEAD_BYTES = 1024;
+
+    private final Cache<String, WorkGroup> groups;
+    private final Cache<String, WorkGroupDTO> views;
+    private final Cache<String, List<String>> groupIds;
+    /** Bulk view loads in flight by group id, an eviction removes the entry so the loaded view is not cached. */
+    private final Map<String, Object> pendingViewLoads = new ConcurrentHashMap<>();
+
+    public WorkGroupCache(MeterRegistry meterRegistry,
+                          @Value("${sisyphus.cache.groups.maximum-size:1000}") long maximumGroups,
+                          @Value("${sisyphus.cache.views.maximum-weight:64MB}") DataSize maximumViewsWeight,
+                          @Value("${sisyphus.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.groups = Caffeine.newBuilder()
+                .maximumSize(maximumGroups)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.views = Caffeine.newBuilder()
+                .maximumWeight(maximumViewsWeight.toBytes())
+                .weigher((String id, WorkGroupDTO view) -> VIEW_OVERHEAD_BYTES + (view.cvData() == null ? 0 : view.cvData().length()))
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.groupIds = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, groups, "workGroups");
+        CaffeineCacheMetrics.monitor(meterRegistry, views, "workGroupViews");
+        CaffeineCacheMetrics.monitor(meterRegistry, groupIds, "workGroupIds");
+    }
+
+    public WorkGroup getGroup(String workGroupId, Function<String, WorkGroup> loader) {
+        return groups.get(workGroupId, loader);
+    }
+
+    public WorkGroupDTO getView(String workGroupId, Function<String, WorkGroupDTO> loader) {
+        return views.get(workGroupId, loader);
+    }
+
+    /**
+     * Returns the cached views of the given groups, loading only the missing ones with a single call.
+     * A view whose group was evicted while it loaded is returned but not cached, it may predate the write.
+     */
+    public Map<String, WorkGroupDTO> getViews(Collection<String> workGroupIds,
+                                              Function<List<String>, Map<String, WorkGroupDTO>> loader) {
+        Map<String, WorkGroupDTO> found = new HashMap<>(views.getAllPresent(workGroupIds));
+        var missingIds = workGroupIds.stream().filter(id -> !found.containsKey(id)).distinct().toList();
+        if (missingIds.isEmpty()) {
+            return found;
+        }
+
+        var load = new Object();
+        missingIds.forEach(id -> pendingViewLoads.put(id, load));
+        try {
+            loader.apply(missingIds).forEach((id, view) -> {
+                found.put(id, view);
+                // checked under the entry's lock, an eviction either removed the load before or invalidates the view after
+                views.asMap().compute(id, (key, cached) -> pendingViewLoads.remove(key, load) ? view : cached);
+            });
+        } finally {
+            missingIds.forEach(id -> pendingViewLoads.remove(id, load));
+        }
+        return found;
+    }
+
+    public List<String> getAllGroupIds(Supplier<List<String>> loader) {
+        return groupIds.get(ALL_GROUPS_KEY, key -> List.copyOf(loader.get()));
+    }
+
+    /**
+     * Evicts everything cached for the group whose counters, applications or CV changed.
+     */
+    public void evict(String workGroupId) {
+        if (workGroupId != null) {
+            pendingViewLoads.remove(workGroupId);
+            groups.invalidate(workGroupId);
+            views.invalidate(workGroupId);
+        }
+    }
+
+    /**
+     * Evicts the group and the list of all groups, for writes that add or remove a group.
+     */
+    public void evictMembership(String workGroupId) {
+        groupIds.invalidate(ALL_GROUPS_KEY);
+        evict(workGroupId);
+    }
+
+    public void evictAll() {
+        pendingViewLoads.clear();
+        groups.invalidateAll();
+        views.invalidateAll();
+        groupIds.invalidateAll();
+    }
+}
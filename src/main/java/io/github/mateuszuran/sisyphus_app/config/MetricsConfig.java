@@ -0,0 +1,28 @@
+package io.github.mateuszuran.sisyphus_app.config;
+
+import io.github.mateuszuran.sisyphus_app.metrics.ResponseSizeFilter;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Controller latency comes from {@code @Timed} on the controllers, Mongo command latency per command and collection
+ * from the {@code mongodb.driver.commands} timers that Spring Boot registers on the Mongo clients.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public FilterRegistrationBean<ResponseSizeFilter> responseSizeFilter(MeterRegistry meterRegistry) {
+        return new FilterRegistrationBean<>(new ResponseSizeFilter(meterRegistry));
+    }
+}
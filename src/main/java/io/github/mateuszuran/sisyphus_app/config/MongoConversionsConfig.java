@@ -0,0 +1,42 @@
+package io.github.mateuszuran.sisyphus_app.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Spring Data stores a {@link LocalDate} as midnight in the default zone of the server. Pinning it to UTC midnight
+ * keeps stored dates, range queries and the months of the statistics independent of where the app runs.
+ */
+@Configuration
+public class MongoConversionsConfig {
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(List.of(new LocalDateToDate(), new DateToLocalDate()));
+    }
+
+    @WritingConverter
+    static class LocalDateToDate implements Converter<LocalDate, Date> {
+        @Override
+        public Date convert(LocalDate source) {
+            return Date.from(source.atStartOfDay(ZoneOffset.UTC).toInstant());
+        }
+    }
+
+    @ReadingConverter
+    static class DateToLocalDate implements Converter<Date, LocalDate> {
+        @Override
+        public LocalDate convert(Date source) {
+            return LocalDate.ofInstant(source.toInstant(), ZoneOffset.UTC);
+        }
+    }
+}
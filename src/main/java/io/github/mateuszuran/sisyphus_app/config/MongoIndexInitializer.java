@@ -0,0 +1,115 @@
+package io.github.mateuszuran.sisyphus_app.config;
+
+import io.github.mateuszuran.sisyphus_app.model.CvBlob;
+import io.github.mateuszuran.sisyphus_app.model.WorkApplications;
+import io.github.mateuszuran.sisyphus_app.model.WorkGroup;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Creates the indexes declared on the documents at startup, before any migration runs. Spring Data's
+ * {@code auto-index-creation} stays off, so this is the only place indexes are built: every missing index is built
+ * in the background and logged with its build time, and indexes no longer declared on a document are reported.
+ * Startup fails once all declared indexes were tried if any of them could not be built. Runs unless
+ * {@code sisyphus.mongo.create-indexes} is set to false, as the unique indexes back the deduplication of applications.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "sisyphus.mongo", name = "create-indexes", havingValue = "true", matchIfMissing = true)
+public class MongoIndexInitializer implements ApplicationRunner {
+    private static final List<Class<?>> INDEXED_DOCUMENTS = List.of(WorkGroup.class, WorkApplications.class, CvBlob.class);
+    private static final String ID_INDEX = "_id_";
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        var resolver = IndexResolver.create(mappingContext);
+        List<String> failures = new ArrayList<>();
+        for (Class<?> document : INDEXED_DOCUMENTS) {
+            String collection = mongoTemplate.getCollectionName(document);
+            var indexOps = mongoTemplate.indexOps(document);
+            Set<String> existing = indexNames(indexOps);
+            Set<String> declared = new HashSet<>();
+
+            for (IndexDefinition index : resolver.resolveIndexFor(document)) {
+                // unnamed indexes get the name Mongo derives from their keys
+                String name = index.getIndexOptions().get("name", defaultName(index.getIndexKeys()));
+                declared.add(name);
+                if (existing.contains(name)) {
+                    log.debug("Index {} on {} already exists.", name, collection);
+                    continue;
+                }
+                try {
+                    long start = System.nanoTime();
+                    indexOps.ensureIndex(inBackground(index));
+                    log.info("Built index {} on {} in {} ms.", name, collection, (System.nanoTime() - start) / 1_000_000);
+                } catch (DataAccessException e) {
+                    log.error("Failed to build index {} on {}.", name, collection, e);
+                    failures.add(collection + "." + name);
+                }
+            }
+
+            existing.stream()
+                    .filter(name -> !ID_INDEX.equals(name) && !declared.contains(name))
+                    .forEach(name -> log.warn("Index {} on {} is not declared on {}, drop it if it is no longer used.",
+                            name, collection, document.getSimpleName()));
+        }
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("Failed to build indexes " + failures);
+        }
+    }
+
+    private String defaultName(Document keys) {
+        return keys.entrySet().stream()
+                .map(key -> key.getKey() + "_" + key.getValue())
+                .collect(Collectors.joining("_"));
+    }
+
+    private Set<String> indexNames(IndexOperations indexOps) {
+        return indexOps.getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Servers before 4.2 would otherwise lock the collection for the whole build, newer ones ignore the option.
+     */
+    private IndexDefinition inBackground(IndexDefinition index) {
+        var options = new Document(index.getIndexOptions()).append("background", true);
+        return new IndexDefinition() {
+            @Override
+            public Document getIndexKeys() {
+                return index.getIndexKeys();
+            }
+
+            @Override
+            public Document getIndexOptions() {
+                return options;
+            }
+        };
+    }
+}
@@ -0,0 +1,14 @@
+package io.github.mateuszuran.sisyphus_app.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling is only needed by the counter reconciliation job, so it is switched on together with it.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "sisyphus.counters.reconciliation", name = "enabled", havingValue = "true")
+public class SchedulingConfig {
+}
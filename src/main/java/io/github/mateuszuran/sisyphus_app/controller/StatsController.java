@@ -0,0 +1,34 @@
+package io.github.mateuszuran.sisyphus_app.controller;
+
+import io.github.mateuszuran.sisyphus_app.dto.WorkStatsDTO;
+import io.github.mateuszuran.sisyphus_app.dto.WorkStatsDTO.DomainStats;
+import io.github.mateuszuran.sisyphus_app.service.StatsServiceImpl;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@CrossOrigin(origins = "http://localhost:4200", maxAge = 3600)
+@RestController
+@Timed(value = "sisyphus.controller", histogram = true)
+@RequestMapping("/stats")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class StatsController {
+    private final StatsServiceImpl service;
+
+    @GetMapping
+    public ResponseEntity<WorkStatsDTO> getStats() {
+        return ResponseEntity.ok()
+                .body(service.getStats());
+    }
+
+    @GetMapping("/domains")
+    public ResponseEntity<List<DomainStats>> getDomainStats() {
+        return ResponseEntity.ok()
+                .body(service.getDomainStats());
+    }
+}
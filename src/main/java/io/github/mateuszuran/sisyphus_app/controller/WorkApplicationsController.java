@@ -1,31 +1,62 @@
 package io.github.mateuszuran.sisyphus_app.controller;
 
+import io.github.mateuszuran.sisyphus_app.dto.ApplicationSearchDTO;
+import io.github.mateuszuran.sisyphus_app.dto.ApplicationStatusChangeDTO;
+import io.github.mateuszuran.sisyphus_app.dto.ApplicationStatusChangeResultDTO;
 import io.github.mateuszuran.sisyphus_app.dto.WorkApplicationDTO;
+import io.github.mateuszuran.sisyphus_app.dto.WorkApplicationsSaveResultDTO;
 import io.github.mateuszuran.sisyphus_app.model.WorkApplications;
 import io.github.mateuszuran.sisyphus_app.service.WorkApplicationsServiceImpl;
+import io.github.mateuszuran.sisyphus_app.util.CursorPagination;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
-@CrossOrigin(origins = "http://localhost:4200", maxAge = 3600)
+@CrossOrigin(origins = "http://localhost:4200", maxAge = 3600, exposedHeaders = CursorPagination.NEXT_CURSOR_HEADER)
 @RestController
+@Timed(value = "sisyphus.controller", histogram = true)
 @RequestMapping("/applications")
 @RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class WorkApplicationsController {
     private final WorkApplicationsServiceImpl service;
 
     @GetMapping("/all/{workGroupId}")
-    public ResponseEntity<List<WorkApplications>> getAllWorkApplicationsByGroup(@PathVariable String workGroupId) {
-        return ResponseEntity.ok().body(service.getAllApplicationsByWorkGroupId(workGroupId));
+    public ResponseEntity<List<WorkApplications>> getAllWorkApplicationsByGroup(@PathVariable String workGroupId,
+                                                                                ApplicationSearchDTO search,
+                                                                                @RequestParam(required = false) Integer limit,
+                                                                                @RequestParam(required = false) String after) {
+        if (!search.isEmpty()) {
+            var page = service.searchApplications(workGroupId, search, limit, after);
+            return ResponseEntity.ok()
+                    .headers(CursorPagination.nextCursorHeaders(page))
+                    .body(page.items());
+        }
+        if (limit == null) {
+            return ResponseEntity.ok().body(service.getAllApplicationsByWorkGroupId(workGroupId));
+        }
+        var page = service.getApplicationsPageByWorkGroupId(workGroupId, limit, after);
+        return ResponseEntity.ok()
+                .headers(CursorPagination.nextCursorHeaders(page))
+                .body(page.items());
+    }
+
+    @GetMapping("/applied")
+    public ResponseEntity<List<WorkApplications>> getWorkApplicationsAppliedBetween(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok().body(service.getApplicationsAppliedBetween(from, to));
     }
 
     @PostMapping("/save/{workGroupId}")
-    public ResponseEntity<String> addWorkApp(@RequestBody List<WorkApplicationDTO> applications, @PathVariable String workGroupId) {
-        service.createWorkApplication(applications, workGroupId);
-        return new ResponseEntity<>(HttpStatus.CREATED);
+    public ResponseEntity<WorkApplicationsSaveResultDTO> addWorkApp(@RequestBody List<WorkApplicationDTO> applications, @PathVariable String workGroupId) {
+        return new ResponseEntity<>(service.createWorkApplication(applications, workGroupId), HttpStatus.CREATED);
     }
 
     @DeleteMapping("/delete/{applicationId}")
@@ -38,4 +69,9 @@ public class WorkApplicationsController {
     public ResponseEntity<WorkApplications> updateWorkStatus(@PathVariable String applicationId, @PathVariable String status) {
         return ResponseEntity.ok().body(service.updateApplicationStatus(applicationId, status));
     }
+
+    @PatchMapping("/status")
+    public ResponseEntity<List<ApplicationStatusChangeResultDTO>> updateWorkStatuses(@RequestBody List<ApplicationStatusChangeDTO> changes) {
+        return ResponseEntity.ok().body(service.updateApplicationStatuses(changes));
+    }
 }
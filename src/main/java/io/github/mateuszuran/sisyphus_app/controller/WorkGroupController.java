@@ -1,26 +1,60 @@
 package io.github.mateuszuran.sisyphus_app.controller;
 
 import io.github.mateuszuran.sisyphus_app.dto.WorkGroupDTO;
+import io.github.mateuszuran.sisyphus_app.dto.WorkGroupSummaryDTO;
 import io.github.mateuszuran.sisyphus_app.service.WorkGroupServiceImpl;
+import io.github.mateuszuran.sisyphus_app.util.CursorPagination;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
 import java.util.List;
 
-@CrossOrigin(origins = "http://localhost:4200", maxAge = 3600)
+@CrossOrigin(origins = "http://localhost:4200", maxAge = 3600, exposedHeaders = CursorPagination.NEXT_CURSOR_HEADER)
 @RestController
+@Timed(value = "sisyphus.controller", histogram = true)
 @RequestMapping("/group")
 @RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class WorkGroupController {
     private final WorkGroupServiceImpl service;
 
     @GetMapping("/all")
-    public ResponseEntity<List<WorkGroupDTO>> getAllWorkGroups() {
+    public ResponseEntity<List<WorkGroupDTO>> getAllWorkGroups(@RequestParam(required = false) Integer limit,
+                                                               @RequestParam(required = false) String after) {
+        if (limit == null) {
+            return ResponseEntity.ok()
+                    .body(service.getAllMappedWorkGroups());
+        }
+        var page = service.getMappedWorkGroupsPage(limit, after);
         return ResponseEntity.ok()
-                .body(service.getAllMappedWorkGroups());
+                .headers(CursorPagination.nextCursorHeaders(page))
+                .body(page.items());
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<List<WorkGroupSummaryDTO>> getAllWorkGroupSummaries() {
+        return ResponseEntity.ok()
+                .body(service.getAllWorkGroupSummaries());
+    }
+
+    /**
+     * Summaries of the groups created in {@code month} ({@code yyyy-MM}, UTC), the current month by default.
+     */
+    @GetMapping("/created")
+    public ResponseEntity<List<WorkGroupSummaryDTO>> getWorkGroupSummariesCreatedIn(@RequestParam(required = false) YearMonth month) {
+        return ResponseEntity.ok()
+                .body(service.getWorkGroupSummariesCreatedIn(month));
     }
 
     @PostMapping("/create")
@@ -39,6 +73,25 @@ public class WorkGroupController {
                 .body(service.getMappedSingleWorkGroup(workGroupId));
     }
 
+    /**
+     * Streams the raw CV. Range requests and If-None-Match against the content hash ETag are handled by Spring MVC.
+     */
+    @GetMapping("/{workGroupId}/cv")
+    public ResponseEntity<Resource> getWorkGroupCv(@PathVariable String workGroupId) {
+        return service.getWorkGroupCv(workGroupId)
+                .map(cv -> {
+                    var response = ResponseEntity.ok()
+                            .contentType(cv.contentType() != null ? MediaType.parseMediaType(cv.contentType()) : MediaType.APPLICATION_PDF)
+                            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline().filename(cv.fileName() != null ? cv.fileName() : "cv.pdf", StandardCharsets.UTF_8).build().toString())
+                            .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+                    if (cv.hash() != null) {
+                        response.eTag(cv.hash());
+                    }
+                    return response.body(cv.content());
+                })
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     @DeleteMapping("/delete/{workGroupId}")
     public ResponseEntity<String> deleteSingleWorkGroup(@PathVariable String workGroupId) {
         service.deleteSingleGroup(workGroupId);
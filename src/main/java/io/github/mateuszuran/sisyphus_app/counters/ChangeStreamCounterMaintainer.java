@@ -0,0 +1,244 @@
+package io.github.mateuszuran.sisyphus_app.counters;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.FullDocumentBeforeChange;
+import com.mongodb.client.model.changestream.OperationType;
+import io.github.mateuszuran.sisyphus_app.model.ApplicationStatus;
+import io.github.mateuszuran.sisyphus_app.model.WorkApplications;
+import io.github.mateuszuran.sisyphus_app.service.StatusTransition;
+import io.github.mateuszuran.sisyphus_app.service.WorkGroupServiceImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the counters of work groups in line with every write to {@code work_applications}, including writes that bypass
+ * the services. Events are read from a change stream and applied in batches, one counter update per affected group.
+ * The resume token of the last applied batch is persisted, so a restart continues where the previous run stopped.
+ * Counters of a batch applied just before a crash may be applied again, the reconciliation job fixes such drift.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "sisyphus.counters.change-stream", name = "enabled", havingValue = "true")
+public class ChangeStreamCounterMaintainer implements SmartLifecycle {
+    static final String RESUME_TOKENS_COLLECTION = "change_stream_resume_tokens";
+    static final String RESUME_TOKEN_ID = "work_applications_counters";
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+    private final MongoTemplate mongoTemplate;
+    private final WorkGroupServiceImpl groupService;
+    private final int batchSize;
+    private final long maxAwaitMillis;
+
+    private volatile boolean running;
+    private ExecutorService executor;
+
+    public ChangeStreamCounterMaintainer(MongoTemplate mongoTemplate,
+                                         WorkGroupServiceImpl groupService,
+                                         @Value("${sisyphus.counters.change-stream.batch-size:500}") int batchSize,
+                                         @Value("${sisyphus.counters.change-stream.max-await-millis:1000}") long maxAwaitMillis) {
+        this.mongoTemplate = mongoTemplate;
+        this.groupService = groupService;
+        this.batchSize = batchSize;
+        this.maxAwaitMillis = maxAwaitMillis;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        enablePreImages();
+        running = true;
+        executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "counter-change-stream"));
+        executor.execute(this::watch);
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(maxAwaitMillis * 5, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            executor = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Deletes and status changes can only be counted with the state from before the change.
+     */
+    private void enablePreImages() {
+        String collection = mongoTemplate.getCollectionName(WorkApplications.class);
+        if (!mongoTemplate.collectionExists(collection)) {
+            mongoTemplate.createCollection(collection);
+        }
+        mongoTemplate.executeCommand(new Document("collMod", collection)
+                .append("changeStreamPreAndPostImages", new Document("enabled", true)));
+    }
+
+    private void watch() {
+        while (running) {
+            try (var cursor = openCursor(loadResumeToken())) {
+                while (running) {
+                    var batch = nextBatch(cursor);
+                    if (!batch.isEmpty()) {
+                        apply(batch);
+                    }
+                }
+            } catch (RuntimeException e) {
+                if (e instanceof MongoCommandException commandException && commandException.getErrorCode() == CHANGE_STREAM_HISTORY_LOST) {
+                    log.error("Resume token of counter change stream is no longer in the oplog, starting from now. Counters need reconciliation.");
+                    deleteResumeToken();
+                } else {
+                    // events after the last saved resume token are read again
+                    log.warn("Counter change stream interrupted, reopening.", e);
+                    pause();
+                }
+            }
+        }
+    }
+
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> openCursor(BsonDocument resumeToken) {
+        var stream = mongoTemplate.getCollection(mongoTemplate.getCollectionName(WorkApplications.class))
+                .watch(List.of(Aggregates.match(Filters.in("operationType", List.of(
+                        OperationType.INSERT.getValue(),
+                        OperationType.UPDATE.getValue(),
+                        OperationType.REPLACE.getValue(),
+                        OperationType.DELETE.getValue())))))
+                .fullDocument(FullDocument.WHEN_AVAILABLE)
+                .fullDocumentBeforeChange(FullDocumentBeforeChange.WHEN_AVAILABLE)
+                .maxAwaitTime(maxAwaitMillis, TimeUnit.MILLISECONDS);
+        if (resumeToken != null) {
+            stream.resumeAfter(resumeToken);
+        }
+        return stream.cursor();
+    }
+
+    private List<ChangeStreamDocument<Document>> nextBatch(MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor) {
+        List<ChangeStreamDocument<Document>> batch = new ArrayList<>();
+        ChangeStreamDocument<Document> event;
+        while (batch.size() < batchSize && (event = cursor.tryNext()) != null) {
+            batch.add(event);
+        }
+        return batch;
+    }
+
+    private void apply(List<ChangeStreamDocument<Document>> batch) {
+        var transitions = batch.stream()
+                .flatMap(event -> toTransitions(event).stream())
+                .toList();
+        if (!transitions.isEmpty()) {
+            groupService.applyStatusTransitions(transitions);
+        }
+        saveResumeToken(batch.get(batch.size() - 1).getResumeToken());
+    }
+
+    private List<StatusTransition> toTransitions(ChangeStreamDocument<Document> event) {
+        var before = event.getFullDocumentBeforeChange();
+        var after = event.getFullDocument();
+
+        switch (event.getOperationType()) {
+            case INSERT:
+                return transition(groupIdOf(after), null, statusOf(after));
+            case DELETE:
+                if (before == null) {
+                    log.warn("Deleted work application {} has no pre-image, counters not updated.", event.getDocumentKey());
+                    return List.of();
+                }
+                return transition(groupIdOf(before), statusOf(before), null);
+            default:
+                if (before == null || after == null) {
+                    log.warn("Changed work application {} has no pre- or post-image, counters not updated.", event.getDocumentKey());
+                    return List.of();
+                }
+                var oldGroupId = groupIdOf(before);
+                var newGroupId = groupIdOf(after);
+                if (oldGroupId == null) {
+                    // the group id backfill of an application already counted in its group
+                    return List.of();
+                }
+                if (oldGroupId.equals(newGroupId)) {
+                    return transition(newGroupId, statusOf(before), statusOf(after));
+                }
+                var moved = new ArrayList<StatusTransition>(transition(oldGroupId, statusOf(before), null));
+                moved.addAll(transition(newGroupId, null, statusOf(after)));
+                return moved;
+        }
+    }
+
+    private List<StatusTransition> transition(String workGroupId, ApplicationStatus oldStatus, ApplicationStatus newStatus) {
+        if (workGroupId == null || Objects.equals(oldStatus, newStatus)) {
+            return List.of();
+        }
+        return List.of(new StatusTransition(workGroupId, oldStatus, newStatus));
+    }
+
+    private String groupIdOf(Document application) {
+        return application == null ? null : application.getString("workGroupId");
+    }
+
+    private ApplicationStatus statusOf(Document application) {
+        var status = application == null ? null : application.getString("status");
+        try {
+            return ApplicationStatus.getByUpperCaseStatus(status);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private BsonDocument loadResumeToken() {
+        var stored = tokens().find(Filters.eq("_id", RESUME_TOKEN_ID)).first();
+        return stored == null ? null : stored.getDocument("token");
+    }
+
+    private void saveResumeToken(BsonDocument token) {
+        var stored = new BsonDocument("_id", new BsonString(RESUME_TOKEN_ID)).append("token", token);
+        tokens().replaceOne(Filters.eq("_id", RESUME_TOKEN_ID), stored, new ReplaceOptions().upsert(true));
+    }
+
+    private void deleteResumeToken() {
+        tokens().deleteOne(Filters.eq("_id", RESUME_TOKEN_ID));
+    }
+
+    private MongoCollection<BsonDocument> tokens() {
+        return mongoTemplate.getDb().getCollection(RESUME_TOKENS_COLLECTION, BsonDocument.class);
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(maxAwaitMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
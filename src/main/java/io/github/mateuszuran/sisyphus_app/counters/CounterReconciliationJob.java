@@ -0,0 +1,163 @@
+package io.github.mateuszuran.sisyphus_app.counters;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import io.github.mateuszuran.sisyphus_app.model.WorkGroup;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepository;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepositoryCustom.GroupStatusCounts;
+import io.github.mateuszuran.sisyphus_app.repository.WorkGroupRepository;
+import io.github.mateuszuran.sisyphus_app.repository.WorkGroupRepositoryCustom.GroupCounters;
+import io.github.mateuszuran.sisyphus_app.service.WorkGroupServiceImpl;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Recomputes the counters of every work group from the statuses of its applications and fixes the groups that drifted.
+ * Groups are processed in chunks by id, and the last finished chunk is checkpointed so an interrupted pass resumes there.
+ * Applications are counted by {@code workGroupId}, so a group referencing applications that were not backfilled by
+ * {@code WorkApplicationsGroupIdMigration} yet is skipped rather than having its counters reset.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "sisyphus.counters.reconciliation", name = "enabled", havingValue = "true")
+public class CounterReconciliationJob {
+    static final String CHECKPOINTS_COLLECTION = "counter_reconciliation_checkpoints";
+    static final String CHECKPOINT_ID = "work_group";
+
+    private final WorkGroupRepository groupRepository;
+    private final WorkApplicationsRepository applicationsRepository;
+    private final WorkGroupServiceImpl groupService;
+    private final MongoTemplate mongoTemplate;
+    private final int chunkSize;
+
+    private final Counter checkedGroups;
+    private final Counter correctedGroups;
+    private final Timer passDuration;
+
+    public CounterReconciliationJob(WorkGroupRepository groupRepository,
+                                    WorkApplicationsRepository applicationsRepository,
+                                    WorkGroupServiceImpl groupService,
+                                    MongoTemplate mongoTemplate,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${sisyphus.counters.reconciliation.chunk-size:200}") int chunkSize) {
+        this.groupRepository = groupRepository;
+        this.applicationsRepository = applicationsRepository;
+        this.groupService = groupService;
+        this.mongoTemplate = mongoTemplate;
+        this.chunkSize = chunkSize;
+        this.checkedGroups = Counter.builder("sisyphus.counters.reconciliation.checked")
+                .description("Work groups whose counters were compared with their applications")
+                .register(meterRegistry);
+        this.correctedGroups = Counter.builder("sisyphus.counters.reconciliation.corrected")
+                .description("Work groups whose drifted counters were corrected")
+                .register(meterRegistry);
+        this.passDuration = Timer.builder("sisyphus.counters.reconciliation.pass")
+                .description("Duration of a full reconciliation pass")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${sisyphus.counters.reconciliation.interval:PT1H}",
+            initialDelayString = "${sisyphus.counters.reconciliation.initial-delay:PT1M}")
+    public void scheduledPass() {
+        var result = reconcile();
+        log.info("Reconciled counters of {} work groups, corrected {}, skipped {} with unlinked applications.",
+                result.checked(), result.corrected(), result.skipped());
+    }
+
+    /**
+     * Runs one pass from the checkpoint to the last group.
+     */
+    public PassResult reconcile() {
+        return passDuration.record(() -> {
+            int checked = 0;
+            int corrected = 0;
+            int skipped = 0;
+            String after = loadCheckpoint();
+            List<WorkGroup> chunk;
+            do {
+                chunk = after == null
+                        ? groupRepository.findAllByOrderByIdAsc(Limit.of(chunkSize))
+                        : groupRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                var unlinked = groupRepository.findGroupsWithUnlinkedApplications(chunk.stream().map(WorkGroup::getId).toList());
+                var countable = chunk.stream().filter(group -> !unlinked.contains(group.getId())).toList();
+                if (!countable.isEmpty()) {
+                    corrected += reconcileChunk(countable);
+                }
+                checked += countable.size();
+                skipped += chunk.size() - countable.size();
+                after = chunk.get(chunk.size() - 1).getId();
+                saveCheckpoint(after);
+            } while (chunk.size() == chunkSize);
+            deleteCheckpoint();
+
+            checkedGroups.increment(checked);
+            correctedGroups.increment(corrected);
+            return new PassResult(checked, corrected, skipped);
+        });
+    }
+
+    private int reconcileChunk(List<WorkGroup> groups) {
+        Map<String, GroupStatusCounts> actualCounts = applicationsRepository
+                .countStatusesOfGroups(groups.stream().map(WorkGroup::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(GroupStatusCounts::workGroupId, Function.identity()));
+
+        int corrected = 0;
+        for (WorkGroup group : groups) {
+            var stored = new GroupCounters(group.getSend(), group.getInProgress(), group.getDenied(), group.isHired());
+            var counts = actualCounts.get(group.getId());
+            var actual = counts == null
+                    ? new GroupCounters(0, 0, 0, false)
+                    : new GroupCounters((int) counts.send(), (int) counts.inProgress(), (int) counts.denied(), counts.hired() > 0);
+            if (stored.equals(actual)) {
+                continue;
+            }
+            // a group changed since it was read is left for the next pass
+            if (groupRepository.replaceCounters(group.getId(), stored, actual)) {
+                log.warn("Corrected drifted counters of work group {} from {} to {}.", group.getId(), stored, actual);
+                groupService.evictCachedGroup(group.getId());
+                corrected++;
+            }
+        }
+        return corrected;
+    }
+
+    private String loadCheckpoint() {
+        var checkpoint = checkpoints().find(Filters.eq("_id", CHECKPOINT_ID)).first();
+        return checkpoint == null ? null : checkpoint.getString("lastGroupId");
+    }
+
+    private void saveCheckpoint(String lastGroupId) {
+        checkpoints().replaceOne(Filters.eq("_id", CHECKPOINT_ID),
+                new Document("_id", CHECKPOINT_ID).append("lastGroupId", lastGroupId),
+                new ReplaceOptions().upsert(true));
+    }
+
+    private void deleteCheckpoint() {
+        checkpoints().deleteOne(Filters.eq("_id", CHECKPOINT_ID));
+    }
+
+    private MongoCollection<Document> checkpoints() {
+        return mongoTemplate.getCollection(CHECKPOINTS_COLLECTION);
+    }
+
+    public record PassResult(int checked, int corrected, int skipped) {}
+}
@@ -0,0 +1,27 @@
+package io.github.mateuszuran.sisyphus_app.dto;
+
+import lombok.Builder;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Query parameters filtering and ordering the applications of a group.
+ *
+ * @param q    words searched in the path of the URL
+ * @param sort {@code id} (default), {@code appliedDate} or {@code -appliedDate}
+ */
+@Builder
+public record ApplicationSearchDTO(List<String> status,
+                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                   String url,
+                                   String domain,
+                                   String q,
+                                   String sort) {
+
+    public boolean isEmpty() {
+        return (status == null || status.isEmpty()) && from == null && to == null && url == null && domain == null && q == null && sort == null;
+    }
+}
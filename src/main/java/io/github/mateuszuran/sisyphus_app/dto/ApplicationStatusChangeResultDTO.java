@@ -0,0 +1,11 @@
+package io.github.mateuszuran.sisyphus_app.dto;
+
+import lombok.Builder;
+
+@Builder
+public record ApplicationStatusChangeResultDTO(String applicationId, String status, Outcome outcome) {
+
+    public enum Outcome {
+        UPDATED, UNCHANGED, NOT_FOUND, INVALID_STATUS, CONFLICT
+    }
+}
@@ -0,0 +1,10 @@
+package io.github.mateuszuran.sisyphus_app.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset paginated listing.
+ *
+ * @param nextCursor id to pass as {@code after} to get the next page, {@code null} on the last page
+ */
+public record CursorPageDTO<T>(List<T> items, String nextCursor) {}
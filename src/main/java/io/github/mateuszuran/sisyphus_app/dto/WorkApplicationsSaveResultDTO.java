@@ -0,0 +1,6 @@
+package io.github.mateuszuran.sisyphus_app.dto;
+
+import lombok.Builder;
+
+@Builder
+public record WorkApplicationsSaveResultDTO(int inserted, int skipped) {}
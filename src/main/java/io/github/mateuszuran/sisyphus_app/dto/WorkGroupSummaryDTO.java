@@ -0,0 +1,6 @@
+package io.github.mateuszuran.sisyphus_app.dto;
+
+import lombok.Builder;
+
+@Builder
+public record WorkGroupSummaryDTO(String id, String cvFileName, long cvSize, String creationTime, int applied, int denied, int inProgress, boolean isHired) {}
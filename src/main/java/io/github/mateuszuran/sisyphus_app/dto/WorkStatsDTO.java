@@ -0,0 +1,28 @@
+package io.github.mateuszuran.sisyphus_app.dto;
+
+import io.github.mateuszuran.sisyphus_app.model.ApplicationStatus;
+import lombok.Builder;
+
+import java.util.List;
+import java.util.Map;
+
+@Builder
+public record WorkStatsDTO(long total, Map<ApplicationStatus, Long> byStatus, List<GroupStats> groups, List<MonthlyCount> perMonth) {
+
+    /**
+     * @param conversionRate share of the group's applications that got past {@code SEND}, i.e. are in progress or hired
+     */
+    @Builder
+    public record GroupStats(String workGroupId, long total, long send, long inProgress, long denied, long hired, double conversionRate) {}
+
+    /**
+     * @param conversionRate same as in {@link GroupStats}, for the applications sent through the job board
+     */
+    @Builder
+    public record DomainStats(String domain, long total, long send, long inProgress, long denied, long hired, double conversionRate) {}
+
+    /**
+     * @param month in {@code yyyy-MM} form
+     */
+    public record MonthlyCount(String month, long count) {}
+}
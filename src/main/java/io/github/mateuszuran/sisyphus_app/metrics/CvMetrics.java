@@ -0,0 +1,70 @@
+package io.github.mateuszuran.sisyphus_app.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Sizes of uploaded CVs, how well they compress at rest and the time spent reading and encoding stored CVs for group views.
+ */
+@Component
+public class CvMetrics {
+    private final DistributionSummary uploadSize;
+    private final Timer encoding;
+    private final DistributionSummary compressedRatio;
+    private final DistributionSummary uncompressedRatio;
+    private final Timer compression;
+    private final Timer decompression;
+
+    public CvMetrics(MeterRegistry meterRegistry) {
+        this.uploadSize = DistributionSummary.builder("sisyphus.cv.upload.size")
+                .description("Size of uploaded CV files")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.encoding = Timer.builder("sisyphus.cv.encode")
+                .description("Reading a stored CV and encoding it for a group view")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.compressedRatio = compressionRatio("deflate", meterRegistry);
+        this.uncompressedRatio = compressionRatio("none", meterRegistry);
+        this.compression = Timer.builder("sisyphus.cv.compress")
+                .description("Compressing a CV while it is stored")
+                .register(meterRegistry);
+        this.decompression = Timer.builder("sisyphus.cv.decompress")
+                .description("Decompressing a stored CV while it is read")
+                .register(meterRegistry);
+    }
+
+    private static DistributionSummary compressionRatio(String codec, MeterRegistry meterRegistry) {
+        return DistributionSummary.builder("sisyphus.cv.compression.ratio")
+                .description("Stored size of a CV divided by its uploaded size, estimated from the sample for CVs stored as is")
+                .tag("codec", codec)
+                .register(meterRegistry);
+    }
+
+    public void recordUpload(long bytes) {
+        uploadSize.record(bytes);
+    }
+
+    public void recordCompressed(double ratio, long nanos) {
+        compressedRatio.record(ratio);
+        compression.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordUncompressed(double sampleRatio) {
+        uncompressedRatio.record(sampleRatio);
+    }
+
+    public void recordDecompression(long nanos) {
+        decompression.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public <T> T recordEncoding(Supplier<T> encoder) {
+        return encoding.record(encoder);
+    }
+}
@@ -0,0 +1,55 @@
+package io.github.mateuszuran.sisyphus_app.migration;
+
+import com.mongodb.client.model.Filters;
+import io.github.mateuszuran.sisyphus_app.model.WorkApplications;
+import io.github.mateuszuran.sisyphus_app.model.WorkGroup;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonType;
+import org.bson.Document;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Converts {@code work_group.creationTime} and {@code work_applications.appliedDate} saved as {@code dd-MM-yyyy}
+ * strings into dates at UTC midnight. Each collection is converted by one pipeline update on the server, values that
+ * are not such a date stay untouched and are reported. Safe to run repeatedly.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Order(MigrationOrder.DATE_FIELDS)
+@ConditionalOnProperty(prefix = "sisyphus.migration", name = "enabled", havingValue = "true")
+public class DateFieldsMigration implements ApplicationRunner {
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        convert(WorkGroup.class, "creationTime");
+        convert(WorkApplications.class, "appliedDate");
+    }
+
+    private void convert(Class<?> document, String field) {
+        var collection = mongoTemplate.getCollection(mongoTemplate.getCollectionName(document));
+        var stringValues = Filters.type(field, BsonType.STRING);
+
+        var toDate = new Document("$dateFromString", new Document("dateString", "$" + field)
+                .append("format", "%d-%m-%Y")
+                .append("timezone", "UTC")
+                .append("onError", "$" + field));
+        var converted = collection.updateMany(stringValues, List.of(new Document("$set", new Document(field, toDate))))
+                .getModifiedCount();
+        log.info("Converted {} of {} to a date.", converted, field);
+
+        long unparseable = collection.countDocuments(stringValues);
+        if (unparseable > 0) {
+            log.warn("{} values of {} are not dd-MM-yyyy dates and were left as strings.", unparseable, field);
+        }
+    }
+}
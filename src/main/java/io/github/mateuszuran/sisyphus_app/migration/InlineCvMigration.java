@@ -0,0 +1,104 @@
+package io.github.mateuszuran.sisyphus_app.migration;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import io.github.mateuszuran.sisyphus_app.model.WorkGroup;
+import io.github.mateuszuran.sisyphus_app.storage.CvBlobRegistry;
+import io.github.mateuszuran.sisyphus_app.storage.CvStorage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Moves CVs stored inline in {@code work_group.cvData} into {@link CvStorage}, shared through {@link CvBlobRegistry}
+ * like uploaded CVs so groups with the same CV reference one file. Groups are read one by one so only a single CV is
+ * held in memory at a time. Safe to run repeatedly.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Order(MigrationOrder.INLINE_CV)
+@ConditionalOnProperty(prefix = "sisyphus.migration", name = "enabled", havingValue = "true")
+public class InlineCvMigration implements ApplicationRunner {
+    private static final String INLINE_CV_FIELD = "cvData";
+
+    private final MongoTemplate mongoTemplate;
+    private final CvStorage cvStorage;
+    private final CvBlobRegistry cvBlobs;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        var groups = mongoTemplate.getCollection(mongoTemplate.getCollectionName(WorkGroup.class))
+                .find(Filters.exists(INLINE_CV_FIELD))
+                .projection(Projections.include(INLINE_CV_FIELD, "cvFileName"))
+                .batchSize(1);
+
+        long moved = 0;
+        for (Document group : groups) {
+            var groupId = group.get("_id");
+            var cv = group.get(INLINE_CV_FIELD, Binary.class);
+            var update = new Update().unset(INLINE_CV_FIELD);
+            if (cv == null) {
+                mongoTemplate.updateFirst(query(where("_id").is(groupId)), update, WorkGroup.class);
+            } else {
+                moveToStorage(groupId, cv.getData(), group.getString("cvFileName"), update);
+            }
+            moved++;
+        }
+        log.info("Moved {} inline CVs out of work groups.", moved);
+    }
+
+    /**
+     * Stores and shares the CV, then points the group at the shared file. The reference is dropped again when the group
+     * was not updated, so a failed or repeated run leaves no file counted for nothing.
+     */
+    private void moveToStorage(Object groupId, byte[] cv, String fileName, Update update) {
+        String cvHash = sha256(cv);
+        String storedFileId = cvStorage.store(new ByteArrayInputStream(cv), fileName, MediaType.APPLICATION_PDF_VALUE);
+        String cvFileId;
+        try {
+            cvFileId = cvBlobs.share(cvHash, storedFileId, cv.length);
+        } catch (RuntimeException e) {
+            cvStorage.delete(storedFileId);
+            throw e;
+        }
+        update.set("cvFileId", cvFileId)
+                .set("cvContentType", MediaType.APPLICATION_PDF_VALUE)
+                .set("cvSize", (long) cv.length)
+                .set("cvHash", cvHash);
+        try {
+            var result = mongoTemplate.updateFirst(query(where("_id").is(groupId).and(INLINE_CV_FIELD).exists(true)), update, WorkGroup.class);
+            if (result.getModifiedCount() == 0) {
+                cvBlobs.release(cvHash, cvFileId);
+            }
+        } catch (RuntimeException e) {
+            cvBlobs.release(cvHash, cvFileId);
+            throw e;
+        }
+    }
+
+    private String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
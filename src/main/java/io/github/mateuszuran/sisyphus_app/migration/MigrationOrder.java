@@ -0,0 +1,17 @@
+package io.github.mateuszuran.sisyphus_app.migration;
+
+/**
+ * Run order of the migrations, which share the {@code sisyphus.migration.enabled} switch and run after
+ * {@code MongoIndexInitializer}. The {@code workGroupId} back-reference is backfilled first among the application
+ * migrations, as the normalized URL is unique per group and counter reconciliation counts applications by it.
+ * The inline CVs are moved last, they take the longest.
+ */
+final class MigrationOrder {
+    static final int DATE_FIELDS = 1;
+    static final int WORK_APPLICATIONS_GROUP_ID = 2;
+    static final int WORK_URL_PARTS = 3;
+    static final int INLINE_CV = 4;
+
+    private MigrationOrder() {
+    }
+}
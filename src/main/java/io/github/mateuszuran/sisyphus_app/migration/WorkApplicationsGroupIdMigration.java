@@ -0,0 +1,54 @@
+package io.github.mateuszuran.sisyphus_app.migration;
+
+import com.mongodb.client.model.Projections;
+import io.github.mateuszuran.sisyphus_app.model.WorkApplications;
+import io.github.mateuszuran.sisyphus_app.model.WorkGroup;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Backfills {@code workGroupId} on work applications saved before the back-reference existed.
+ * Only the reference list of every group is read, CV bytes are never loaded. Safe to run repeatedly.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Order(MigrationOrder.WORK_APPLICATIONS_GROUP_ID)
+@ConditionalOnProperty(prefix = "sisyphus.migration", name = "enabled", havingValue = "true")
+public class WorkApplicationsGroupIdMigration implements ApplicationRunner {
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        var groups = mongoTemplate.getCollection(mongoTemplate.getCollectionName(WorkGroup.class))
+                .find()
+                .projection(Projections.include("workApplications"));
+
+        long updated = 0;
+        for (Document group : groups) {
+            List<Object> references = group.getList("workApplications", Object.class);
+            if (references == null || references.isEmpty()) {
+                continue;
+            }
+            var result = mongoTemplate.updateMulti(
+                    query(where("_id").in(references).and("workGroupId").exists(false)),
+                    Update.update("workGroupId", group.get("_id").toString()),
+                    WorkApplications.class);
+            updated += result.getModifiedCount();
+        }
+        log.info("Backfilled work group id on {} work applications.", updated);
+    }
+}
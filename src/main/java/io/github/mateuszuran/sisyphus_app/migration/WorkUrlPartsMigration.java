@@ -0,0 +1,108 @@
+package io.github.mateuszuran.sisyphus_app.migration;
+
+import com.mongodb.ErrorCategory;
+import io.github.mateuszuran.sisyphus_app.model.WorkApplications;
+import io.github.mateuszuran.sisyphus_app.util.WorkUrlNormalizer;
+import io.github.mateuszuran.sisyphus_app.util.WorkUrlParts;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+import org.springframework.stereotype.Component;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Fills host, domain, posting key, URL keywords and the normalized URL of applications saved before they were extracted
+ * on write. Parsing happens here rather than on the server, the documents are updated in bulk batches. Safe to run repeatedly.
+ * <p>
+ * The normalized URL is set by its own update, so a legacy application repeating a posting already saved in its group
+ * still gets its URL parts; it is kept without the dedup key, which the unique index refuses, and reported.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Order(MigrationOrder.WORK_URL_PARTS)
+@ConditionalOnProperty(prefix = "sisyphus.migration", name = "enabled", havingValue = "true")
+public class WorkUrlPartsMigration implements ApplicationRunner {
+    static final int BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        var missing = Query.query(new Criteria()
+                .orOperator(where("postingKey").exists(false), where("normalizedWorkUrl").exists(false))
+                .and("workUrl").type(JsonSchemaObject.Type.STRING));
+        missing.fields().include("workUrl", "postingKey", "normalizedWorkUrl");
+        missing.cursorBatchSize(BATCH_SIZE);
+
+        var bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, WorkApplications.class);
+        int pending = 0;
+        long updated = 0;
+        long duplicates = 0;
+        try (var applications = mongoTemplate.stream(missing, WorkApplications.class)) {
+            for (var application : (Iterable<WorkApplications>) applications::iterator) {
+                if (application.getPostingKey() == null) {
+                    var parts = WorkUrlParts.of(application.getWorkUrl());
+                    bulk.updateOne(Query.query(where("_id").is(application.getId())), new Update()
+                            .set("host", parts.host())
+                            .set("domain", parts.domain())
+                            .set("postingKey", parts.postingKey())
+                            .set("urlKeywords", parts.keywords()));
+                    pending++;
+                }
+                var normalizedWorkUrl = WorkUrlNormalizer.normalize(application.getWorkUrl());
+                if (application.getNormalizedWorkUrl() == null && normalizedWorkUrl != null) {
+                    bulk.updateOne(Query.query(where("_id").is(application.getId()).and("normalizedWorkUrl").exists(false)),
+                            Update.update("normalizedWorkUrl", normalizedWorkUrl));
+                    pending++;
+                }
+                if (pending >= BATCH_SIZE) {
+                    var batch = execute(bulk);
+                    updated += batch.updated();
+                    duplicates += batch.duplicates();
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, WorkApplications.class);
+                    pending = 0;
+                }
+            }
+        }
+        if (pending > 0) {
+            var batch = execute(bulk);
+            updated += batch.updated();
+            duplicates += batch.duplicates();
+        }
+        log.info("Extracted URL parts in {} updates of applications.", updated);
+        if (duplicates > 0) {
+            log.warn("Kept {} applications without a normalized URL, their posting is already saved in the same group.", duplicates);
+        }
+    }
+
+    /**
+     * Executes the batch, a normalized URL refused by the unique index leaves the other updates applied.
+     */
+    private Batch execute(BulkOperations bulk) {
+        try {
+            return new Batch(bulk.execute().getModifiedCount(), 0);
+        } catch (BulkOperationException e) {
+            for (var error : e.getErrors()) {
+                if (ErrorCategory.fromErrorCode(error.getCode()) != ErrorCategory.DUPLICATE_KEY) {
+                    throw e;
+                }
+            }
+            return new Batch(e.getResult().getModifiedCount(), e.getErrors().size());
+        }
+    }
+
+    private record Batch(long updated, long duplicates) {
+    }
+}
@@ -0,0 +1,27 @@
+package io.github.mateuszuran.sisyphus_app.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * A stored CV file shared by every work group uploaded with the same content.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "cv_blobs")
+public class CvBlob {
+    /**
+     * Hex encoded SHA-256 of the content.
+     */
+    @Id
+    private String hash;
+    private String fileId;
+    private long size;
+    @Indexed(name = "refCount")
+    private long refCount;
+}
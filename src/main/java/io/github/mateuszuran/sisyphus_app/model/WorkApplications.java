@@ -1,20 +1,52 @@
 package io.github.mateuszuran.sisyphus_app.model;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.github.mateuszuran.sisyphus_app.util.TimeUtil;
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.LocalDate;
+
 @Getter
 @Setter
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 @Document(collection = "work_applications")
+@CompoundIndex(name = "workGroupId_id", def = "{'workGroupId': 1, '_id': 1}")
+@CompoundIndex(name = "workGroupId_appliedDate_id", def = "{'workGroupId': 1, 'appliedDate': 1, '_id': 1}")
+@CompoundIndex(name = "workGroupId_status_appliedDate", def = "{'workGroupId': 1, 'status': 1, 'appliedDate': 1}")
+@CompoundIndex(name = "appliedDate_id", def = "{'appliedDate': 1, '_id': 1}")
+@CompoundIndex(name = "status_appliedDate", def = "{'status': 1, 'appliedDate': 1}")
+@CompoundIndex(name = "workGroupId_domain", def = "{'workGroupId': 1, 'domain': 1}")
+@CompoundIndex(name = "domain_status", def = "{'domain': 1, 'status': 1}")
+@CompoundIndex(name = "workGroupId_urlKeywords_text", def = "{'workGroupId': 1, 'urlKeywords': 'text'}")
+@CompoundIndex(name = "workGroupId_normalizedWorkUrl", def = "{'workGroupId': 1, 'normalizedWorkUrl': 1}", unique = true,
+        partialFilter = "{'normalizedWorkUrl': {'$exists': true}}")
 public class WorkApplications {
     @Id
     private String id;
 
     private String workUrl;
-    private String appliedDate;
+    private String normalizedWorkUrl;
+    private String host;
+    private String domain;
+    @Indexed(name = "postingKey")
+    private String postingKey;
+    @JsonIgnore
+    private String urlKeywords;
+    @JsonFormat(pattern = TimeUtil.DISPLAY_PATTERN)
+    private LocalDate appliedDate;
     private ApplicationStatus status;
+    /**
+     * Id of the last bulk status change that applied to this application, tells which changes of a bulk write matched.
+     */
+    @JsonIgnore
+    private String lastStatusChange;
+
+    private String workGroupId;
 }
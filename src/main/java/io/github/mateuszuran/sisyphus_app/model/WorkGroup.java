@@ -3,11 +3,12 @@ package io.github.mateuszuran.sisyphus_app.model;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
-import org.bson.types.Binary;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.DocumentReference;
 
+import java.time.Instant;
 import java.util.List;
 
 @Getter
@@ -18,9 +19,13 @@ public class WorkGroup {
     @Id
     private String id;
 
-    private Binary cvData;
+    private String cvFileId;
     private String cvFileName;
-    private String creationTime;
+    private String cvContentType;
+    private long cvSize;
+    private String cvHash;
+    @Indexed(name = "creationTime")
+    private Instant creationTime;
     private int send;
     private int denied;
     private int inProgress;
@@ -0,0 +1,82 @@
+package io.github.mateuszuran.sisyphus_app.reactive;
+
+import io.github.mateuszuran.sisyphus_app.dto.ApplicationSearchDTO;
+import io.github.mateuszuran.sisyphus_app.dto.ApplicationStatusChangeDTO;
+import io.github.mateuszuran.sisyphus_app.dto.ApplicationStatusChangeResultDTO;
+import io.github.mateuszuran.sisyphus_app.dto.WorkApplicationDTO;
+import io.github.mateuszuran.sisyphus_app.dto.WorkApplicationsSaveResultDTO;
+import io.github.mateuszuran.sisyphus_app.model.WorkApplications;
+import io.github.mateuszuran.sisyphus_app.util.CursorPagination;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Same contract as the servlet {@code WorkApplicationsController}, served by WebFlux when the {@code reactive} profile is active.
+ */
+@CrossOrigin(origins = "http://localhost:4200", maxAge = 3600, exposedHeaders = CursorPagination.NEXT_CURSOR_HEADER)
+@RestController
+@RequestMapping("/applications")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWorkApplicationsController {
+    private final ReactiveWorkApplicationsService service;
+
+    @GetMapping("/all/{workGroupId}")
+    public Mono<ResponseEntity<Flux<WorkApplications>>> getAllWorkApplicationsByGroup(@PathVariable String workGroupId,
+                                                                                      ApplicationSearchDTO search,
+                                                                                      @RequestParam(required = false) Integer limit,
+                                                                                      @RequestParam(required = false) String after) {
+        if (!search.isEmpty()) {
+            return service.searchApplications(workGroupId, search, limit, after)
+                    .map(page -> ResponseEntity.ok()
+                            .headers(CursorPagination.nextCursorHeaders(page))
+                            .body(Flux.fromIterable(page.items())));
+        }
+        if (limit == null) {
+            return Mono.just(ResponseEntity.ok().body(service.getAllApplicationsByWorkGroupId(workGroupId)));
+        }
+        return service.getApplicationsPageByWorkGroupId(workGroupId, limit, after)
+                .map(page -> ResponseEntity.ok()
+                        .headers(CursorPagination.nextCursorHeaders(page))
+                        .body(Flux.fromIterable(page.items())));
+    }
+
+    @GetMapping("/applied")
+    public ResponseEntity<Flux<WorkApplications>> getWorkApplicationsAppliedBetween(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok().body(service.getApplicationsAppliedBetween(from, to));
+    }
+
+    @PostMapping("/save/{workGroupId}")
+    public Mono<ResponseEntity<WorkApplicationsSaveResultDTO>> addWorkApp(@RequestBody List<WorkApplicationDTO> applications, @PathVariable String workGroupId) {
+        return service.createWorkApplication(applications, workGroupId)
+                .map(result -> new ResponseEntity<>(result, HttpStatus.CREATED));
+    }
+
+    @DeleteMapping("/delete/{applicationId}")
+    public Mono<ResponseEntity<String>> deleteSingleWorkApplication(@PathVariable String applicationId) {
+        return service.deleteWorkApplication(applicationId)
+                .thenReturn(new ResponseEntity<>(HttpStatus.OK));
+    }
+
+    @PatchMapping("/update/{applicationId}/{status}")
+    public Mono<ResponseEntity<WorkApplications>> updateWorkStatus(@PathVariable String applicationId, @PathVariable String status) {
+        return service.updateApplicationStatus(applicationId, status)
+                .map(application -> ResponseEntity.ok().body(application));
+    }
+
+    @PatchMapping("/status")
+    public Mono<ResponseEntity<List<ApplicationStatusChangeResultDTO>>> updateWorkStatuses(@RequestBody List<ApplicationStatusChangeDTO> changes) {
+        return service.updateApplicationStatuses(changes)
+                .map(results -> ResponseEntity.ok().body(results));
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.mateuszuran.sisyphus_app.reactive;
+
+import io.github.mateuszuran.sisyphus_app.model.WorkApplications;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Range;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+public interface ReactiveWorkApplicationsRepository extends ReactiveMongoRepository<WorkApplications, String> {
+
+    Flux<WorkApplications> findByWorkGroupIdOrderByIdAsc(String workGroupId);
+
+    Flux<WorkApplications> findByWorkGroupIdOrderByIdAsc(String workGroupId, Limit limit);
+
+    Flux<WorkApplications> findByWorkGroupIdAndIdGreaterThanOrderByIdAsc(String workGroupId, String after, Limit limit);
+
+    Flux<WorkApplications> findByAppliedDateBetweenOrderByAppliedDateAscIdAsc(Range<LocalDate> appliedDates);
+}
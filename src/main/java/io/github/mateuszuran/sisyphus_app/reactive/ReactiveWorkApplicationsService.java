@@ -0,0 +1,86 @@
+package io.github.mateuszuran.sisyphus_app.reactive;
+
+import io.github.mateuszuran.sisyphus_app.dto.ApplicationSearchDTO;
+import io.github.mateuszuran.sisyphus_app.dto.ApplicationStatusChangeDTO;
+import io.github.mateuszuran.sisyphus_app.dto.ApplicationStatusChangeResultDTO;
+import io.github.mateuszuran.sisyphus_app.dto.CursorPageDTO;
+import io.github.mateuszuran.sisyphus_app.dto.WorkApplicationDTO;
+import io.github.mateuszuran.sisyphus_app.dto.WorkApplicationsSaveResultDTO;
+import io.github.mateuszuran.sisyphus_app.model.WorkApplications;
+import io.github.mateuszuran.sisyphus_app.service.WorkApplicationsServiceImpl;
+import io.github.mateuszuran.sisyphus_app.util.CursorPagination;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Range;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Applications are read by their {@code workGroupId} back-reference through the reactive driver.
+ * Writes keep the counter and cache bookkeeping of {@link WorkApplicationsServiceImpl} and run on the bounded elastic scheduler.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWorkApplicationsService {
+    private final ReactiveWorkApplicationsRepository repository;
+    private final ReactiveWorkGroupRepository groupRepository;
+    private final WorkApplicationsServiceImpl applicationsService;
+
+    public Flux<WorkApplications> getAllApplicationsByWorkGroupId(String workGroupId) {
+        return groupRepository.existsById(workGroupId)
+                .flatMapMany(exists -> exists
+                        ? repository.findByWorkGroupIdOrderByIdAsc(workGroupId)
+                        : Flux.error(new RuntimeException("Work group with given ID not found")));
+    }
+
+    public Mono<CursorPageDTO<WorkApplications>> getApplicationsPageByWorkGroupId(String workGroupId, int limit, String after) {
+        CursorPagination.validateCursor(after);
+        var pageLimit = CursorPagination.limit(limit);
+        var applications = after == null
+                ? repository.findByWorkGroupIdOrderByIdAsc(workGroupId, pageLimit)
+                : repository.findByWorkGroupIdAndIdGreaterThanOrderByIdAsc(workGroupId, after, pageLimit);
+        return applications.collectList()
+                .map(items -> CursorPagination.page(items, pageLimit, WorkApplications::getId));
+    }
+
+    /**
+     * The search query is built by the blocking repository, so it runs on the bounded elastic scheduler like the writes.
+     */
+    public Mono<CursorPageDTO<WorkApplications>> searchApplications(String workGroupId, ApplicationSearchDTO search, Integer limit, String after) {
+        return offload(() -> applicationsService.searchApplications(workGroupId, search, limit, after));
+    }
+
+    public Flux<WorkApplications> getApplicationsAppliedBetween(LocalDate from, LocalDate to) {
+        return repository.findByAppliedDateBetweenOrderByAppliedDateAscIdAsc(Range.closed(from, to));
+    }
+
+    public Mono<WorkApplicationsSaveResultDTO> createWorkApplication(List<WorkApplicationDTO> applications, String workGroupId) {
+        return offload(() -> applicationsService.createWorkApplication(applications, workGroupId));
+    }
+
+    public Mono<Void> deleteWorkApplication(String applicationId) {
+        return offload(() -> {
+            applicationsService.deleteWorkApplication(applicationId);
+            return true;
+        }).then();
+    }
+
+    public Mono<WorkApplications> updateApplicationStatus(String applicationId, String newStatus) {
+        return offload(() -> applicationsService.updateApplicationStatus(applicationId, newStatus));
+    }
+
+    public Mono<List<ApplicationStatusChangeResultDTO>> updateApplicationStatuses(List<ApplicationStatusChangeDTO> changes) {
+        return offload(() -> applicationsService.updateApplicationStatuses(changes));
+    }
+
+    private <T> Mono<T> offload(Callable<T> write) {
+        return Mono.fromCallable(write).subscribeOn(Schedulers.boundedElastic());
+    }
+}
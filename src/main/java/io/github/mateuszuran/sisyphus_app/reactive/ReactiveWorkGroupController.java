@@ -0,0 +1,148 @@
+package io.github.mateuszuran.sisyphus_app.reactive;
+
+import io.github.mateuszuran.sisyphus_app.dto.WorkGroupDTO;
+import io.github.mateuszuran.sisyphus_app.dto.WorkGroupSummaryDTO;
+import io.github.mateuszuran.sisyphus_app.model.WorkGroup;
+import io.github.mateuszuran.sisyphus_app.util.CursorPagination;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Same contract as the servlet {@code WorkGroupController}, served by WebFlux when the {@code reactive} profile is active.
+ */
+@CrossOrigin(origins = "http://localhost:4200", maxAge = 3600, exposedHeaders = CursorPagination.NEXT_CURSOR_HEADER)
+@RestController
+@RequestMapping("/group")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWorkGroupController {
+    private final ReactiveWorkGroupService service;
+
+    @GetMapping("/all")
+    public Mono<ResponseEntity<Flux<WorkGroupDTO>>> getAllWorkGroups(@RequestParam(required = false) Integer limit,
+                                                                     @RequestParam(required = false) String after) {
+        if (limit == null) {
+            return Mono.just(ResponseEntity.ok()
+                    .body(service.getAllMappedWorkGroups()));
+        }
+        return service.getMappedWorkGroupsPage(limit, after)
+                .map(page -> ResponseEntity.ok()
+                        .headers(CursorPagination.nextCursorHeaders(page))
+                        .body(Flux.fromIterable(page.items())));
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<Flux<WorkGroupSummaryDTO>> getAllWorkGroupSummaries() {
+        return ResponseEntity.ok()
+                .body(service.getAllWorkGroupSummaries());
+    }
+
+    @GetMapping("/created")
+    public ResponseEntity<Flux<WorkGroupSummaryDTO>> getWorkGroupSummariesCreatedIn(@RequestParam(required = false) YearMonth month) {
+        return ResponseEntity.ok()
+                .body(service.getWorkGroupSummariesCreatedIn(month));
+    }
+
+    @PostMapping("/create")
+    public Mono<ResponseEntity<String>> createWorKGroup(@RequestPart("cv") Mono<FilePart> file) {
+        return file
+                .flatMap(service::createNewWorkGroup)
+                .map(id -> new ResponseEntity<String>(HttpStatus.OK))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(new ResponseEntity<>(HttpStatus.NOT_FOUND)))
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @GetMapping("/single/{workGroupId}")
+    public Mono<ResponseEntity<WorkGroupDTO>> getSingleWorkGroup(@PathVariable String workGroupId) {
+        return service.getMappedSingleWorkGroup(workGroupId)
+                .map(group -> ResponseEntity.ok().body(group));
+    }
+
+    /**
+     * Streams the raw CV. A single byte range and If-None-Match against the content hash ETag are honoured, the latter
+     * compared by {@link ServerWebExchange#checkNotModified(String)} so weak validators match too.
+     */
+    @GetMapping("/{workGroupId}/cv")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getWorkGroupCv(@PathVariable String workGroupId, ServerWebExchange exchange) {
+        return service.getWorkGroup(workGroupId)
+                .map(group -> group.getCvFileId() == null
+                        ? ResponseEntity.notFound().<Flux<DataBuffer>>build()
+                        : cvResponse(group, exchange));
+    }
+
+    @DeleteMapping("/delete/{workGroupId}")
+    public Mono<ResponseEntity<String>> deleteSingleWorkGroup(@PathVariable String workGroupId) {
+        return service.deleteSingleGroup(workGroupId)
+                .thenReturn(new ResponseEntity<>(HttpStatus.OK));
+    }
+
+    private ResponseEntity<Flux<DataBuffer>> cvResponse(WorkGroup group, ServerWebExchange exchange) {
+        var eTag = group.getCvHash() != null ? "\"" + group.getCvHash() + "\"" : null;
+        if (eTag != null && (exchange.checkNotModified(eTag) || matchesAnyETag(exchange.getRequest().getHeaders()))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+
+        long size = group.getCvSize();
+        List<HttpRange> ranges = size > 0 ? parseRanges(exchange.getRequest().getHeaders()) : List.of();
+        boolean partial = ranges.size() == 1;
+        long start = partial ? ranges.get(0).getRangeStart(size) : 0;
+        long end = partial ? ranges.get(0).getRangeEnd(size) : size - 1;
+        if (partial && start >= size) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                    .build();
+        }
+
+        var response = ResponseEntity.status(partial ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK)
+                .contentType(group.getCvContentType() != null ? MediaType.parseMediaType(group.getCvContentType()) : MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline().filename(group.getCvFileName() != null ? group.getCvFileName() : "cv.pdf", StandardCharsets.UTF_8).build().toString())
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (eTag != null) {
+            response.eTag(eTag);
+        }
+        if (partial) {
+            response.header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        }
+        if (size > 0) {
+            // legacy groups without a recorded size are streamed without a length
+            response.contentLength(end - start + 1);
+        }
+        return response.body(service.readCv(group.getCvFileId(), start, size > 0 ? end - start + 1 : Long.MAX_VALUE));
+    }
+
+    /**
+     * {@code If-None-Match: *} matches any current representation (RFC 7232, section 3.2), Spring only honours it for
+     * unsafe methods.
+     */
+    private boolean matchesAnyETag(HttpHeaders requestHeaders) {
+        try {
+            return requestHeaders.getIfNoneMatch().contains("*");
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private List<HttpRange> parseRanges(HttpHeaders requestHeaders) {
+        try {
+            return requestHeaders.getRange();
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package io.github.mateuszuran.sisyphus_app.reactive;
+
+import io.github.mateuszuran.sisyphus_app.model.WorkGroup;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Reads leave out the application references, the reactive mapping cannot resolve lazy {@code @DocumentReference}s.
+ */
+public interface ReactiveWorkGroupRepository extends ReactiveMongoRepository<WorkGroup, String> {
+
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'cvData' : 0, 'workApplications' : 0 }")
+    Mono<WorkGroup> findMetadataById(String workGroupId);
+
+    @Query(value = "{}", fields = "{ 'cvData' : 0, 'workApplications' : 0 }", sort = "{ '_id' : 1 }")
+    Flux<WorkGroup> findAllMetadata();
+
+    @Query(value = "{ 'creationTime' : { '$gte' : ?0, '$lt' : ?1 } }", fields = "{ 'cvData' : 0, 'workApplications' : 0 }",
+            sort = "{ 'creationTime' : 1 }")
+    Flux<WorkGroup> findMetadataCreatedBetween(Instant from, Instant to);
+
+    @Query(value = "{}", fields = "{ 'cvData' : 0, 'workApplications' : 0 }", sort = "{ '_id' : 1 }")
+    Flux<WorkGroup> findMetadataPage(Limit limit);
+
+    @Query(value = "{ '_id': { '$gt': ?0 } }", fields = "{ 'cvData' : 0, 'workApplications' : 0 }", sort = "{ '_id' : 1 }")
+    Flux<WorkGroup> findMetadataPageAfter(String after, Limit limit);
+}
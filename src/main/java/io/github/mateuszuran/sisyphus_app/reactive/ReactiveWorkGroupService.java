@@ -0,0 +1,207 @@
+package io.github.mateuszuran.sisyphus_app.reactive;
+
+import io.github.mateuszuran.sisyphus_app.dto.CursorPageDTO;
+import io.github.mateuszuran.sisyphus_app.dto.WorkGroupDTO;
+import io.github.mateuszuran.sisyphus_app.dto.WorkGroupSummaryDTO;
+import io.github.mateuszuran.sisyphus_app.model.WorkGroup;
+import io.github.mateuszuran.sisyphus_app.service.WorkGroupServiceImpl;
+import io.github.mateuszuran.sisyphus_app.storage.CvStorage;
+import io.github.mateuszuran.sisyphus_app.util.CursorPagination;
+import io.github.mateuszuran.sisyphus_app.util.TimeUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
+import java.time.YearMonth;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Reads go through the reactive driver. Writes and CV bytes reuse the blocking {@link WorkGroupServiceImpl} and
+ * {@link CvStorage} on the bounded elastic scheduler, so both stacks share one implementation of storage, hashing,
+ * counters and cache eviction while no event loop thread ever blocks.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWorkGroupService {
+    static final int CHUNK_SIZE = 64 * 1024;
+    private static final int CONCURRENT_CV_READS = 4;
+
+    private final ReactiveWorkGroupRepository repository;
+    private final WorkGroupServiceImpl groupService;
+    private final CvStorage cvStorage;
+    private final TimeUtil timeUtil;
+
+    public Flux<WorkGroupDTO> getAllMappedWorkGroups() {
+        return repository.findAllMetadata()
+                .flatMapSequential(this::mapToDTO, CONCURRENT_CV_READS);
+    }
+
+    public Mono<CursorPageDTO<WorkGroupDTO>> getMappedWorkGroupsPage(int limit, String after) {
+        CursorPagination.validateCursor(after);
+        var pageLimit = CursorPagination.limit(limit);
+        var groups = after == null
+                ? repository.findMetadataPage(pageLimit)
+                : repository.findMetadataPageAfter(after, pageLimit);
+
+        return groups.collectList()
+                .map(items -> CursorPagination.page(items, pageLimit, WorkGroup::getId))
+                .flatMap(page -> Flux.fromIterable(page.items())
+                        .flatMapSequential(this::mapToDTO, CONCURRENT_CV_READS)
+                        .collectList()
+                        .map(items -> new CursorPageDTO<>(items, page.nextCursor())));
+    }
+
+    public Flux<WorkGroupSummaryDTO> getAllWorkGroupSummaries() {
+        return repository.findAllMetadata()
+                .map(WorkGroupServiceImpl::mapToSummary);
+    }
+
+    public Flux<WorkGroupSummaryDTO> getWorkGroupSummariesCreatedIn(YearMonth month) {
+        var createdIn = month != null ? month : timeUtil.currentMonth();
+        return repository.findMetadataCreatedBetween(TimeUtil.startOf(createdIn), TimeUtil.startOf(createdIn.plusMonths(1)))
+                .map(WorkGroupServiceImpl::mapToSummary);
+    }
+
+    public Mono<WorkGroupDTO> getMappedSingleWorkGroup(String workGroupId) {
+        return getWorkGroup(workGroupId).flatMap(this::mapToDTO);
+    }
+
+    public Mono<WorkGroup> getWorkGroup(String workGroupId) {
+        return repository.findMetadataById(workGroupId)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Work group with given ID not found")));
+    }
+
+    /**
+     * Pipes the uploaded parts straight into {@link WorkGroupServiceImpl#createNewWorkGroup(java.io.InputStream, String, String)},
+     * at most one chunk of the upload is buffered in between. The result is the one of the service: when it rejects the
+     * upload and stops reading, the failed writes to the closed pipe are dropped, and when the upload itself fails the
+     * reader fails at the end of the pipe, so the service does not store a truncated CV.
+     *
+     * @return id of the created group
+     */
+    public Mono<String> createNewWorkGroup(FilePart file) {
+        return Mono.defer(() -> {
+            UploadPipe upload = new UploadPipe(CHUNK_SIZE);
+            PipedOutputStream sink;
+            try {
+                sink = new PipedOutputStream(upload);
+            } catch (IOException e) {
+                return Mono.error(new UncheckedIOException(e));
+            }
+
+            Mono<Void> write = DataBufferUtils.write(file.content().publishOn(Schedulers.boundedElastic()), sink)
+                    .map(DataBufferUtils::release)
+                    .onErrorResume(e -> {
+                        upload.fail(e);
+                        return Mono.empty();
+                    })
+                    .doFinally(signal -> closeQuietly(sink))
+                    .then();
+            Mono<String> store = Mono.fromCallable(() -> groupService.createNewWorkGroup(upload, file.filename(),
+                            file.headers().getContentType() != null ? file.headers().getContentType().toString() : null))
+                    .doFinally(signal -> closeQuietly(upload))
+                    .subscribeOn(Schedulers.boundedElastic());
+
+            return Mono.zip(write.thenReturn(true), store).map(Tuple2::getT2);
+        });
+    }
+
+    /**
+     * Streams {@code length} bytes of the stored CV starting at {@code offset}, without loading the file into memory.
+     */
+    public Flux<DataBuffer> readCv(String cvFileId, long offset, long length) {
+        var content = DataBufferUtils.readInputStream(
+                        () -> cvStorage.load(cvFileId).getInputStream(), DefaultDataBufferFactory.sharedInstance, CHUNK_SIZE)
+                .subscribeOn(Schedulers.boundedElastic());
+        return DataBufferUtils.takeUntilByteCount(DataBufferUtils.skipUntilByteCount(content, offset), length);
+    }
+
+    public Mono<Void> deleteSingleGroup(String workGroupId) {
+        return Mono.fromRunnable(() -> groupService.deleteSingleGroup(workGroupId))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    private Mono<WorkGroupDTO> mapToDTO(WorkGroup group) {
+        Mono<String> cvData = group.getCvFileId() == null
+                ? Mono.empty()
+                : DataBufferUtils.join(readCv(group.getCvFileId(), 0, Long.MAX_VALUE))
+                .map(buffer -> {
+                    try {
+                        byte[] bytes = new byte[buffer.readableByteCount()];
+                        buffer.read(bytes);
+                        return Base64.getEncoder().encodeToString(bytes);
+                    } finally {
+                        DataBufferUtils.release(buffer);
+                    }
+                });
+
+        return cvData.map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .map(encoded -> WorkGroupDTO.builder()
+                        .id(group.getId())
+                        .cvData(encoded.orElse(null))
+                        .cvFileName(group.getCvFileName())
+                        .creationTime(TimeUtil.format(group.getCreationTime()))
+                        .applied(group.getSend())
+                        .denied(group.getDenied())
+                        .inProgress(group.getInProgress())
+                        .isHired(group.isHired())
+                        .build());
+    }
+
+    /**
+     * Pipe whose reader gets an error instead of the end of the stream when writing the upload into it failed.
+     */
+    private static class UploadPipe extends PipedInputStream {
+        private volatile Throwable writeFailure;
+
+        UploadPipe(int pipeSize) {
+            super(pipeSize);
+        }
+
+        void fail(Throwable failure) {
+            writeFailure = failure;
+        }
+
+        @Override
+        public synchronized int read() throws IOException {
+            return checked(super.read());
+        }
+
+        @Override
+        public synchronized int read(byte[] buffer, int offset, int length) throws IOException {
+            return checked(super.read(buffer, offset, length));
+        }
+
+        private int checked(int read) throws IOException {
+            if (read == -1 && writeFailure != null) {
+                throw new IOException("Upload failed", writeFailure);
+            }
+            return read;
+        }
+    }
+
+    private void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+            // nothing left to release
+        }
+    }
+}
@@ -1,7 +1,18 @@
 package io.github.mateuszuran.sisyphus_app.repository;
 
 import io.github.mateuszuran.sisyphus_app.model.WorkApplications;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Range;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
-public interface WorkApplicationsRepository extends MongoRepository<WorkApplications, String> {
+import java.time.LocalDate;
+import java.util.List;
+
+public interface WorkApplicationsRepository extends MongoRepository<WorkApplications, String>, WorkApplicationsRepositoryCustom {
+
+    List<WorkApplications> findByWorkGroupIdOrderByIdAsc(String workGroupId, Limit limit);
+
+    List<WorkApplications> findByWorkGroupIdAndIdGreaterThanOrderByIdAsc(String workGroupId, String after, Limit limit);
+
+    List<WorkApplications> findByAppliedDateBetweenOrderByAppliedDateAscIdAsc(Range<LocalDate> appliedDates);
 }
@@ -0,0 +1,86 @@
+package io.github.mateuszuran.sisyphus_app.repository;
+
+import io.github.mateuszuran.sisyphus_app.model.ApplicationStatus;
+import io.github.mateuszuran.sisyphus_app.model.WorkApplications;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface WorkApplicationsRepositoryCustom {
+    /**
+     * Sets the new status only if the application still has the expected one.
+     *
+     * @return updated application or {@code null} when the status was changed in the meantime
+     */
+    WorkApplications compareAndSetStatus(String applicationId, ApplicationStatus expected, ApplicationStatus newStatus);
+
+    /**
+     * Bulk variant of {@link #compareAndSetStatus} sent to Mongo in a single unordered bulk write. Changes must name
+     * distinct applications.
+     *
+     * @return for every change, in order, its outcome
+     */
+    List<StatusChangeOutcome> bulkCompareAndSetStatus(List<StatusChange> changes);
+
+    /**
+     * Inserts all applications in one unordered bulk write, skipping the ones rejected by a unique index.
+     * Applications must have their ids assigned up front.
+     *
+     * @return applications that were actually inserted
+     */
+    List<WorkApplications> insertAllUnordered(List<WorkApplications> applications);
+
+    /**
+     * Counts applications per group and status, and per applied month, in a single aggregation.
+     * Only fields of the {@code workGroupId_status_appliedDate} index are read, so no document is fetched.
+     */
+    ApplicationStatistics aggregateStatistics();
+
+    /**
+     * Counts applications per job board domain and status, answered from the {@code domain_status} index.
+     */
+    List<DomainStatusCounts> countStatusesByDomain();
+
+    /**
+     * Counts the applications of the given groups per status, answered from the {@code workGroupId_status_appliedDate} index.
+     *
+     * @return counts of groups having at least one application
+     */
+    List<GroupStatusCounts> countStatusesOfGroups(Collection<String> workGroupIds);
+
+    /**
+     * Applications of one group matching every given filter, in the requested order, as one query bounded by the group's
+     * entries of the {@code workGroupId_id} or {@code workGroupId_appliedDate_id} index.
+     *
+     * @param after position of the last application of the previous page, {@code null} for the first page
+     */
+    List<WorkApplications> search(String workGroupId, ApplicationSearch search, SearchPosition after, Limit limit);
+
+    /**
+     * All filters are optional. Dates are inclusive, {@code urlContains} matches anywhere in the normalized URL,
+     * {@code domain} is compared with the registrable domain of the URL and {@code text} searched in the words of its path.
+     */
+    record ApplicationSearch(Collection<ApplicationStatus> statuses, LocalDate appliedFrom, LocalDate appliedTo,
+                             String urlContains, String domain, String text, SearchOrder order) {}
+
+    enum SearchOrder { ID, APPLIED_DATE, APPLIED_DATE_DESC }
+
+    record SearchPosition(LocalDate appliedDate, String id) {}
+
+    record DomainStatusCounts(String domain, long total, long send, long inProgress, long denied, long hired) {}
+
+    record StatusChange(String applicationId, ApplicationStatus expected, ApplicationStatus newStatus) {}
+
+    /**
+     * {@code UNCHANGED} when the application has the new status already, {@code CONFLICT} when it has another one.
+     */
+    enum StatusChangeOutcome { APPLIED, UNCHANGED, CONFLICT, NOT_FOUND }
+
+    record GroupStatusCounts(String workGroupId, long total, long send, long inProgress, long denied, long hired) {}
+
+    record MonthCount(String month, long count) {}
+
+    record ApplicationStatistics(List<GroupStatusCounts> groups, List<MonthCount> months) {}
+}
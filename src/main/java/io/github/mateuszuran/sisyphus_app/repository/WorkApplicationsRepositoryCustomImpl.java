@@ -0,0 +1,282 @@
+package io.github.mateuszuran.sisyphus_app.repository;
+
+import com.mongodb.ErrorCategory;
+import io.github.mateuszuran.sisyphus_app.model.ApplicationStatus;
+import io.github.mateuszuran.sisyphus_app.model.WorkApplications;
+import io.github.mateuszuran.sisyphus_app.util.WorkUrlParts;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.aggregation.GroupOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.domain.Sort.Direction.ASC;
+import static org.springframework.data.domain.Sort.Direction.DESC;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.facet;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.project;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.sort;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@RequiredArgsConstructor
+public class WorkApplicationsRepositoryCustomImpl implements WorkApplicationsRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public WorkApplications compareAndSetStatus(String applicationId, ApplicationStatus expected, ApplicationStatus newStatus) {
+        return mongoTemplate.findAndModify(
+                query(where("_id").is(applicationId).and("status").is(expected)),
+                Update.update("status", newStatus),
+                FindAndModifyOptions.options().returnNew(true),
+                WorkApplications.class);
+    }
+
+    /**
+     * A bulk write only reports how many documents matched, not which. Every update therefore also stamps the
+     * application with an id of this bulk write. When fewer changes matched than were sent, the applications are read
+     * back once: those carrying the id were changed, the others were deleted or have another status by now.
+     */
+    @Override
+    public List<StatusChangeOutcome> bulkCompareAndSetStatus(List<StatusChange> changes) {
+        if (changes.isEmpty()) {
+            return List.of();
+        }
+        String bulkId = new ObjectId().toHexString();
+        var bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, WorkApplications.class);
+        changes.forEach(change -> bulk.updateOne(
+                query(where("_id").is(change.applicationId()).and("status").is(change.expected())),
+                new Update().set("status", change.newStatus()).set("lastStatusChange", bulkId)));
+
+        if (bulk.execute().getMatchedCount() == changes.size()) {
+            return Collections.nCopies(changes.size(), StatusChangeOutcome.APPLIED);
+        }
+
+        var current = query(where("_id").in(changes.stream().map(StatusChange::applicationId).toList()));
+        current.fields().include("status", "lastStatusChange");
+        Map<String, WorkApplications> applications = mongoTemplate.find(current, WorkApplications.class).stream()
+                .collect(Collectors.toMap(WorkApplications::getId, Function.identity()));
+        return changes.stream()
+                .map(change -> {
+                    var application = applications.get(change.applicationId());
+                    if (application == null) {
+                        return StatusChangeOutcome.NOT_FOUND;
+                    } else if (bulkId.equals(application.getLastStatusChange())) {
+                        return StatusChangeOutcome.APPLIED;
+                    } else if (change.newStatus().equals(application.getStatus())) {
+                        return StatusChangeOutcome.UNCHANGED;
+                    }
+                    return StatusChangeOutcome.CONFLICT;
+                })
+                .toList();
+    }
+
+    @Override
+    public List<WorkApplications> insertAllUnordered(List<WorkApplications> applications) {
+        if (applications.isEmpty()) {
+            return List.of();
+        }
+        var bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, WorkApplications.class);
+        bulk.insert(applications);
+
+        Set<Integer> rejected = new HashSet<>();
+        try {
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            for (var error : e.getErrors()) {
+                if (ErrorCategory.fromErrorCode(error.getCode()) != ErrorCategory.DUPLICATE_KEY) {
+                    throw e;
+                }
+                rejected.add(error.getIndex());
+            }
+        }
+
+        List<WorkApplications> inserted = new ArrayList<>(applications.size() - rejected.size());
+        for (int i = 0; i < applications.size(); i++) {
+            if (!rejected.contains(i)) {
+                inserted.add(applications.get(i));
+            }
+        }
+        return inserted;
+    }
+
+    @Override
+    public List<WorkApplications> search(String workGroupId, ApplicationSearch search, SearchPosition after, Limit limit) {
+        List<Criteria> filters = new ArrayList<>();
+        if (search.statuses() != null && !search.statuses().isEmpty()) {
+            filters.add(where("status").in(search.statuses()));
+        }
+        if (search.appliedFrom() != null) {
+            filters.add(where("appliedDate").gte(search.appliedFrom()));
+        }
+        if (search.appliedTo() != null) {
+            filters.add(where("appliedDate").lte(search.appliedTo()));
+        }
+        // the normalized URL is in the workGroupId_normalizedWorkUrl index, so it is checked on index keys
+        if (search.urlContains() != null && !search.urlContains().isBlank()) {
+            filters.add(where("normalizedWorkUrl").regex(Pattern.quote(search.urlContains().trim()), "i"));
+        }
+        if (search.domain() != null && !search.domain().isBlank()) {
+            filters.add(where("domain").is(WorkUrlParts.domainOf(search.domain())));
+        }
+        if (after != null) {
+            filters.add(after(search.order(), after));
+        }
+
+        // the text index is prefixed with workGroupId, which therefore has to be a top level equality
+        var criteria = where("workGroupId").is(workGroupId);
+        if (!filters.isEmpty()) {
+            criteria.andOperator(filters);
+        }
+        var query = new Query(criteria).with(sortOf(search.order())).limit(limit);
+        if (search.text() != null && !search.text().isBlank()) {
+            query.addCriteria(TextCriteria.forDefaultLanguage().matching(search.text()));
+        }
+        return mongoTemplate.find(query, WorkApplications.class);
+    }
+
+    private Criteria after(SearchOrder order, SearchPosition position) {
+        return switch (order) {
+            case ID -> where("_id").gt(position.id());
+            case APPLIED_DATE -> new Criteria().orOperator(
+                    where("appliedDate").gt(position.appliedDate()),
+                    where("appliedDate").is(position.appliedDate()).and("_id").gt(position.id()));
+            case APPLIED_DATE_DESC -> new Criteria().orOperator(
+                    where("appliedDate").lt(position.appliedDate()),
+                    where("appliedDate").is(position.appliedDate()).and("_id").lt(position.id()));
+        };
+    }
+
+    private Sort sortOf(SearchOrder order) {
+        return switch (order) {
+            case ID -> Sort.by(ASC, "_id");
+            case APPLIED_DATE -> Sort.by(ASC, "appliedDate", "_id");
+            case APPLIED_DATE_DESC -> Sort.by(DESC, "appliedDate", "_id");
+        };
+    }
+
+    /**
+     * The leading sort and projection let Mongo answer from the index alone, {@code $facet} then splits one scan into both views.
+     */
+    @Override
+    public ApplicationStatistics aggregateStatistics() {
+        var aggregation = newAggregation(WorkApplications.class,
+                sort(ASC, "workGroupId", "status", "appliedDate"),
+                project("workGroupId", "status", "appliedDate").andExclude("_id"),
+                facet(statusCountsByGroup(), sort(ASC, "_id"))
+                        .as("groups")
+                        .and(
+                                match(where("appliedDate").type(JsonSchemaObject.Type.DATE)),
+                                // appliedDate is stored as UTC midnight, so the UTC month is the applied month
+                                project().and(DateOperators.dateOf("appliedDate").toString("%Y-%m")).as("month"),
+                                group("month").count().as("count"),
+                                sort(ASC, "_id"))
+                        .as("months"));
+
+        var result = mongoTemplate.aggregate(aggregation, Document.class).getUniqueMappedResult();
+        if (result == null) {
+            return new ApplicationStatistics(List.of(), List.of());
+        }
+        var groups = result.getList("groups", Document.class, List.of())
+                .stream()
+                .map(this::toGroupStatusCounts)
+                .toList();
+        var months = result.getList("months", Document.class, List.of())
+                .stream()
+                .map(month -> new MonthCount(month.getString("_id"), longOf(month, "count")))
+                .toList();
+        return new ApplicationStatistics(groups, months);
+    }
+
+    @Override
+    public List<GroupStatusCounts> countStatusesOfGroups(Collection<String> workGroupIds) {
+        var aggregation = newAggregation(WorkApplications.class,
+                match(where("workGroupId").in(workGroupIds)),
+                project("workGroupId", "status").andExclude("_id"),
+                statusCountsByGroup());
+        return mongoTemplate.aggregate(aggregation, Document.class)
+                .getMappedResults()
+                .stream()
+                .map(this::toGroupStatusCounts)
+                .toList();
+    }
+
+    @Override
+    public List<DomainStatusCounts> countStatusesByDomain() {
+        var aggregation = newAggregation(WorkApplications.class,
+                match(where("domain").type(JsonSchemaObject.Type.STRING)),
+                sort(ASC, "domain", "status"),
+                project("domain", "status").andExclude("_id"),
+                statusCountsBy("domain"),
+                sort(ASC, "_id"));
+        return mongoTemplate.aggregate(aggregation, Document.class)
+                .getMappedResults()
+                .stream()
+                .map(domain -> new DomainStatusCounts(
+                        domain.getString("_id"),
+                        longOf(domain, "total"),
+                        longOf(domain, "send"),
+                        longOf(domain, "inProgress"),
+                        longOf(domain, "denied"),
+                        longOf(domain, "hired")))
+                .toList();
+    }
+
+    private GroupOperation statusCountsByGroup() {
+        return statusCountsBy("workGroupId");
+    }
+
+    private GroupOperation statusCountsBy(String field) {
+        return group(field)
+                .count().as("total")
+                .sum(countOf(ApplicationStatus.SEND)).as("send")
+                .sum(countOf(ApplicationStatus.IN_PROGRESS)).as("inProgress")
+                .sum(countOf(ApplicationStatus.DENIED)).as("denied")
+                .sum(countOf(ApplicationStatus.HIRED)).as("hired");
+    }
+
+    private GroupStatusCounts toGroupStatusCounts(Document group) {
+        return new GroupStatusCounts(
+                group.get("_id") == null ? null : group.get("_id").toString(),
+                longOf(group, "total"),
+                longOf(group, "send"),
+                longOf(group, "inProgress"),
+                longOf(group, "denied"),
+                longOf(group, "hired"));
+    }
+
+    private AggregationExpression countOf(ApplicationStatus status) {
+        return ConditionalOperators.when(ComparisonOperators.valueOf("status").equalToValue(status.name())).then(1).otherwise(0);
+    }
+
+    private long longOf(Document document, String field) {
+        return document.get(field, Number.class).longValue();
+    }
+}
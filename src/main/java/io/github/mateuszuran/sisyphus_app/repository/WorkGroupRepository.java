@@ -1,7 +1,31 @@
 package io.github.mateuszuran.sisyphus_app.repository;
 
 import io.github.mateuszuran.sisyphus_app.model.WorkGroup;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
-public interface WorkGroupRepository extends MongoRepository<WorkGroup, String> {
+import java.time.Instant;
+import java.util.List;
+
+public interface WorkGroupRepository extends MongoRepository<WorkGroup, String>, WorkGroupRepositoryCustom {
+
+    /**
+     * Loads all groups without the application references and any not yet migrated inline CV bytes,
+     * in the order of the paged listing.
+     */
+    @Query(value = "{}", fields = "{ 'cvData' : 0, 'workApplications' : 0 }", sort = "{ '_id' : 1 }")
+    List<WorkGroup> findAllSummaries();
+
+    /**
+     * Same projection as {@link #findAllSummaries()} for the groups created in {@code [from, to)}, a range scan of the
+     * {@code creationTime} index.
+     */
+    @Query(value = "{ 'creationTime' : { '$gte' : ?0, '$lt' : ?1 } }", fields = "{ 'cvData' : 0, 'workApplications' : 0 }",
+            sort = "{ 'creationTime' : 1 }")
+    List<WorkGroup> findSummariesCreatedBetween(Instant from, Instant to);
+
+    List<WorkGroup> findAllByOrderByIdAsc(Limit limit);
+
+    List<WorkGroup> findByIdGreaterThanOrderByIdAsc(String after, Limit limit);
 }
@@ -0,0 +1,52 @@
+package io.github.mateuszuran.sisyphus_app.repository;
+
+import io.github.mateuszuran.sisyphus_app.model.WorkApplications;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface WorkGroupRepositoryCustom {
+    /**
+     * Applies counter changes to a single group in one atomic update, without reading or rewriting the rest of the document.
+     *
+     * @return {@code false} when no group with given id exists
+     */
+    boolean updateCounters(String workGroupId, Update counters);
+
+    /**
+     * Appends references to new applications in one update, raising the {@code send} counter by their number if asked to.
+     *
+     * @return {@code false} when no group with given id exists
+     */
+    boolean pushWorkApplications(String workGroupId, List<String> applicationIds, boolean countAsSend);
+
+    /**
+     * Overwrites the counters of a group, but only if they still hold the expected values,
+     * so increments made since they were read are not lost.
+     *
+     * @return {@code false} when the group does not exist or its counters changed meanwhile
+     */
+    boolean replaceCounters(String workGroupId, GroupCounters expected, GroupCounters actual);
+
+    /**
+     * Resolves the application references of the given groups with a single {@code $lookup} aggregation,
+     * instead of letting every lazy reference list load itself. Applications keep the order of the references.
+     *
+     * @return applications by group id, groups that do not exist are left out
+     */
+    Map<String, List<WorkApplications>> findWorkApplicationsOfGroups(Collection<String> workGroupIds);
+
+    /**
+     * Finds the groups referencing applications that have no {@code workGroupId} yet, whose applications cannot be
+     * counted by group until {@code WorkApplicationsGroupIdMigration} backfilled them. Reads the reference lists of
+     * the groups and looks the referenced applications up by id, two queries for all groups.
+     *
+     * @return ids of such groups
+     */
+    Set<String> findGroupsWithUnlinkedApplications(Collection<String> workGroupIds);
+
+    record GroupCounters(int send, int inProgress, int denied, boolean hired) {}
+}
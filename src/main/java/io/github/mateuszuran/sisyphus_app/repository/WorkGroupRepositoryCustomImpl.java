@@ -0,0 +1,122 @@
+package io.github.mateuszuran.sisyphus_app.repository;
+
+import io.github.mateuszuran.sisyphus_app.model.WorkApplications;
+import io.github.mateuszuran.sisyphus_app.model.WorkGroup;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.lookup;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.project;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@RequiredArgsConstructor
+public class WorkGroupRepositoryCustomImpl implements WorkGroupRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean updateCounters(String workGroupId, Update counters) {
+        var result = mongoTemplate.updateFirst(query(where("_id").is(workGroupId)), counters, WorkGroup.class);
+        return result.getMatchedCount() > 0;
+    }
+
+    @Override
+    public boolean pushWorkApplications(String workGroupId, List<String> applicationIds, boolean countAsSend) {
+        // references are pushed as stored by @DocumentReference, the untyped update keeps them from being mapped again
+        var references = applicationIds.stream().map(ObjectId::new).toArray();
+        var update = new Update().push("workApplications").each(references);
+        if (countAsSend) {
+            update.inc("send", applicationIds.size());
+        }
+        var result = mongoTemplate.updateFirst(
+                query(where("_id").is(new ObjectId(workGroupId))),
+                update,
+                mongoTemplate.getCollectionName(WorkGroup.class));
+        return result.getMatchedCount() > 0;
+    }
+
+    @Override
+    public boolean replaceCounters(String workGroupId, GroupCounters expected, GroupCounters actual) {
+        var result = mongoTemplate.updateFirst(
+                query(where("_id").is(workGroupId)
+                        .and("send").is(expected.send())
+                        .and("inProgress").is(expected.inProgress())
+                        .and("denied").is(expected.denied())
+                        .and("isHired").is(expected.hired())),
+                new Update()
+                        .set("send", actual.send())
+                        .set("inProgress", actual.inProgress())
+                        .set("denied", actual.denied())
+                        .set("isHired", actual.hired()),
+                WorkGroup.class);
+        return result.getModifiedCount() > 0;
+    }
+
+    @Override
+    public Map<String, List<WorkApplications>> findWorkApplicationsOfGroups(Collection<String> workGroupIds) {
+        var groupIds = workGroupIds.stream().filter(ObjectId::isValid).map(ObjectId::new).toList();
+        if (groupIds.isEmpty()) {
+            return Map.of();
+        }
+        var aggregation = newAggregation(
+                match(where("_id").in(groupIds)),
+                lookup(mongoTemplate.getCollectionName(WorkApplications.class), "workApplications", "_id", "resolvedApplications"),
+                project("workApplications", "resolvedApplications"));
+        var groups = mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(WorkGroup.class), Document.class);
+
+        Map<String, List<WorkApplications>> applicationsByGroup = new LinkedHashMap<>();
+        for (Document group : groups) {
+            Map<Object, WorkApplications> resolved = new HashMap<>();
+            for (Document application : group.getList("resolvedApplications", Document.class, List.of())) {
+                resolved.put(application.get("_id"), mongoTemplate.getConverter().read(WorkApplications.class, application));
+            }
+            var applications = group.getList("workApplications", Object.class, List.of())
+                    .stream()
+                    .map(resolved::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+            applicationsByGroup.put(group.get("_id").toString(), applications);
+        }
+        return applicationsByGroup;
+    }
+
+    @Override
+    public Set<String> findGroupsWithUnlinkedApplications(Collection<String> workGroupIds) {
+        var groupIds = workGroupIds.stream().filter(ObjectId::isValid).map(ObjectId::new).toList();
+        if (groupIds.isEmpty()) {
+            return Set.of();
+        }
+        var groupsQuery = query(where("_id").in(groupIds));
+        groupsQuery.fields().include("workApplications");
+        Map<Object, String> groupOfReference = new HashMap<>();
+        for (Document group : mongoTemplate.find(groupsQuery, Document.class, mongoTemplate.getCollectionName(WorkGroup.class))) {
+            for (Object reference : group.getList("workApplications", Object.class, List.of())) {
+                groupOfReference.put(reference, group.get("_id").toString());
+            }
+        }
+        if (groupOfReference.isEmpty()) {
+            return Set.of();
+        }
+
+        var unlinkedQuery = query(where("_id").in(groupOfReference.keySet()).and("workGroupId").exists(false));
+        unlinkedQuery.fields().include("_id");
+        return mongoTemplate.find(unlinkedQuery, Document.class, mongoTemplate.getCollectionName(WorkApplications.class))
+                .stream()
+                .map(application -> groupOfReference.get(application.get("_id")))
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,23 @@
+package io.github.mateuszuran.sisyphus_app.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * An uploaded CV that is refused before or while it streams into storage. Both web stacks answer with its status.
+ */
+public class CvRejectedException extends ResponseStatusException {
+
+    private CvRejectedException(HttpStatus status, String reason) {
+        super(status, reason);
+    }
+
+    public static CvRejectedException tooLarge(DataSize maxSize) {
+        return new CvRejectedException(HttpStatus.PAYLOAD_TOO_LARGE, "CV file is larger than " + maxSize.toKilobytes() + " KB");
+    }
+
+    public static CvRejectedException notPdf() {
+        return new CvRejectedException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "CV file is not a PDF");
+    }
+}
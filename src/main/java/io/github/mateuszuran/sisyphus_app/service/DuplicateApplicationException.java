@@ -0,0 +1,14 @@
+package io.github.mateuszuran.sisyphus_app.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * A work application whose URL points to a posting already saved in the same group.
+ */
+public class DuplicateApplicationException extends ResponseStatusException {
+
+    public DuplicateApplicationException(String workUrl, Throwable cause) {
+        super(HttpStatus.CONFLICT, "Posting " + workUrl + " is already saved in this group", cause);
+    }
+}
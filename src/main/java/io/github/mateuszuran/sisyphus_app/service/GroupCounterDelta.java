@@ -0,0 +1,44 @@
+package io.github.mateuszuran.sisyphus_app.service;
+
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Accumulates counter changes of a single work group, so any number of status transitions ends up as one update.
+ */
+class GroupCounterDelta {
+    private final Map<String, Integer> increments = new LinkedHashMap<>();
+    private Boolean hired;
+
+    void increment(String counter, int delta) {
+        increments.merge(counter, delta, Integer::sum);
+    }
+
+    /**
+     * Someone becoming hired wins over someone else leaving the hired status within the same batch.
+     */
+    void hired(boolean value) {
+        if (value || hired == null) {
+            hired = value;
+        }
+    }
+
+    boolean isEmpty() {
+        return hired == null && increments.values().stream().allMatch(delta -> delta == 0);
+    }
+
+    Update toUpdate() {
+        Update update = new Update();
+        increments.forEach((counter, delta) -> {
+            if (delta != 0) {
+                update.inc(counter, delta);
+            }
+        });
+        if (hired != null) {
+            update.set("isHired", hired);
+        }
+        return update;
+    }
+}
@@ -0,0 +1,14 @@
+package io.github.mateuszuran.sisyphus_app.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * A work application without a URL to recognise its posting by.
+ */
+public class InvalidWorkUrlException extends ResponseStatusException {
+
+    public InvalidWorkUrlException(String workUrl) {
+        super(HttpStatus.BAD_REQUEST, "Work URL '" + workUrl + "' is blank");
+    }
+}
@@ -0,0 +1,12 @@
+package io.github.mateuszuran.sisyphus_app.service;
+
+import io.github.mateuszuran.sisyphus_app.dto.WorkStatsDTO;
+import io.github.mateuszuran.sisyphus_app.dto.WorkStatsDTO.DomainStats;
+
+import java.util.List;
+
+public interface StatsService {
+    WorkStatsDTO getStats();
+
+    List<DomainStats> getDomainStats();
+}
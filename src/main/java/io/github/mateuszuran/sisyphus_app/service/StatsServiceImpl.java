@@ -0,0 +1,117 @@
+package io.github.mateuszuran.sisyphus_app.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.mateuszuran.sisyphus_app.dto.WorkStatsDTO;
+import io.github.mateuszuran.sisyphus_app.dto.WorkStatsDTO.DomainStats;
+import io.github.mateuszuran.sisyphus_app.dto.WorkStatsDTO.GroupStats;
+import io.github.mateuszuran.sisyphus_app.dto.WorkStatsDTO.MonthlyCount;
+import io.github.mateuszuran.sisyphus_app.model.ApplicationStatus;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepository;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepositoryCustom.GroupStatusCounts;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statistics across all work groups. With a positive {@code sisyphus.stats.cache-ttl} the result is reused for that long,
+ * so a polling dashboard runs the aggregation at most once per period.
+ */
+@Service
+public class StatsServiceImpl implements StatsService {
+    private static final String STATS_KEY = "all";
+
+    private final WorkApplicationsRepository repository;
+    private final Cache<String, WorkStatsDTO> cache;
+
+    public StatsServiceImpl(WorkApplicationsRepository repository,
+                            MeterRegistry meterRegistry,
+                            @Value("${sisyphus.stats.cache-ttl:0s}") Duration cacheTtl) {
+        this.repository = repository;
+        this.cache = cacheTtl.isZero() || cacheTtl.isNegative() ? null : Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        if (cache != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "workStats");
+        }
+    }
+
+    @Override
+    public WorkStatsDTO getStats() {
+        return cache == null ? computeStats() : cache.get(STATS_KEY, key -> computeStats());
+    }
+
+    /**
+     * Job boards with their counts per status, best converting first.
+     */
+    @Override
+    public List<DomainStats> getDomainStats() {
+        return repository.countStatusesByDomain()
+                .stream()
+                .map(counts -> DomainStats.builder()
+                        .domain(counts.domain())
+                        .total(counts.total())
+                        .send(counts.send())
+                        .inProgress(counts.inProgress())
+                        .denied(counts.denied())
+                        .hired(counts.hired())
+                        .conversionRate(conversionRate(counts.total(), counts.inProgress(), counts.hired()))
+                        .build())
+                .sorted(Comparator.comparingDouble(DomainStats::conversionRate).reversed()
+                        .thenComparing(Comparator.comparingLong(DomainStats::total).reversed()))
+                .toList();
+    }
+
+    private WorkStatsDTO computeStats() {
+        var statistics = repository.aggregateStatistics();
+
+        Map<ApplicationStatus, Long> byStatus = new EnumMap<>(ApplicationStatus.class);
+        long total = 0;
+        for (GroupStatusCounts counts : statistics.groups()) {
+            total += counts.total();
+            byStatus.merge(ApplicationStatus.SEND, counts.send(), Long::sum);
+            byStatus.merge(ApplicationStatus.IN_PROGRESS, counts.inProgress(), Long::sum);
+            byStatus.merge(ApplicationStatus.DENIED, counts.denied(), Long::sum);
+            byStatus.merge(ApplicationStatus.HIRED, counts.hired(), Long::sum);
+        }
+
+        var groups = statistics.groups()
+                .stream()
+                .filter(counts -> counts.workGroupId() != null)
+                .map(counts -> GroupStats.builder()
+                        .workGroupId(counts.workGroupId())
+                        .total(counts.total())
+                        .send(counts.send())
+                        .inProgress(counts.inProgress())
+                        .denied(counts.denied())
+                        .hired(counts.hired())
+                        .conversionRate(conversionRate(counts.total(), counts.inProgress(), counts.hired()))
+                        .build())
+                .toList();
+
+        var perMonth = statistics.months()
+                .stream()
+                .map(month -> new MonthlyCount(month.month(), month.count()))
+                .toList();
+
+        return WorkStatsDTO.builder()
+                .total(total)
+                .byStatus(byStatus)
+                .groups(groups)
+                .perMonth(perMonth)
+                .build();
+    }
+
+    private double conversionRate(long total, long inProgress, long hired) {
+        return total == 0 ? 0 : (double) (inProgress + hired) / total;
+    }
+}
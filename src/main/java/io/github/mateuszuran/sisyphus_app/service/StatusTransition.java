@@ -0,0 +1,5 @@
+package io.github.mateuszuran.sisyphus_app.service;
+
+import io.github.mateuszuran.sisyphus_app.model.ApplicationStatus;
+
+public record StatusTransition(String workGroupId, ApplicationStatus oldStatus, ApplicationStatus newStatus) {}
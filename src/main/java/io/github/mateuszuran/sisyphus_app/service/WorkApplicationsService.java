@@ -1,12 +1,13 @@
 package io.github.mateuszuran.sisyphus_app.service;
 
 import io.github.mateuszuran.sisyphus_app.dto.WorkApplicationDTO;
+import io.github.mateuszuran.sisyphus_app.dto.WorkApplicationsSaveResultDTO;
 import io.github.mateuszuran.sisyphus_app.model.WorkApplications;
 
 import java.util.List;
 
 public interface WorkApplicationsService {
-    void createWorkApplication(List<WorkApplicationDTO> application, String workGroupId);
+    WorkApplicationsSaveResultDTO createWorkApplication(List<WorkApplicationDTO> application, String workGroupId);
 
     void deleteWorkApplication(String applicationId);
 
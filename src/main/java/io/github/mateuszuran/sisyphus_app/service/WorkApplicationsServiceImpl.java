@@ -1,42 +1,107 @@
 package io.github.mateuszuran.sisyphus_app.service;
 
+import io.github.mateuszuran.sisyphus_app.dto.ApplicationSearchDTO;
+import io.github.mateuszuran.sisyphus_app.dto.ApplicationStatusChangeDTO;
+import io.github.mateuszuran.sisyphus_app.dto.ApplicationStatusChangeResultDTO;
+import io.github.mateuszuran.sisyphus_app.dto.ApplicationStatusChangeResultDTO.Outcome;
+import io.github.mateuszuran.sisyphus_app.dto.CursorPageDTO;
 import io.github.mateuszuran.sisyphus_app.dto.WorkApplicationDTO;
+import io.github.mateuszuran.sisyphus_app.dto.WorkApplicationsSaveResultDTO;
 import io.github.mateuszuran.sisyphus_app.model.ApplicationStatus;
 import io.github.mateuszuran.sisyphus_app.model.WorkApplications;
 import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepository;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepositoryCustom.ApplicationSearch;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepositoryCustom.SearchOrder;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepositoryCustom.SearchPosition;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepositoryCustom.StatusChange;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepositoryCustom.StatusChangeOutcome;
+import io.github.mateuszuran.sisyphus_app.util.CursorPagination;
 import io.github.mateuszuran.sisyphus_app.util.TimeUtil;
+import io.github.mateuszuran.sisyphus_app.util.WorkUrlNormalizer;
+import io.github.mateuszuran.sisyphus_app.util.WorkUrlParts;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Range;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class WorkApplicationsServiceImpl implements WorkApplicationsService {
+    private static final String CURSOR_SEPARATOR = "_";
 
     private final WorkApplicationsRepository repository;
     private final WorkGroupServiceImpl groupServiceImpl;
     private final TimeUtil timeUtil;
 
+    /**
+     * Inserts the applications with one unordered bulk write and links them to the group with one update.
+     * Postings already saved in the group, or repeated within the request, are skipped by their normalized URL.
+     * A request with a blank URL is rejected as a whole before anything is written.
+     */
     @Override
-    public void createWorkApplication(List<WorkApplicationDTO> applications, String workGroupId) {
-        String creationTime = timeUtil.formatCreationTime();
-
-        // TODO: check if applications list is empty, if so throw exception or something
+    public WorkApplicationsSaveResultDTO createWorkApplication(List<WorkApplicationDTO> applications, String workGroupId) {
+        var appliedDate = timeUtil.today();
+        Set<String> normalizedUrls = new HashSet<>();
 
         var workApplicationList = applications
                 .stream()
-                .map(work -> WorkApplications.builder()
-                        .workUrl(work.workUrl())
-                        .appliedDate(creationTime)
-                        .status(ApplicationStatus.SEND)
-                        .build())
+                .map(work -> {
+                    var normalizedWorkUrl = normalizedUrlOf(work.workUrl());
+                    var urlParts = WorkUrlParts.of(work.workUrl());
+                    return WorkApplications.builder()
+                            .id(new ObjectId().toHexString())
+                            .workUrl(work.workUrl())
+                            .normalizedWorkUrl(normalizedWorkUrl)
+                            .host(urlParts.host())
+                            .domain(urlParts.domain())
+                            .postingKey(urlParts.postingKey())
+                            .urlKeywords(urlParts.keywords())
+                            .appliedDate(appliedDate)
+                            .status(ApplicationStatus.SEND)
+                            .workGroupId(workGroupId)
+                            .build();
+                })
+                .filter(work -> normalizedUrls.add(work.getNormalizedWorkUrl()))
                 .toList();
 
-        repository.saveAll(workApplicationList);
-        groupServiceImpl.updateWorkGroupWithWorkApplications(workApplicationList, workGroupId);
+        var inserted = repository.insertAllUnordered(workApplicationList);
+        if (!inserted.isEmpty()) {
+            try {
+                groupServiceImpl.updateWorkGroupWithWorkApplications(inserted, workGroupId);
+            } catch (RuntimeException e) {
+                repository.deleteAllById(inserted.stream().map(WorkApplications::getId).toList());
+                throw e;
+            }
+        }
+
+        return WorkApplicationsSaveResultDTO.builder()
+                .inserted(inserted.size())
+                .skipped(applications.size() - inserted.size())
+                .build();
+    }
+
+    private String normalizedUrlOf(String workUrl) {
+        var normalizedWorkUrl = WorkUrlNormalizer.normalize(workUrl);
+        if (normalizedWorkUrl == null) {
+            throw new InvalidWorkUrlException(workUrl);
+        }
+        return normalizedWorkUrl;
     }
 
 
@@ -45,39 +110,218 @@ public class WorkApplicationsServiceImpl implements WorkApplicationsService {
         var applicationToDelete = getSingleApplication(applicationId);
         groupServiceImpl.updateGroupWhenWorkDelete(applicationToDelete);
         repository.delete(applicationToDelete);
+        groupServiceImpl.evictCachedGroup(applicationToDelete.getWorkGroupId());
     }
 
     @Override
     public WorkApplications updateApplicationStatus(String applicationId, String newStatus) {
-        var workToUpdate = getSingleApplication(applicationId);
-        String oldStatus = workToUpdate.getStatus().name();
+        var status = ApplicationStatus.getByUpperCaseStatus(newStatus);
+        WorkApplications savedWork = null;
 
-        if (workToUpdate.getStatus().equals(ApplicationStatus.getByUpperCaseStatus(newStatus))) {
-            // TODO: 07.06.2024 add custom exception
-            log.info("Status are equal, cant update.");
-            return null;
-        }
+        while (savedWork == null) {
+            var workToUpdate = getSingleApplication(applicationId);
+            var oldStatus = workToUpdate.getStatus();
 
-        workToUpdate.setStatus(ApplicationStatus.getByUpperCaseStatus(newStatus));
-        var savedWork = repository.save(workToUpdate);
+            if (oldStatus.equals(status)) {
+                // TODO: 07.06.2024 add custom exception
+                log.info("Status are equal, cant update.");
+                return null;
+            }
 
-        groupServiceImpl.updateGroupWhenWorkUpdate(savedWork, workToUpdate.getStatus().name(), oldStatus);
+            // a concurrent change between the read and the update makes this return null, so re-read and retry
+            savedWork = repository.compareAndSetStatus(applicationId, oldStatus, status);
+            if (savedWork != null) {
+                groupServiceImpl.updateGroupWhenWorkUpdate(savedWork, status.name(), oldStatus.name());
+            }
+        }
 
         return savedWork;
     }
 
+    /**
+     * Changes many statuses with one read, one bulk write and one counter update per affected group.
+     * Every change gets its own result, a failing one does not stop the others.
+     */
+    public List<ApplicationStatusChangeResultDTO> updateApplicationStatuses(List<ApplicationStatusChangeDTO> changes) {
+        var applications = repository.findAllById(changes.stream()
+                        .map(ApplicationStatusChangeDTO::applicationId)
+                        .filter(Objects::nonNull)
+                        .distinct()
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(WorkApplications::getId, Function.identity()));
+
+        var outcomes = new Outcome[changes.size()];
+        var pendingIndexes = new ArrayList<Integer>();
+        var pendingChanges = new ArrayList<StatusChange>();
+        var requestedIds = new HashSet<String>();
+
+        for (int i = 0; i < changes.size(); i++) {
+            var change = changes.get(i);
+            var status = parseStatus(change.status());
+            var work = applications.get(change.applicationId());
+
+            if (status == null) {
+                outcomes[i] = Outcome.INVALID_STATUS;
+            } else if (work == null) {
+                outcomes[i] = Outcome.NOT_FOUND;
+            } else if (!requestedIds.add(work.getId())) {
+                outcomes[i] = Outcome.CONFLICT;
+            } else if (status.equals(work.getStatus())) {
+                outcomes[i] = Outcome.UNCHANGED;
+            } else {
+                pendingIndexes.add(i);
+                pendingChanges.add(new StatusChange(work.getId(), work.getStatus(), status));
+            }
+        }
+
+        var changed = repository.bulkCompareAndSetStatus(pendingChanges);
+        var transitions = new ArrayList<StatusTransition>();
+        for (int i = 0; i < pendingChanges.size(); i++) {
+            var change = pendingChanges.get(i);
+            outcomes[pendingIndexes.get(i)] = switch (changed.get(i)) {
+                case APPLIED -> Outcome.UPDATED;
+                case UNCHANGED -> Outcome.UNCHANGED;
+                case CONFLICT -> Outcome.CONFLICT;
+                case NOT_FOUND -> Outcome.NOT_FOUND;
+            };
+            if (changed.get(i) == StatusChangeOutcome.APPLIED) {
+                transitions.add(new StatusTransition(applications.get(change.applicationId()).getWorkGroupId(), change.expected(), change.newStatus()));
+            }
+        }
+        if (!transitions.isEmpty()) {
+            groupServiceImpl.updateGroupsWhenWorksUpdate(transitions);
+        }
+
+        var results = new ArrayList<ApplicationStatusChangeResultDTO>(changes.size());
+        for (int i = 0; i < changes.size(); i++) {
+            results.add(ApplicationStatusChangeResultDTO.builder()
+                    .applicationId(changes.get(i).applicationId())
+                    .status(changes.get(i).status())
+                    .outcome(outcomes[i])
+                    .build());
+        }
+        return results;
+    }
+
+    private ApplicationStatus parseStatus(String status) {
+        try {
+            return ApplicationStatus.getByUpperCaseStatus(status);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Changes the URL together with every key derived from it, a URL of a posting already saved in the group is a conflict.
+     */
     @Override
     public WorkApplications updateWorkApplicationUrl(String applicationId, String applicationUrl) {
         var workToUpdate = repository.findById(applicationId)
                 .orElseThrow(() -> new IllegalArgumentException("Work application with given ID not found."));
+        var urlParts = WorkUrlParts.of(applicationUrl);
         workToUpdate.setWorkUrl(applicationUrl);
-        return repository.save(workToUpdate);
+        workToUpdate.setNormalizedWorkUrl(normalizedUrlOf(applicationUrl));
+        workToUpdate.setHost(urlParts.host());
+        workToUpdate.setDomain(urlParts.domain());
+        workToUpdate.setPostingKey(urlParts.postingKey());
+        workToUpdate.setUrlKeywords(urlParts.keywords());
+        WorkApplications updatedWork;
+        try {
+            updatedWork = repository.save(workToUpdate);
+        } catch (DuplicateKeyException e) {
+            throw new DuplicateApplicationException(applicationUrl, e);
+        }
+        groupServiceImpl.evictCachedGroup(workToUpdate.getWorkGroupId());
+        return updatedWork;
     }
 
     public List<WorkApplications> getAllApplicationsByWorkGroupId(String workGroupId) {
         return groupServiceImpl.getAllWorkApplicationsFromWorkGroup(workGroupId);
     }
 
+    public CursorPageDTO<WorkApplications> getApplicationsPageByWorkGroupId(String workGroupId, int limit, String after) {
+        CursorPagination.validateCursor(after);
+        var pageLimit = CursorPagination.limit(limit);
+        var applications = after == null
+                ? repository.findByWorkGroupIdOrderByIdAsc(workGroupId, pageLimit)
+                : repository.findByWorkGroupIdAndIdGreaterThanOrderByIdAsc(workGroupId, after, pageLimit);
+        return CursorPagination.page(applications, pageLimit, WorkApplications::getId);
+    }
+
+    /**
+     * Filtered and ordered page of a group's applications, or all matching ones when no limit is given.
+     * With a date order the cursor carries the date of the last application next to its id.
+     */
+    public CursorPageDTO<WorkApplications> searchApplications(String workGroupId, ApplicationSearchDTO search, Integer limit, String after) {
+        var order = orderOf(search.sort());
+        var position = positionOf(order, after);
+        var criteria = new ApplicationSearch(
+                statusesOf(search.status()),
+                search.from(),
+                search.to(),
+                search.url(),
+                search.domain(),
+                search.q(),
+                order);
+
+        if (limit == null) {
+            return new CursorPageDTO<>(repository.search(workGroupId, criteria, position, Limit.unlimited()), null);
+        }
+        var pageLimit = CursorPagination.limit(limit);
+        return CursorPagination.page(repository.search(workGroupId, criteria, position, pageLimit), pageLimit, work -> cursorOf(order, work));
+    }
+
+    private SearchOrder orderOf(String sort) {
+        if (sort == null || sort.equals("id")) {
+            return SearchOrder.ID;
+        }
+        return switch (sort) {
+            case "appliedDate" -> SearchOrder.APPLIED_DATE;
+            case "-appliedDate" -> SearchOrder.APPLIED_DATE_DESC;
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown sort order " + sort);
+        };
+    }
+
+    private List<ApplicationStatus> statusesOf(List<String> statuses) {
+        if (statuses == null) {
+            return List.of();
+        }
+        try {
+            return statuses.stream().map(ApplicationStatus::getByUpperCaseStatus).filter(Objects::nonNull).toList();
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown status in " + statuses, e);
+        }
+    }
+
+    private String cursorOf(SearchOrder order, WorkApplications work) {
+        return order == SearchOrder.ID ? work.getId() : work.getAppliedDate() + CURSOR_SEPARATOR + work.getId();
+    }
+
+    private SearchPosition positionOf(SearchOrder order, String after) {
+        if (after == null) {
+            return null;
+        }
+        if (order == SearchOrder.ID) {
+            CursorPagination.validateCursor(after);
+            return new SearchPosition(null, after);
+        }
+        var parts = after.split(CURSOR_SEPARATOR, 2);
+        try {
+            CursorPagination.validateCursor(parts.length == 2 ? parts[1] : "");
+            return new SearchPosition(LocalDate.parse(parts[0]), parts[1]);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid page cursor", e);
+        }
+    }
+
+    /**
+     * Applications of all groups applied between both dates inclusive, a range scan of the {@code appliedDate} index.
+     */
+    public List<WorkApplications> getApplicationsAppliedBetween(LocalDate from, LocalDate to) {
+        return repository.findByAppliedDateBetweenOrderByAppliedDateAscIdAsc(Range.closed(from, to));
+    }
+
     public WorkApplications getSingleApplication(String applicationId) {
         return repository.findById(applicationId)
                 .orElseThrow(() -> new IllegalArgumentException("Work application with given id no exists."));
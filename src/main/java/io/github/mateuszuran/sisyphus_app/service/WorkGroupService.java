@@ -12,7 +12,7 @@ public interface WorkGroupService {
 
     WorkGroup getWorkGroup(String workGroupId);
 
-    WorkGroup updateWorkGroupWithWorkApplications(List<WorkApplications> applications, String workGroupId);
+    void updateWorkGroupWithWorkApplications(List<WorkApplications> applications, String workGroupId);
 
     List<WorkGroup> getAllGroups();
 
@@ -23,4 +23,9 @@ public interface WorkGroupService {
     void updateGroupWhenWorkUpdate(WorkApplications work, String newStatus, String oldStatus);
 
     void updateGroupWhenWorkDelete(WorkApplications work);
+
+    /**
+     * Applies counter changes of many status transitions with a single update per affected group.
+     */
+    void updateGroupsWhenWorksUpdate(List<StatusTransition> transitions);
 }
@@ -1,71 +1,217 @@
 package io.github.mateuszuran.sisyphus_app.service;
 
+import io.github.mateuszuran.sisyphus_app.cache.WorkGroupCache;
+import io.github.mateuszuran.sisyphus_app.dto.CursorPageDTO;
 import io.github.mateuszuran.sisyphus_app.dto.WorkGroupDTO;
+import io.github.mateuszuran.sisyphus_app.dto.WorkGroupSummaryDTO;
+import io.github.mateuszuran.sisyphus_app.metrics.CvMetrics;
 import io.github.mateuszuran.sisyphus_app.model.WorkApplications;
 import io.github.mateuszuran.sisyphus_app.model.WorkGroup;
 import io.github.mateuszuran.sisyphus_app.repository.WorkGroupRepository;
+import io.github.mateuszuran.sisyphus_app.storage.CvBlobRegistry;
+import io.github.mateuszuran.sisyphus_app.storage.CvResource;
+import io.github.mateuszuran.sisyphus_app.storage.CvStorage;
+import io.github.mateuszuran.sisyphus_app.util.CursorPagination;
+import io.github.mateuszuran.sisyphus_app.util.FanOut;
+import io.github.mateuszuran.sisyphus_app.util.LimitedInputStream;
 import io.github.mateuszuran.sisyphus_app.util.TimeUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.bson.BsonBinarySubType;
-import org.bson.types.Binary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.YearMonth;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class WorkGroupServiceImpl implements WorkGroupService {
+    static final DataSize DEFAULT_MAX_CV_SIZE = DataSize.ofMegabytes(5);
+    /**
+     * A PDF may be preceded by some garbage, readers look for the header in the first kilobyte.
+     */
+    private static final int PDF_HEADER_WINDOW = 1024;
+    private static final byte[] PDF_HEADER = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+    private static final Set<String> PDF_CONTENT_TYPES = Set.of(MediaType.APPLICATION_PDF_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE);
+
     private final WorkGroupRepository repository;
     private final TimeUtil utility;
+    private final CvStorage cvStorage;
+    private final CvBlobRegistry cvBlobs;
+    private final WorkGroupCache cache;
+    private final FanOut fanOut;
+    private final CvMetrics cvMetrics;
+
+    /**
+     * Uploads above it are rejected while they stream, the servlet multipart limit follows it.
+     */
+    @Value("${sisyphus.cv.max-size:5MB}")
+    private DataSize maxCvSize = DEFAULT_MAX_CV_SIZE;
+
+    /**
+     * When set, counters are derived from the change stream of work applications and the updates below leave them alone.
+     */
+    @Value("${sisyphus.counters.change-stream.enabled:false}")
+    private boolean countersFromChangeStream;
 
     @Override
     public void createNewWorkGroup(MultipartFile file) {
-        try {
-            Binary cv = new Binary(BsonBinarySubType.BINARY, file.getBytes());
-            String creationTime = utility.formatCreationTime();
+        if (file.getSize() > maxCvSize.toBytes()) {
+            throw CvRejectedException.tooLarge(maxCvSize);
+        }
+        try (InputStream content = file.getInputStream()) {
+            createNewWorkGroup(content, file.getOriginalFilename(), file.getContentType());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read file", e);
+        }
+    }
+
+    /**
+     * Streams the CV into storage while hashing and counting it, so the upload is never held in memory as a whole.
+     * Uploads that do not look like a PDF are rejected before anything is stored, uploads over {@code sisyphus.cv.max-size}
+     * as soon as the limit is passed. A CV with the same content as an already stored one ends up sharing that file.
+     *
+     * @return id of the created group
+     */
+    public String createNewWorkGroup(InputStream upload, String fileName, String contentType) {
+        if (contentType != null && !PDF_CONTENT_TYPES.contains(contentType.toLowerCase(Locale.ROOT))) {
+            throw CvRejectedException.notPdf();
+        }
+        try (PushbackInputStream peekable = new PushbackInputStream(upload, PDF_HEADER_WINDOW);
+             LimitedInputStream counted = new LimitedInputStream(peekable, maxCvSize.toBytes());
+             DigestInputStream content = new DigestInputStream(counted, sha256())) {
+            byte[] head = peekable.readNBytes(PDF_HEADER_WINDOW);
+            if (head.length == 0) {
+                throw new IllegalArgumentException("CV file is empty");
+            }
+            if (!hasPdfHeader(head)) {
+                throw CvRejectedException.notPdf();
+            }
+            peekable.unread(head);
 
+            String storedFileId;
+            try {
+                storedFileId = cvStorage.store(content, fileName, contentType);
+            } catch (UncheckedIOException e) {
+                if (counted.isLimitExceeded()) {
+                    throw CvRejectedException.tooLarge(maxCvSize);
+                }
+                throw e;
+            }
+            return createWithStoredCv(storedFileId, HexFormat.of().formatHex(content.getMessageDigest().digest()),
+                    counted.getCount(), fileName, contentType);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read CV file", e);
+        }
+    }
+
+    /**
+     * Shares the stored file and saves the group referencing it, the file is given up again when either fails.
+     */
+    private String createWithStoredCv(String storedFileId, String cvHash, long cvSize, String fileName, String contentType) {
+        String cvFileId;
+        try {
+            cvFileId = cvBlobs.share(cvHash, storedFileId, cvSize);
+        } catch (RuntimeException e) {
+            cvStorage.delete(storedFileId);
+            throw e;
+        }
+        try {
             WorkGroup group = WorkGroup.builder()
-                    .cvData(cv)
-                    .cvFileName(file.getOriginalFilename())
-                    .creationTime(creationTime)
+                    .cvFileId(cvFileId)
+                    .cvFileName(fileName)
+                    .cvContentType(contentType)
+                    .cvSize(cvSize)
+                    .cvHash(cvHash)
+                    .creationTime(utility.now())
                     .send(0)
                     .denied(0)
                     .inProgress(0)
                     .isHired(false)
                     .build();
             repository.save(group);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to read file", e);
+            cache.evictMembership(group.getId());
+            cvMetrics.recordUpload(cvSize);
+            return group.getId();
+        } catch (RuntimeException e) {
+            cvBlobs.release(cvHash, cvFileId);
+            throw e;
         }
     }
 
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static boolean hasPdfHeader(byte[] head) {
+        for (int i = 0; i + PDF_HEADER.length <= head.length; i++) {
+            if (Arrays.equals(head, i, i + PDF_HEADER.length, PDF_HEADER, 0, PDF_HEADER.length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public WorkGroup getWorkGroup(String workGroupId) {
-        return repository.findById(workGroupId)
-                .orElseThrow(() -> new RuntimeException("Work group with given ID not found"));
+        var group = cache.getGroup(workGroupId, id -> repository.findById(id).orElse(null));
+        if (group == null) {
+            throw new RuntimeException("Work group with given ID not found");
+        }
+        return group;
+    }
+
+    public Optional<CvResource> getWorkGroupCv(String workGroupId) {
+        var group = getWorkGroup(workGroupId);
+        if (group.getCvFileId() == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new CvResource(
+                cvStorage.load(group.getCvFileId(), group.getCvSize()),
+                group.getCvFileName(),
+                group.getCvContentType(),
+                group.getCvHash()));
     }
 
     @Override
-    public WorkGroup updateWorkGroupWithWorkApplications(List<WorkApplications> applications, String workGroupId) {
+    public void updateWorkGroupWithWorkApplications(List<WorkApplications> applications, String workGroupId) {
         if (applications == null) {
             throw new IllegalStateException("Applications list is empty");
         }
-        WorkGroup groupToUpdate = getWorkGroup(workGroupId);
-        groupToUpdate.getWorkApplications().addAll(applications);
-        var sendValue = groupToUpdate.getSend();
-
-        if (sendValue != 0) {
-            groupToUpdate.setSend(sendValue + applications.size());
-
-        } else {
-            groupToUpdate.setSend(applications.size());
+        var applicationIds = applications.stream().map(WorkApplications::getId).toList();
+        var pushed = repository.pushWorkApplications(workGroupId, applicationIds, !countersFromChangeStream);
+        cache.evict(workGroupId);
+        if (!pushed) {
+            throw new RuntimeException("Work group with given ID not found");
         }
-
-        return repository.save(groupToUpdate);
     }
 
     @Override
@@ -77,88 +223,142 @@ public class WorkGroupServiceImpl implements WorkGroupService {
     public void deleteSingleGroup(String workGroupId) {
         var groupToDelete = getWorkGroup(workGroupId);
         repository.delete(groupToDelete);
+        cache.evictMembership(workGroupId);
+        if (groupToDelete.getCvFileId() != null) {
+            cvBlobs.release(groupToDelete.getCvHash(), groupToDelete.getCvFileId());
+        }
     }
 
     @Override
     public List<WorkApplications> getAllWorkApplicationsFromWorkGroup(String workGroupId) {
-        var groupToFind = getWorkGroup(workGroupId);
-        return groupToFind.getWorkApplications();
+        var applications = repository.findWorkApplicationsOfGroups(List.of(workGroupId)).get(workGroupId);
+        if (applications == null) {
+            throw new RuntimeException("Work group with given ID not found");
+        }
+        return applications;
     }
 
     @Override
     public void updateGroupWhenWorkUpdate(WorkApplications work, String newStatus, String oldStatus) {
-        var group = findGroupByGivenWorkApplication(work);
+        if (countersFromChangeStream) {
+            return;
+        }
+        GroupCounterDelta counters = new GroupCounterDelta();
 
-        adjustOldStatusCount(oldStatus, group);
-        adjustNewStatusCount(newStatus, group);
+        adjustOldStatusCount(oldStatus, counters);
+        adjustNewStatusCount(newStatus, counters);
 
-        repository.save(group);
+        updateOwningGroupCounters(work.getWorkGroupId(), counters);
     }
 
     @Override
     public void updateGroupWhenWorkDelete(WorkApplications work) {
-        var group = findGroupByGivenWorkApplication(work);
+        if (countersFromChangeStream) {
+            return;
+        }
+        GroupCounterDelta counters = new GroupCounterDelta();
+
+        adjustOldStatusCount(work.getStatus().name(), counters);
 
-        adjustOldStatusCount(work.getStatus().name(), group);
+        updateOwningGroupCounters(work.getWorkGroupId(), counters);
+    }
+
+    @Override
+    public void updateGroupsWhenWorksUpdate(List<StatusTransition> transitions) {
+        if (!countersFromChangeStream) {
+            applyStatusTransitions(transitions);
+        }
+    }
 
-        repository.save(group);
+    /**
+     * Applies the transitions to the counters whatever maintains them. A {@code null} old status stands for a new
+     * application and a {@code null} new status for a deleted one.
+     */
+    public void applyStatusTransitions(List<StatusTransition> transitions) {
+        Map<String, GroupCounterDelta> countersByGroup = new LinkedHashMap<>();
+        for (StatusTransition transition : transitions) {
+            var counters = countersByGroup.computeIfAbsent(transition.workGroupId(), id -> new GroupCounterDelta());
+            if (transition.oldStatus() != null) {
+                adjustOldStatusCount(transition.oldStatus().name(), counters);
+            }
+            if (transition.newStatus() != null) {
+                adjustNewStatusCount(transition.newStatus().name(), counters);
+            }
+        }
+
+        countersByGroup.forEach((workGroupId, counters) -> {
+            if (workGroupId == null || counters.isEmpty() || !repository.updateCounters(workGroupId, counters.toUpdate())) {
+                log.warn("Counters of work group {} not updated.", workGroupId);
+            }
+            cache.evict(workGroupId);
+        });
     }
 
+    /**
+     * Evicts the cached group after a write that changed one of its applications without going through this service.
+     */
+    public void evictCachedGroup(String workGroupId) {
+        cache.evict(workGroupId);
+    }
 
-    private void adjustOldStatusCount(String oldStatus, WorkGroup group) {
+    private void adjustOldStatusCount(String oldStatus, GroupCounterDelta counters) {
         switch (oldStatus.toUpperCase()) {
             case "SEND":
-                group.setSend(Math.max(0, group.getSend() - 1));
+                counters.increment("send", -1);
                 break;
             case "IN_PROGRESS":
-                group.setInProgress(Math.max(0, group.getInProgress() - 1));
+                counters.increment("inProgress", -1);
                 break;
             case "DENIED":
-                group.setDenied(Math.max(0, group.getDenied() - 1));
+                counters.increment("denied", -1);
                 break;
             case "HIRED":
-                group.setHired(false);
+                counters.hired(false);
         }
     }
 
-    private void adjustNewStatusCount(String newStatus, WorkGroup group) {
+    private void adjustNewStatusCount(String newStatus, GroupCounterDelta counters) {
         switch (newStatus.toUpperCase()) {
             case "SEND":
-                group.setSend(group.getSend() + 1);
+                counters.increment("send", 1);
                 break;
             case "IN_PROGRESS":
-                group.setInProgress(group.getInProgress() + 1);
+                counters.increment("inProgress", 1);
                 break;
             case "DENIED":
-                group.setDenied(group.getDenied() + 1);
+                counters.increment("denied", 1);
                 break;
             case "HIRED":
-                group.setHired(true);
+                counters.hired(true);
         }
     }
 
-    private WorkGroup findGroupByGivenWorkApplication(WorkApplications work) {
-        return repository.findAll()
-                .stream()
-                .filter(workGroup -> workGroup.getWorkApplications() != null)
-                .filter(workGroup -> workGroup.getWorkApplications()
-                        .stream()
-                        .anyMatch(workApplications -> workApplications.getId().equals(work.getId())))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Work group not found"));
+    private void updateOwningGroupCounters(String workGroupId, GroupCounterDelta counters) {
+        if (workGroupId == null || !repository.updateCounters(workGroupId, counters.toUpdate())) {
+            throw new IllegalArgumentException("Work group not found");
+        }
+        cache.evict(workGroupId);
     }
 
-    private String encodeBinaryCv(Binary groupCv) {
-        return Base64.getEncoder().encodeToString(groupCv.getData());
+    private String encodeBinaryCv(WorkGroup group) {
+        if (group.getCvFileId() == null) {
+            return null;
+        }
+        return cvMetrics.recordEncoding(() -> {
+            try (InputStream content = cvStorage.load(group.getCvFileId()).getInputStream()) {
+                return Base64.getEncoder().encodeToString(content.readAllBytes());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read CV file", e);
+            }
+        });
     }
 
-    public WorkGroupDTO getMappedSingleWorkGroup(String workGroupId) {
-        WorkGroup group = getWorkGroup(workGroupId);
+    private WorkGroupDTO mapToDTO(WorkGroup group) {
         return WorkGroupDTO.builder()
                 .id(group.getId())
-                .cvData(encodeBinaryCv(group.getCvData()))
+                .cvData(encodeBinaryCv(group))
                 .cvFileName(group.getCvFileName())
-                .creationTime(group.getCreationTime())
+                .creationTime(TimeUtil.format(group.getCreationTime()))
                 .applied(group.getSend())
                 .denied(group.getDenied())
                 .inProgress(group.getInProgress())
@@ -166,21 +366,71 @@ public class WorkGroupServiceImpl implements WorkGroupService {
                 .build();
     }
 
+    public WorkGroupDTO getMappedSingleWorkGroup(String workGroupId) {
+        return cache.getView(workGroupId, id -> mapToDTO(getWorkGroup(id)));
+    }
+
     public List<WorkGroupDTO> getAllMappedWorkGroups() {
-        var allGroups = getAllGroups();
-        return allGroups
+        var groupIds = cache.getAllGroupIds(() -> repository.findAllSummaries().stream().map(WorkGroup::getId).toList());
+        var views = cache.getViews(groupIds, missingIds -> mapToDTOs(repository.findAllById(missingIds)));
+        return groupIds.stream()
+                .map(views::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Every view reads its own CV from storage, so the groups are mapped through {@link FanOut}.
+     */
+    private Map<String, WorkGroupDTO> mapToDTOs(Collection<WorkGroup> groups) {
+        return fanOut.map(List.copyOf(groups), this::mapToDTO)
                 .stream()
-                .map(group ->
-                        WorkGroupDTO.builder()
-                                .id(group.getId())
-                                .cvData(encodeBinaryCv(group.getCvData()))
-                                .cvFileName(group.getCvFileName())
-                                .creationTime(group.getCreationTime())
-                                .applied(group.getSend())
-                                .denied(group.getDenied())
-                                .inProgress(group.getInProgress())
-                                .isHired(group.isHired())
-                                .build())
+                .collect(Collectors.toMap(WorkGroupDTO::id, Function.identity()));
+    }
+
+    public CursorPageDTO<WorkGroupDTO> getMappedWorkGroupsPage(int limit, String after) {
+        CursorPagination.validateCursor(after);
+        var pageLimit = CursorPagination.limit(limit);
+        var groups = after == null
+                ? repository.findAllByOrderByIdAsc(pageLimit)
+                : repository.findByIdGreaterThanOrderByIdAsc(after, pageLimit);
+
+        var page = CursorPagination.page(groups, pageLimit, WorkGroup::getId);
+        var pageIds = page.items().stream().map(WorkGroup::getId).toList();
+        var views = cache.getViews(pageIds, missingIds -> mapToDTOs(page.items().stream()
+                .filter(group -> missingIds.contains(group.getId()))
+                .toList()));
+        return new CursorPageDTO<>(pageIds.stream().map(views::get).toList(), page.nextCursor());
+    }
+
+    public List<WorkGroupSummaryDTO> getAllWorkGroupSummaries() {
+        return repository.findAllSummaries()
+                .stream()
+                .map(WorkGroupServiceImpl::mapToSummary)
+                .toList();
+    }
+
+    /**
+     * Groups created in the given month, or in the current one when none is given, oldest first.
+     */
+    public List<WorkGroupSummaryDTO> getWorkGroupSummariesCreatedIn(YearMonth month) {
+        var createdIn = month != null ? month : utility.currentMonth();
+        return repository.findSummariesCreatedBetween(TimeUtil.startOf(createdIn), TimeUtil.startOf(createdIn.plusMonths(1)))
+                .stream()
+                .map(WorkGroupServiceImpl::mapToSummary)
                 .toList();
     }
+
+    public static WorkGroupSummaryDTO mapToSummary(WorkGroup group) {
+        return WorkGroupSummaryDTO.builder()
+                .id(group.getId())
+                .cvFileName(group.getCvFileName())
+                .cvSize(group.getCvSize())
+                .creationTime(TimeUtil.format(group.getCreationTime()))
+                .applied(group.getSend())
+                .denied(group.getDenied())
+                .inProgress(group.getInProgress())
+                .isHired(group.isHired())
+                .build();
+    }
 }
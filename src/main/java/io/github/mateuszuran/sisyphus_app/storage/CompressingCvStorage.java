@@ -0,0 +1,252 @@
+package io.github.mateuszuran.sisyphus_app.storage;
+
+import io.github.mateuszuran.sisyphus_app.metrics.CvMetrics;
+import io.github.mateuszuran.sisyphus_app.util.CountingInputStream;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterInputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compresses CVs at rest in front of the configured storage and decompresses them on read.
+ * <p>
+ * Whether a CV is worth compressing is decided from its first {@value #SAMPLE_SIZE} bytes: formats that are compressed
+ * already are stored as is, everything else is deflated only when the sample shrinks below {@code max-ratio}.
+ * Compressed files start with a header naming the codec, files without it are returned unchanged, which also covers
+ * CVs stored before compression.
+ */
+@Primary
+@Component
+public class CompressingCvStorage implements CvStorage {
+    static final int SAMPLE_SIZE = 64 * 1024;
+    private static final byte[] MAGIC = {'S', 'C', 'V', 1};
+    private static final byte CODEC_NONE = 0;
+    private static final byte CODEC_DEFLATE = 1;
+    private static final int HEADER_SIZE = MAGIC.length + 1;
+    private static final List<byte[]> COMPRESSED_SIGNATURES = List.of(
+            new byte[]{0x1f, (byte) 0x8b},                             // gzip
+            new byte[]{0x28, (byte) 0xb5, 0x2f, (byte) 0xfd},          // zstd
+            new byte[]{'P', 'K', 3, 4},                                // zip, docx, odt
+            new byte[]{(byte) 0xff, (byte) 0xd8, (byte) 0xff},         // jpeg
+            new byte[]{(byte) 0x89, 'P', 'N', 'G'});
+
+    private final CvStorage backend;
+    private final CvMetrics cvMetrics;
+    private final boolean enabled;
+    private final double maxRatio;
+
+    public CompressingCvStorage(@Qualifier("cvStorageBackend") CvStorage backend,
+                                CvMetrics cvMetrics,
+                                @Value("${sisyphus.cv-storage.compression.enabled:true}") boolean enabled,
+                                @Value("${sisyphus.cv-storage.compression.max-ratio:0.9}") double maxRatio) {
+        this.backend = backend;
+        this.cvMetrics = cvMetrics;
+        this.enabled = enabled;
+        this.maxRatio = maxRatio;
+    }
+
+    @Override
+    public String store(InputStream content, String fileName, String contentType) {
+        try {
+            byte[] sample = content.readNBytes(SAMPLE_SIZE);
+            InputStream whole = new SequenceInputStream(new ByteArrayInputStream(sample), content);
+            double sampleRatio = !enabled || isCompressed(sample) ? 1 : deflatedSize(sample) / (double) Math.max(sample.length, 1);
+
+            if (sampleRatio > maxRatio) {
+                cvMetrics.recordUncompressed(sampleRatio);
+                // content that happens to start like a compressed file still gets a header, so it is not inflated on read
+                return backend.store(startsWith(sample, MAGIC) ? withHeader(CODEC_NONE, whole) : whole, fileName, contentType);
+            }
+
+            var originalSize = new CountingInputStream(whole);
+            var original = new TimedInputStream(originalSize);
+            var deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+            try (var deflated = new TimedInputStream(new DeflaterInputStream(original, deflater));
+                 var stored = new CountingInputStream(withHeader(CODEC_DEFLATE, deflated))) {
+                String fileId = backend.store(stored, fileName, contentType);
+                cvMetrics.recordCompressed(stored.getCount() / (double) Math.max(originalSize.getCount(), 1), deflated.nanos - original.nanos);
+                return fileId;
+            } finally {
+                deflater.end();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compress CV file", e);
+        }
+    }
+
+    @Override
+    public Resource load(String fileId) {
+        return new DecompressedResource(backend.load(fileId), 0);
+    }
+
+    @Override
+    public Resource load(String fileId, long size) {
+        return new DecompressedResource(backend.load(fileId), size);
+    }
+
+    @Override
+    public void delete(String fileId) {
+        backend.delete(fileId);
+    }
+
+    private static boolean isCompressed(byte[] sample) {
+        return COMPRESSED_SIGNATURES.stream().anyMatch(signature -> startsWith(sample, signature));
+    }
+
+    private static boolean startsWith(byte[] content, byte[] prefix) {
+        return content.length >= prefix.length && Arrays.equals(content, 0, prefix.length, prefix, 0, prefix.length);
+    }
+
+    private static int deflatedSize(byte[] sample) throws IOException {
+        var counter = new CountingOutputStream();
+        var deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try (var deflating = new DeflaterOutputStream(counter, deflater)) {
+            deflating.write(sample);
+        } finally {
+            deflater.end();
+        }
+        return counter.count;
+    }
+
+    private static InputStream withHeader(byte codec, InputStream content) {
+        byte[] header = Arrays.copyOf(MAGIC, HEADER_SIZE);
+        header[MAGIC.length] = codec;
+        return new SequenceInputStream(new ByteArrayInputStream(header), content);
+    }
+
+    /**
+     * Stored file read back without the header, inflated when it was deflated.
+     */
+    private class DecompressedResource extends AbstractResource {
+        private final Resource stored;
+        private final long size;
+
+        DecompressedResource(Resource stored, long size) {
+            this.stored = stored;
+            this.size = size;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            var content = new PushbackInputStream(stored.getInputStream(), HEADER_SIZE);
+            byte[] header = content.readNBytes(HEADER_SIZE);
+            if (header.length < HEADER_SIZE || !startsWith(header, MAGIC)) {
+                content.unread(header);
+                return content;
+            }
+            if (header[MAGIC.length] == CODEC_NONE) {
+                return content;
+            }
+            if (header[MAGIC.length] != CODEC_DEFLATE) {
+                content.close();
+                throw new IOException("Unknown CV codec " + header[MAGIC.length]);
+            }
+            var inflater = new Inflater();
+            var compressed = new TimedInputStream(content);
+            return new TimedInputStream(new InflaterInputStream(compressed, inflater)) {
+                private boolean closed;
+
+                @Override
+                public void close() throws IOException {
+                    if (closed) {
+                        return;
+                    }
+                    closed = true;
+                    try {
+                        super.close();
+                    } finally {
+                        inflater.end();
+                        cvMetrics.recordDecompression(nanos - compressed.nanos);
+                    }
+                }
+            };
+        }
+
+        /**
+         * The stored length is that of the compressed file, so without the original size the content is read through.
+         */
+        @Override
+        public long contentLength() throws IOException {
+            return size > 0 ? size : super.contentLength();
+        }
+
+        @Override
+        public boolean exists() {
+            return stored.exists();
+        }
+
+        @Override
+        public String getFilename() {
+            return stored.getFilename();
+        }
+
+        @Override
+        public String getDescription() {
+            return "Decompressed " + stored.getDescription();
+        }
+    }
+
+    /**
+     * Adds up the time spent in reads, which includes the time of the streams it wraps, so the time of a codec is the
+     * difference to the stream below it.
+     */
+    private static class TimedInputStream extends FilterInputStream {
+        long nanos;
+
+        TimedInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            long start = System.nanoTime();
+            try {
+                return super.read();
+            } finally {
+                nanos += System.nanoTime() - start;
+            }
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            long start = System.nanoTime();
+            try {
+                return super.read(buffer, offset, length);
+            } finally {
+                nanos += System.nanoTime() - start;
+            }
+        }
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        int count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            count += length;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.mateuszuran.sisyphus_app.storage;
+
+import io.github.mateuszuran.sisyphus_app.model.CvBlob;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Reference counts of stored CV files by the SHA-256 of their content, so work groups uploaded with the same CV share
+ * one file. Files are deleted in the background once no group references them; a pass collects every unreferenced
+ * file, so one missed after a crash is picked up by the next pass.
+ */
+@Slf4j
+@Component
+public class CvBlobRegistry implements DisposableBean {
+    private final MongoTemplate mongoTemplate;
+    private final CvStorage cvStorage;
+    private final ExecutorService collector;
+
+    @Autowired
+    public CvBlobRegistry(MongoTemplate mongoTemplate, CvStorage cvStorage) {
+        this(mongoTemplate, cvStorage, Executors.newSingleThreadExecutor(runnable -> {
+            var thread = new Thread(runnable, "cv-blob-collector");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    public CvBlobRegistry(MongoTemplate mongoTemplate, CvStorage cvStorage, ExecutorService collector) {
+        this.mongoTemplate = mongoTemplate;
+        this.cvStorage = cvStorage;
+        this.collector = collector;
+    }
+
+    /**
+     * Takes a reference to the content with given hash. When the content is stored already, the just stored copy is
+     * deleted and the existing file is shared.
+     *
+     * @return id of the file to reference
+     */
+    public String share(String hash, String storedFileId, long size) {
+        var blob = mongoTemplate.findAndModify(
+                query(where("_id").is(hash)),
+                new Update().setOnInsert("fileId", storedFileId).setOnInsert("size", size).inc("refCount", 1),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                CvBlob.class);
+        if (!storedFileId.equals(blob.getFileId())) {
+            cvStorage.delete(storedFileId);
+        }
+        return blob.getFileId();
+    }
+
+    /**
+     * Drops a reference to the file. Files stored before they were counted are deleted right away.
+     */
+    public void release(String hash, String fileId) {
+        var blob = hash == null ? null : mongoTemplate.findAndModify(
+                query(where("_id").is(hash).and("fileId").is(fileId)),
+                new Update().inc("refCount", -1),
+                FindAndModifyOptions.options().returnNew(true),
+                CvBlob.class);
+        if (blob == null) {
+            cvStorage.delete(fileId);
+        } else if (blob.getRefCount() <= 0) {
+            collector.execute(() -> {
+                try {
+                    log.info("Collected {} unreferenced CV files.", collectUnreferenced());
+                } catch (RuntimeException e) {
+                    log.warn("Failed to collect unreferenced CV files.", e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Deletes the files no work group references. A blob that gained a reference in the meantime is kept.
+     *
+     * @return number of deleted files
+     */
+    public int collectUnreferenced() {
+        int collected = 0;
+        for (var candidate : mongoTemplate.find(query(where("refCount").lte(0)), CvBlob.class)) {
+            var blob = mongoTemplate.findAndRemove(query(where("_id").is(candidate.getHash()).and("refCount").lte(0)), CvBlob.class);
+            if (blob != null) {
+                cvStorage.delete(blob.getFileId());
+                collected++;
+            }
+        }
+        return collected;
+    }
+
+    @Override
+    public void destroy() {
+        collector.shutdown();
+    }
+}
@@ -0,0 +1,10 @@
+package io.github.mateuszuran.sisyphus_app.storage;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * Stored CV content together with the metadata needed to serve it over HTTP.
+ *
+ * @param hash hex encoded SHA-256 of the content, {@code null} for CVs uploaded before hashes were recorded
+ */
+public record CvResource(Resource content, String fileName, String contentType, String hash) {}
@@ -0,0 +1,31 @@
+package io.github.mateuszuran.sisyphus_app.storage;
+
+import org.springframework.core.io.Resource;
+
+import java.io.InputStream;
+
+/**
+ * Blob store for CV files, so work group documents only keep a reference to the file.
+ */
+public interface CvStorage {
+    /**
+     * Copies given stream into the storage without buffering the whole file.
+     *
+     * @return id of the stored file
+     * @throws java.io.UncheckedIOException when reading the stream fails, nothing of the file is kept then
+     */
+    String store(InputStream content, String fileName, String contentType);
+
+    Resource load(String fileId);
+
+    /**
+     * Loads a file whose size is known from its metadata, so serving it does not read the file just to learn its length.
+     *
+     * @param size size of the content as uploaded, {@code 0} when unknown
+     */
+    default Resource load(String fileId, long size) {
+        return load(fileId);
+    }
+
+    void delete(String fileId);
+}
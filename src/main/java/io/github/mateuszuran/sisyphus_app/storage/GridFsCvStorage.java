@@ -0,0 +1,50 @@
+package io.github.mateuszuran.sisyphus_app.storage;
+
+import com.mongodb.MongoGridFSException;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@Component("cvStorageBackend")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "sisyphus.cv-storage", name = "type", havingValue = "gridfs", matchIfMissing = true)
+public class GridFsCvStorage implements CvStorage {
+    private final GridFsTemplate gridFsTemplate;
+
+    @Override
+    public String store(InputStream content, String fileName, String contentType) {
+        try {
+            return gridFsTemplate.store(content, fileName, contentType).toHexString();
+        } catch (MongoGridFSException e) {
+            // GridFS drops the chunks uploaded so far and reports the failed read wrapped in its own exception
+            if (e.getCause() instanceof IOException readFailure) {
+                throw new UncheckedIOException("Failed to store CV file", readFailure);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public Resource load(String fileId) {
+        var file = gridFsTemplate.findOne(query(where("_id").is(new ObjectId(fileId))));
+        if (file == null) {
+            throw new IllegalArgumentException("CV file with given ID not found");
+        }
+        return gridFsTemplate.getResource(file);
+    }
+
+    @Override
+    public void delete(String fileId) {
+        gridFsTemplate.delete(query(where("_id").is(new ObjectId(fileId))));
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.mateuszuran.sisyphus_app.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+@Component("cvStorageBackend")
+@ConditionalOnProperty(prefix = "sisyphus.cv-storage", name = "type", havingValue = "filesystem")
+public class LocalFileSystemCvStorage implements CvStorage {
+    private final Path directory;
+
+    public LocalFileSystemCvStorage(@Value("${sisyphus.cv-storage.directory:cv-storage}") Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public String store(InputStream content, String fileName, String contentType) {
+        String fileId = UUID.randomUUID().toString();
+        Path file = directory.resolve(fileId);
+        try {
+            Files.createDirectories(directory);
+            Files.copy(content, file);
+            return fileId;
+        } catch (IOException e) {
+            deletePartial(file, e);
+            throw new UncheckedIOException("Failed to store CV file", e);
+        }
+    }
+
+    @Override
+    public Resource load(String fileId) {
+        Path file = resolve(fileId);
+        if (!Files.exists(file)) {
+            throw new IllegalArgumentException("CV file with given ID not found");
+        }
+        return new FileSystemResource(file);
+    }
+
+    @Override
+    public void delete(String fileId) {
+        try {
+            Files.deleteIfExists(resolve(fileId));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete CV file", e);
+        }
+    }
+
+    private static void deletePartial(Path file, IOException failure) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    private Path resolve(String fileId) {
+        Path file = directory.resolve(fileId).normalize();
+        if (!file.getParent().equals(directory.normalize())) {
+            throw new IllegalArgumentException("Invalid CV file ID");
+        }
+        return file;
+    }
+}
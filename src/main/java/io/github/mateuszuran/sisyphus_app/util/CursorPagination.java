@@ -0,0 +1,49 @@
+package io.github.mateuszuran.sisyphus_app.util;
+
+import io.github.mateuszuran.sisyphus_app.dto.CursorPageDTO;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination over {@code _id}: every page is fetched with {@code _id > after} and a limit,
+ * so it costs the same index seek no matter how deep the client scrolled.
+ */
+public final class CursorPagination {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private CursorPagination() {
+    }
+
+    public static Limit limit(int requested) {
+        return Limit.of(Math.min(Math.max(requested, 1), MAX_PAGE_SIZE));
+    }
+
+    /**
+     * @throws ResponseStatusException with {@code 400 Bad Request} when the cursor is not an id returned by a page
+     */
+    public static void validateCursor(String after) {
+        if (after != null && !ObjectId.isValid(after)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid page cursor");
+        }
+    }
+
+    public static <T> CursorPageDTO<T> page(List<T> items, Limit limit, Function<T, String> idExtractor) {
+        String nextCursor = items.size() == limit.max() ? idExtractor.apply(items.get(items.size() - 1)) : null;
+        return new CursorPageDTO<>(items, nextCursor);
+    }
+
+    public static HttpHeaders nextCursorHeaders(CursorPageDTO<?> page) {
+        HttpHeaders headers = new HttpHeaders();
+        if (page.nextCursor() != null) {
+            headers.set(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,133 @@
+package io.github.mateuszuran.sisyphus_app.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs the independent parts of a composite read concurrently, selected by {@code sisyphus.fan-out.mode}:
+ * {@code off} runs them one after another on the calling thread, {@code platform} on a pool of
+ * {@code sisyphus.fan-out.parallelism} threads and {@code virtual} on a virtual thread each, which needs Java 21.
+ * Calls are scoped: when one part fails the others are cancelled, and nothing is left running after the call returns.
+ */
+@Slf4j
+@Component
+public class FanOut implements DisposableBean {
+    private final Mode mode;
+    private final ExecutorService executor;
+
+    public FanOut(@Value("${sisyphus.fan-out.mode:off}") String mode,
+                  @Value("${sisyphus.fan-out.parallelism:4}") int parallelism) {
+        this.mode = resolve(Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT)));
+        this.executor = switch (this.mode) {
+            case OFF -> null;
+            case PLATFORM -> Executors.newFixedThreadPool(parallelism, platformThreads());
+            case VIRTUAL -> newVirtualThreadPerTaskExecutor();
+        };
+    }
+
+    public static FanOut sequential() {
+        return new FanOut("off", 1);
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    /**
+     * Applies {@code task} to every item and returns the results in the order of the items.
+     */
+    public <T, R> List<R> map(List<T> items, Function<T, R> task) {
+        if (executor == null || items.size() < 2) {
+            return items.stream().map(task).toList();
+        }
+
+        CompletionService<R> completion = new ExecutorCompletionService<>(executor);
+        List<Future<R>> futures = new ArrayList<>(items.size());
+        for (T item : items) {
+            futures.add(completion.submit(() -> task.apply(item)));
+        }
+        try {
+            for (int i = 0; i < items.size(); i++) {
+                completion.take().get();
+            }
+            List<R> results = new ArrayList<>(items.size());
+            for (Future<R> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for concurrent reads", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Mode resolve(Mode requested) {
+        if (requested == Mode.VIRTUAL && !virtualThreadsAvailable()) {
+            log.warn("Virtual threads need Java 21, running fan-out on platform threads instead.");
+            return Mode.PLATFORM;
+        }
+        return requested;
+    }
+
+    private static boolean virtualThreadsAvailable() {
+        return Arrays.stream(Executors.class.getMethods())
+                .anyMatch(method -> method.getName().equals("newVirtualThreadPerTaskExecutor"));
+    }
+
+    /**
+     * Looked up reflectively so the build keeps targeting Java 17.
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads are not available", e);
+        }
+    }
+
+    private static ThreadFactory platformThreads() {
+        var counter = new AtomicInteger();
+        return runnable -> {
+            var thread = new Thread(runnable, "fan-out-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public enum Mode {
+        OFF, PLATFORM, VIRTUAL
+    }
+}
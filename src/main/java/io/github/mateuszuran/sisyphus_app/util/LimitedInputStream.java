@@ -0,0 +1,49 @@
+package io.github.mateuszuran.sisyphus_app.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Counts the bytes read through it and fails the read that goes past {@code limit}, so an oversized upload is
+ * rejected while it streams rather than once it is stored. The failure is an {@link IOException}, so whatever consumes
+ * the stream cleans up as after any failed read; {@link #isLimitExceeded()} tells it apart from other read failures.
+ */
+public class LimitedInputStream extends CountingInputStream {
+    private final long limit;
+
+    public LimitedInputStream(InputStream in, long limit) {
+        super(in);
+        this.limit = limit;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int value = super.read();
+        checkLimit();
+        return value;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int read = super.read(buffer, offset, length);
+        checkLimit();
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        checkLimit();
+        return skipped;
+    }
+
+    public boolean isLimitExceeded() {
+        return getCount() > limit;
+    }
+
+    private void checkLimit() throws IOException {
+        if (isLimitExceeded()) {
+            throw new IOException("Read past the limit of " + limit + " bytes");
+        }
+    }
+}
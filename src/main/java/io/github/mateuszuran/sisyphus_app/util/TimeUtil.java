@@ -2,14 +2,40 @@ package io.github.mateuszuran.sisyphus_app.util;
 
 import org.springframework.stereotype.Component;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 
+/**
+ * Dates are stored as BSON dates and shown to clients as {@code dd-MM-yyyy}, both in UTC.
+ */
 @Component
 public class TimeUtil {
+    public static final String DISPLAY_PATTERN = "dd-MM-yyyy";
+    private static final DateTimeFormatter DISPLAY_FORMAT = DateTimeFormatter.ofPattern(DISPLAY_PATTERN).withZone(ZoneOffset.UTC);
 
-    public String formatCreationTime() {
-        SimpleDateFormat formattedDate = new SimpleDateFormat("dd-MM-yyyy");
-        return formattedDate.format(new Date());
+    private final Clock clock = Clock.systemUTC();
+
+    public Instant now() {
+        return clock.instant();
+    }
+
+    public LocalDate today() {
+        return LocalDate.now(clock);
+    }
+
+    public YearMonth currentMonth() {
+        return YearMonth.now(clock);
+    }
+
+    public static Instant startOf(YearMonth month) {
+        return month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    public static String format(Instant instant) {
+        return instant == null ? null : DISPLAY_FORMAT.format(instant);
     }
 }
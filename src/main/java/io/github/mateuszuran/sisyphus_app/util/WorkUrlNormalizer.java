@@ -0,0 +1,74 @@
+package io.github.mateuszuran.sisyphus_app.util;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the key used to recognise the same job posting saved twice, e.g. with another scheme, a trailing slash
+ * or different tracking parameters.
+ */
+public final class WorkUrlNormalizer {
+
+    private WorkUrlNormalizer() {
+    }
+
+    public static String normalize(String workUrl) {
+        if (workUrl == null || workUrl.isBlank()) {
+            return null;
+        }
+        String trimmed = workUrl.trim();
+        URI uri = toUri(trimmed);
+        if (uri == null) {
+            return trimmed.toLowerCase(Locale.ROOT);
+        }
+
+        StringBuilder key = new StringBuilder(stripWww(uri.getHost().toLowerCase(Locale.ROOT)));
+        if (uri.getPort() != -1 && uri.getPort() != 80 && uri.getPort() != 443) {
+            key.append(':').append(uri.getPort());
+        }
+        String path = uri.getRawPath() == null ? "" : uri.getRawPath().replaceAll("/+$", "");
+        key.append(path);
+
+        String query = normalizeQuery(uri.getRawQuery());
+        if (!query.isEmpty()) {
+            key.append('?').append(query);
+        }
+        return key.toString();
+    }
+
+    /**
+     * @return the parsed URL, assuming https when no scheme is given, or {@code null} when it has no host
+     */
+    static URI toUri(String workUrl) {
+        String trimmed = workUrl.trim();
+        try {
+            URI uri = new URI(trimmed.contains("://") ? trimmed : "https://" + trimmed);
+            return uri.getHost() == null ? null : uri;
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    static String stripWww(String host) {
+        return host.startsWith("www.") ? host.substring(4) : host;
+    }
+
+    private static String normalizeQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return "";
+        }
+        return Arrays.stream(rawQuery.split("&"))
+                .filter(parameter -> !parameter.isEmpty())
+                .filter(parameter -> !isTrackingParameter(parameter))
+                .sorted()
+                .collect(Collectors.joining("&"));
+    }
+
+    private static boolean isTrackingParameter(String parameter) {
+        String name = parameter.split("=", 2)[0].toLowerCase(Locale.ROOT);
+        return name.startsWith("utm_") || name.equals("refid") || name.equals("trackingid") || name.equals("fbclid") || name.equals("gclid");
+    }
+}
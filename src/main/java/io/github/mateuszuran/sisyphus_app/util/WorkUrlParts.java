@@ -0,0 +1,87 @@
+package io.github.mateuszuran.sisyphus_app.util;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * What is stored about a job posting URL so it can be queried by index: the host, the domain of the job board,
+ * a key of the posting that survives different URL shapes of the same offer, and the words of the path.
+ *
+ * @param domain     registrable domain, e.g. {@code linkedin.com} for {@code pl.linkedin.com}
+ * @param postingKey {@code domain:id} when the URL carries a job id, otherwise the normalized URL
+ * @param keywords   words of the path separated by spaces, for the text index
+ */
+public record WorkUrlParts(String host, String domain, String postingKey, String keywords) {
+    private static final List<String> JOB_ID_PARAMETERS = List.of("currentjobid", "jobid", "job_id", "jk", "gh_jid");
+    private static final Set<String> SECOND_LEVEL_LABELS = Set.of("co", "com", "org", "net", "gov", "edu", "ac");
+    private static final Pattern TRAILING_JOB_ID = Pattern.compile("(\\d{5,})$");
+    private static final Pattern WORD_DELIMITERS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+    private static final Pattern IPV4 = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}");
+
+    public static WorkUrlParts of(String workUrl) {
+        if (workUrl == null || workUrl.isBlank()) {
+            return new WorkUrlParts(null, null, null, null);
+        }
+        URI uri = WorkUrlNormalizer.toUri(workUrl);
+        if (uri == null) {
+            return new WorkUrlParts(null, null, WorkUrlNormalizer.normalize(workUrl), null);
+        }
+        String host = WorkUrlNormalizer.stripWww(uri.getHost().toLowerCase(Locale.ROOT));
+        String domain = domainOf(host);
+        String path = uri.getPath() == null ? "" : uri.getPath().toLowerCase(Locale.ROOT);
+        String jobId = jobIdOf(uri.getRawQuery(), path);
+        return new WorkUrlParts(host, domain,
+                jobId != null ? domain + ":" + jobId : WorkUrlNormalizer.normalize(workUrl),
+                keywordsOf(path));
+    }
+
+    /**
+     * Last two labels of the host, or three when the second last is a generic second level label under a country code
+     * such as {@code co.uk} or {@code com.pl}. A public suffix list would be exact, this covers the job boards in use.
+     */
+    public static String domainOf(String host) {
+        if (host == null || host.isBlank()) {
+            return null;
+        }
+        String normalized = WorkUrlNormalizer.stripWww(host.trim().toLowerCase(Locale.ROOT));
+        if (IPV4.matcher(normalized).matches()) {
+            return normalized;
+        }
+        String[] labels = normalized.split("\\.");
+        if (labels.length <= 2) {
+            return normalized;
+        }
+        int kept = labels[labels.length - 1].length() == 2 && SECOND_LEVEL_LABELS.contains(labels[labels.length - 2]) ? 3 : 2;
+        return String.join(".", Arrays.copyOfRange(labels, Math.max(0, labels.length - kept), labels.length));
+    }
+
+    private static String jobIdOf(String rawQuery, String path) {
+        if (rawQuery != null) {
+            for (String parameter : rawQuery.split("&")) {
+                String[] pair = parameter.split("=", 2);
+                if (pair.length == 2 && !pair[1].isBlank() && JOB_ID_PARAMETERS.contains(pair[0].toLowerCase(Locale.ROOT))) {
+                    return pair[1];
+                }
+            }
+        }
+        String lastSegment = path.replaceAll("/+$", "");
+        lastSegment = lastSegment.substring(lastSegment.lastIndexOf('/') + 1);
+        Matcher trailingId = TRAILING_JOB_ID.matcher(lastSegment);
+        return trailingId.find() ? trailingId.group(1) : null;
+    }
+
+    private static String keywordsOf(String path) {
+        String keywords = WORD_DELIMITERS.splitAsStream(path)
+                .filter(word -> word.length() > 1 && !NUMBER.matcher(word).matches())
+                .distinct()
+                .collect(Collectors.joining(" "));
+        return keywords.isEmpty() ? null : keywords;
+    }
+}
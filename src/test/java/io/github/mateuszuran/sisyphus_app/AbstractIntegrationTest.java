@@ -6,6 +6,10 @@ import org.testcontainers.containers.MongoDBContainer;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.utility.DockerImageName;
 
+/**
+ * Starts one Mongo for all integration tests. Everything else runs with the default properties, so the indexes are built
+ * by MongoIndexInitializer as in production.
+ */
 @Testcontainers
 public class AbstractIntegrationTest {
 
@@ -20,4 +24,8 @@ public class AbstractIntegrationTest {
     static void setProperties(DynamicPropertyRegistry dynamicPropertyRegistry) {
         dynamicPropertyRegistry.add("spring.data.mongodb.uri", mongodb::getReplicaSetUrl);
     }
+
+    protected static String mongoUri() {
+        return mongodb.getReplicaSetUrl();
+    }
 }
@@ -0,0 +1,64 @@
+package io.github.mateuszuran.sisyphus_app;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class MongoCommandCounter implements CommandListener {
+
+    private final List<IssuedCommand> commands = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        BsonValue target = event.getCommand().get(event.getCommandName());
+        String collection = target != null && target.isString() ? target.asString().getValue() : null;
+        commands.add(new IssuedCommand(event.getCommandName(), collection, event.getCommand().clone()));
+    }
+
+    public void reset() {
+        commands.clear();
+    }
+
+    public int count() {
+        return commands.size();
+    }
+
+    public long count(String commandName, String collection) {
+        return commands.stream()
+                .filter(command -> command.name().equals(commandName))
+                .filter(command -> collection.equals(command.collection()))
+                .count();
+    }
+
+    public List<IssuedCommand> getCommands() {
+        return List.copyOf(commands);
+    }
+
+    public record IssuedCommand(String name, String collection, BsonDocument command) {
+        @Override
+        public String toString() {
+            return name + " " + collection;
+        }
+    }
+
+    @TestConfiguration
+    public static class Config {
+
+        @Bean
+        public MongoCommandCounter mongoCommandCounter() {
+            return new MongoCommandCounter();
+        }
+
+        @Bean
+        public MongoClientSettingsBuilderCustomizer commandCounterCustomizer(MongoCommandCounter counter) {
+            return settings -> settings.addCommandListener(counter);
+        }
+    }
+}
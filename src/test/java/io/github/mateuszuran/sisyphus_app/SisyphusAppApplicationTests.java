@@ -3,7 +3,8 @@ package io.github.mateuszuran.sisyphus_app;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// no Mongo is running here, the default index build is covered by QueryPlanIntegrationTest
+@SpringBootTest(properties = "sisyphus.mongo.create-indexes=false")
 class SisyphusAppApplicationTests {
 
 	@Test
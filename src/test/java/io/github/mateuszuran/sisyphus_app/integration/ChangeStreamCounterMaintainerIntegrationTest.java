@@ -0,0 +1,127 @@
+package io.github.mateuszuran.sisyphus_app.integration;
+
+import io.github.mateuszuran.sisyphus_app.AbstractIntegrationTest;
+import io.github.mateuszuran.sisyphus_app.SisyphusAppApplication;
+import io.github.mateuszuran.sisyphus_app.counters.ChangeStreamCounterMaintainer;
+import io.github.mateuszuran.sisyphus_app.dto.WorkApplicationDTO;
+import io.github.mateuszuran.sisyphus_app.model.ApplicationStatus;
+import io.github.mateuszuran.sisyphus_app.model.WorkApplications;
+import io.github.mateuszuran.sisyphus_app.model.WorkGroup;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepository;
+import io.github.mateuszuran.sisyphus_app.repository.WorkGroupRepository;
+import io.github.mateuszuran.sisyphus_app.service.WorkApplicationsServiceImpl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@SpringBootTest(
+        classes = SisyphusAppApplication.class,
+        properties = {
+                "sisyphus.counters.change-stream.enabled=true",
+                "sisyphus.counters.change-stream.max-await-millis=200"
+        })
+public class ChangeStreamCounterMaintainerIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private WorkGroupRepository groupRepository;
+    @Autowired
+    private WorkApplicationsRepository applicationsRepository;
+    @Autowired
+    private WorkApplicationsServiceImpl applicationsService;
+    @Autowired
+    private ChangeStreamCounterMaintainer maintainer;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private WorkGroup group;
+
+    @BeforeEach
+    public void setUp() {
+        group = groupRepository.save(WorkGroup.builder().creationTime(Instant.now()).build());
+    }
+
+    @Test
+    void givenWritesBypassingServices_whenStreamed_thenCountersFollow() {
+        //given
+        var works = applicationsRepository.saveAll(List.of(work("url1"), work("url2"), work("url3")));
+
+        //when
+        mongoTemplate.updateFirst(query(where("_id").is(works.get(0).getId())), Update.update("status", ApplicationStatus.DENIED), WorkApplications.class);
+        mongoTemplate.updateFirst(query(where("_id").is(works.get(1).getId())), Update.update("status", ApplicationStatus.HIRED), WorkApplications.class);
+        applicationsRepository.deleteById(works.get(2).getId());
+
+        //then
+        var result = awaitGroup(g -> g.getSend() == 0 && g.getDenied() == 1 && g.isHired());
+        Assertions.assertEquals(0, result.getInProgress());
+    }
+
+    @Test
+    void givenStoppedMaintainer_whenRestarted_thenResumeFromSavedToken() {
+        //given
+        applicationsRepository.save(work("url1"));
+        awaitGroup(g -> g.getSend() == 1);
+        maintainer.stop();
+
+        //when
+        applicationsRepository.saveAll(List.of(work("url2"), work("url3")));
+        maintainer.start();
+
+        //then
+        awaitGroup(g -> g.getSend() == 3);
+    }
+
+    @Test
+    void givenApplicationsSavedThroughService_whenStreamed_thenCountOnlyOnce() throws InterruptedException {
+        //given
+        var works = List.of(
+                WorkApplicationDTO.builder().workUrl("https://example.com/jobs/1").build(),
+                WorkApplicationDTO.builder().workUrl("https://example.com/jobs/2").build());
+
+        //when
+        applicationsService.createWorkApplication(works, group.getId());
+
+        //then
+        awaitGroup(g -> g.getSend() == 2);
+        Thread.sleep(1000);
+        Assertions.assertEquals(2, groupRepository.findById(group.getId()).orElseThrow().getSend());
+        Assertions.assertEquals(2, groupRepository.findById(group.getId()).orElseThrow().getWorkApplications().size());
+    }
+
+    private WorkApplications work(String url) {
+        return WorkApplications.builder()
+                .workUrl(url)
+                .status(ApplicationStatus.SEND)
+                .workGroupId(group.getId())
+                .build();
+    }
+
+    private WorkGroup awaitGroup(Predicate<WorkGroup> condition) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        WorkGroup current = null;
+        while (System.currentTimeMillis() < deadline) {
+            current = groupRepository.findById(group.getId()).orElseThrow();
+            if (condition.test(current)) {
+                return current;
+            }
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return Assertions.fail("Counters of work group did not converge, last state: send=" + current.getSend()
+                + " denied=" + current.getDenied() + " inProgress=" + current.getInProgress() + " hired=" + current.isHired());
+    }
+}
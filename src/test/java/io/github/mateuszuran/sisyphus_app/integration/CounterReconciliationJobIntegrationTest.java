@@ -0,0 +1,113 @@
+package io.github.mateuszuran.sisyphus_app.integration;
+
+import io.github.mateuszuran.sisyphus_app.AbstractIntegrationTest;
+import io.github.mateuszuran.sisyphus_app.SisyphusAppApplication;
+import io.github.mateuszuran.sisyphus_app.counters.CounterReconciliationJob;
+import io.github.mateuszuran.sisyphus_app.model.ApplicationStatus;
+import io.github.mateuszuran.sisyphus_app.model.WorkApplications;
+import io.github.mateuszuran.sisyphus_app.model.WorkGroup;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepository;
+import io.github.mateuszuran.sisyphus_app.repository.WorkGroupRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.List;
+
+@SpringBootTest(
+        classes = SisyphusAppApplication.class,
+        properties = {
+                "sisyphus.counters.reconciliation.enabled=true",
+                "sisyphus.counters.reconciliation.chunk-size=2",
+                "sisyphus.counters.reconciliation.initial-delay=PT1H"
+        })
+public class CounterReconciliationJobIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private WorkGroupRepository groupRepository;
+    @Autowired
+    private WorkApplicationsRepository applicationsRepository;
+    @Autowired
+    private CounterReconciliationJob job;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        applicationsRepository.deleteAll();
+        groupRepository.deleteAll();
+        mongoTemplate.dropCollection("counter_reconciliation_checkpoints");
+    }
+
+    @Test
+    void givenDriftedGroups_whenReconcile_thenCorrectOnlyThem() {
+        //given
+        var drifted = groupRepository.save(WorkGroup.builder().send(7).denied(2).build());
+        var accurate = groupRepository.save(WorkGroup.builder().send(1).build());
+        var empty = groupRepository.save(WorkGroup.builder().inProgress(1).isHired(true).build());
+        applicationsRepository.saveAll(List.of(
+                work(drifted, ApplicationStatus.SEND),
+                work(drifted, ApplicationStatus.IN_PROGRESS),
+                work(drifted, ApplicationStatus.HIRED),
+                work(accurate, ApplicationStatus.SEND)));
+
+        //when
+        var result = job.reconcile();
+
+        //then
+        Assertions.assertEquals(3, result.checked());
+        Assertions.assertEquals(2, result.corrected());
+        var fixed = groupRepository.findById(drifted.getId()).orElseThrow();
+        Assertions.assertEquals(1, fixed.getSend());
+        Assertions.assertEquals(1, fixed.getInProgress());
+        Assertions.assertEquals(0, fixed.getDenied());
+        Assertions.assertTrue(fixed.isHired());
+        var reset = groupRepository.findById(empty.getId()).orElseThrow();
+        Assertions.assertEquals(0, reset.getInProgress());
+        Assertions.assertFalse(reset.isHired());
+        Assertions.assertNull(mongoTemplate.getCollection("counter_reconciliation_checkpoints").find().first());
+    }
+
+    @Test
+    void givenCheckpointOfInterruptedPass_whenReconcile_thenContinueAfterIt() {
+        //given
+        var first = groupRepository.save(WorkGroup.builder().send(3).build());
+        var second = groupRepository.save(WorkGroup.builder().send(3).build());
+        mongoTemplate.getCollection("counter_reconciliation_checkpoints")
+                .insertOne(new Document("_id", "work_group").append("lastGroupId", first.getId()));
+
+        //when
+        var result = job.reconcile();
+
+        //then
+        Assertions.assertEquals(1, result.checked());
+        Assertions.assertEquals(3, groupRepository.findById(first.getId()).orElseThrow().getSend());
+        Assertions.assertEquals(0, groupRepository.findById(second.getId()).orElseThrow().getSend());
+    }
+
+    @Test
+    void givenGroupReferencingApplicationsWithoutGroupId_whenReconcile_thenKeepItsCounters() {
+        //given
+        var legacy = groupRepository.save(WorkGroup.builder().send(2).build());
+        var applications = applicationsRepository.saveAll(List.of(
+                WorkApplications.builder().workUrl("url-1").status(ApplicationStatus.SEND).build(),
+                WorkApplications.builder().workUrl("url-2").status(ApplicationStatus.SEND).build()));
+        groupRepository.pushWorkApplications(legacy.getId(), applications.stream().map(WorkApplications::getId).toList(), false);
+
+        //when
+        var result = job.reconcile();
+
+        //then
+        Assertions.assertEquals(0, result.checked());
+        Assertions.assertEquals(1, result.skipped());
+        Assertions.assertEquals(2, groupRepository.findById(legacy.getId()).orElseThrow().getSend());
+    }
+
+    private WorkApplications work(WorkGroup group, ApplicationStatus status) {
+        return WorkApplications.builder().workUrl("url-" + status).status(status).workGroupId(group.getId()).build();
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.mateuszuran.sisyphus_app.integration;
+
+import io.github.mateuszuran.sisyphus_app.AbstractIntegrationTest;
+import io.github.mateuszuran.sisyphus_app.SisyphusAppApplication;
+import io.github.mateuszuran.sisyphus_app.cache.WorkGroupCache;
+import io.github.mateuszuran.sisyphus_app.model.CvBlob;
+import io.github.mateuszuran.sisyphus_app.repository.WorkGroupRepository;
+import io.github.mateuszuran.sisyphus_app.service.WorkGroupServiceImpl;
+import io.github.mateuszuran.sisyphus_app.storage.CvStorage;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+@SpringBootTest(classes = SisyphusAppApplication.class)
+public class CvDeduplicationIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private WorkGroupServiceImpl service;
+    @Autowired
+    private WorkGroupRepository repository;
+    @Autowired
+    private CvStorage cvStorage;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private WorkGroupCache workGroupCache;
+
+    @BeforeEach
+    public void setUp() {
+        repository.deleteAll();
+        mongoTemplate.remove(new Query(), CvBlob.class);
+        workGroupCache.evictAll();
+    }
+
+    @Test
+    void givenSameCvUploadedTwice_whenDeleteGroups_thenShareOneFileUntilLastGroupIsDeleted() throws Exception {
+        //given
+        byte[] cv = "%PDF-1.4 same CV".getBytes(StandardCharsets.US_ASCII);
+        var first = repository.findById(createGroup(cv)).orElseThrow();
+        var second = repository.findById(createGroup(cv)).orElseThrow();
+
+        Assertions.assertEquals(first.getCvFileId(), second.getCvFileId());
+        Assertions.assertEquals(2, blob(first.getCvHash()).getRefCount());
+
+        //when
+        service.deleteSingleGroup(first.getId());
+
+        //then
+        Assertions.assertEquals(1, blob(first.getCvHash()).getRefCount());
+        try (var stored = cvStorage.load(second.getCvFileId()).getInputStream()) {
+            Assertions.assertArrayEquals(cv, stored.readAllBytes());
+        }
+
+        //when
+        service.deleteSingleGroup(second.getId());
+
+        //then
+        awaitCollected(first.getCvHash());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> cvStorage.load(second.getCvFileId()));
+    }
+
+    @Test
+    void givenDifferentCvs_whenCreateGroups_thenStoreEachOnce() {
+        //when
+        var first = repository.findById(createGroup("%PDF-1.4 first".getBytes(StandardCharsets.US_ASCII))).orElseThrow();
+        var second = repository.findById(createGroup("%PDF-1.4 second".getBytes(StandardCharsets.US_ASCII))).orElseThrow();
+
+        //then
+        Assertions.assertNotEquals(first.getCvFileId(), second.getCvFileId());
+        Assertions.assertEquals(2, mongoTemplate.count(new Query(), CvBlob.class));
+    }
+
+    private String createGroup(byte[] cv) {
+        return service.createNewWorkGroup(new ByteArrayInputStream(cv), "cv.pdf", MediaType.APPLICATION_PDF_VALUE);
+    }
+
+    private CvBlob blob(String hash) {
+        return mongoTemplate.findById(hash, CvBlob.class);
+    }
+
+    private void awaitCollected(String hash) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (blob(hash) != null) {
+            if (System.currentTimeMillis() > deadline) {
+                Assertions.fail("CV blob " + hash + " was not collected");
+            }
+            Thread.sleep(100);
+        }
+    }
+}
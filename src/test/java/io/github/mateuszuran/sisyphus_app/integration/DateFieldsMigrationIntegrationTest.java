@@ -0,0 +1,75 @@
+package io.github.mateuszuran.sisyphus_app.integration;
+
+import io.github.mateuszuran.sisyphus_app.AbstractIntegrationTest;
+import io.github.mateuszuran.sisyphus_app.SisyphusAppApplication;
+import io.github.mateuszuran.sisyphus_app.migration.DateFieldsMigration;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepository;
+import io.github.mateuszuran.sisyphus_app.repository.WorkGroupRepository;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Date;
+
+@SpringBootTest(classes = SisyphusAppApplication.class, properties = "sisyphus.migration.enabled=true")
+public class DateFieldsMigrationIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private WorkGroupRepository groupRepository;
+    @Autowired
+    private WorkApplicationsRepository applicationsRepository;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private DateFieldsMigration migration;
+
+    @BeforeEach
+    public void setUp() {
+        applicationsRepository.deleteAll();
+        groupRepository.deleteAll();
+    }
+
+    @Test
+    void givenDatesSavedAsStrings_whenMigrate_thenStoreThemAsUtcDates() {
+        //given
+        var groupId = new ObjectId();
+        var applicationId = new ObjectId();
+        mongoTemplate.getCollection("work_group").insertOne(new Document("_id", groupId).append("creationTime", "03-05-2024"));
+        mongoTemplate.getCollection("work_applications").insertOne(new Document("_id", applicationId)
+                .append("workUrl", "url")
+                .append("appliedDate", "31-12-2023"));
+
+        //when
+        migration.run(null);
+        migration.run(null);
+
+        //then
+        var rawGroup = mongoTemplate.getCollection("work_group").find(new Document("_id", groupId)).first();
+        Assertions.assertNotNull(rawGroup);
+        Assertions.assertEquals(Date.from(Instant.parse("2024-05-03T00:00:00Z")), rawGroup.get("creationTime"));
+        Assertions.assertEquals(Instant.parse("2024-05-03T00:00:00Z"), groupRepository.findById(groupId.toHexString()).orElseThrow().getCreationTime());
+        Assertions.assertEquals(LocalDate.of(2023, 12, 31), applicationsRepository.findById(applicationId.toHexString()).orElseThrow().getAppliedDate());
+    }
+
+    @Test
+    void givenUnparseableString_whenMigrate_thenLeaveItUntouched() {
+        //given
+        var groupId = new ObjectId();
+        mongoTemplate.getCollection("work_group").insertOne(new Document("_id", groupId).append("creationTime", "today"));
+
+        //when
+        migration.run(null);
+
+        //then
+        var rawGroup = mongoTemplate.getCollection("work_group").find(new Document("_id", groupId)).first();
+        Assertions.assertNotNull(rawGroup);
+        Assertions.assertEquals("today", rawGroup.get("creationTime"));
+    }
+}
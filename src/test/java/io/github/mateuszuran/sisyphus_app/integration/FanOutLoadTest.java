@@ -0,0 +1,61 @@
+package io.github.mateuszuran.sisyphus_app.integration;
+
+import io.github.mateuszuran.sisyphus_app.AbstractIntegrationTest;
+import io.github.mateuszuran.sisyphus_app.SisyphusAppApplication;
+import io.github.mateuszuran.sisyphus_app.cache.WorkGroupCache;
+import io.github.mateuszuran.sisyphus_app.repository.WorkGroupRepository;
+import io.github.mateuszuran.sisyphus_app.service.WorkGroupServiceImpl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Measures uncached {@code getAllMappedWorkGroups} with every fan-out mode against the same Mongo.
+ * Run with {@code -Dloadtest=true}, optionally tuning {@code -Dloadtest.groups} and {@code -Dloadtest.iterations}.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+public class FanOutLoadTest extends AbstractIntegrationTest {
+    private static final int GROUPS = Integer.getInteger("loadtest.groups", 50);
+    private static final int ITERATIONS = Integer.getInteger("loadtest.iterations", 50);
+    private static final int CV_SIZE = 256 * 1024;
+
+    @Test
+    void compareFanOutModes() {
+        try (var seeding = start("off")) {
+            seeding.getBean(WorkGroupRepository.class).deleteAll();
+            var service = seeding.getBean(WorkGroupServiceImpl.class);
+            IntStream.range(0, GROUPS).forEach(i -> service.createNewWorkGroup(
+                    new ByteArrayInputStream(Arrays.copyOf("%PDF-1.4\n".getBytes(), CV_SIZE)), "cv-" + i + ".pdf", "application/pdf"));
+        }
+
+        for (String mode : new String[]{"off", "platform", "virtual"}) {
+            try (var context = start(mode)) {
+                var service = context.getBean(WorkGroupServiceImpl.class);
+                var cache = context.getBean(WorkGroupCache.class);
+                long[] millis = new long[ITERATIONS];
+                for (int i = 0; i < ITERATIONS; i++) {
+                    cache.evictAll();
+                    long start = System.nanoTime();
+                    Assertions.assertEquals(GROUPS, service.getAllMappedWorkGroups().size());
+                    millis[i] = (System.nanoTime() - start) / 1_000_000;
+                }
+                Arrays.sort(millis);
+                System.out.printf("fan-out %-8s median %d ms, p99 %d ms%n",
+                        mode, millis[ITERATIONS / 2], millis[(int) Math.ceil(ITERATIONS * 0.99) - 1]);
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext start(String mode) {
+        return new SpringApplicationBuilder(SisyphusAppApplication.class)
+                .run("--spring.main.web-application-type=none",
+                        "--spring.data.mongodb.uri=" + mongoUri(),
+                        "--sisyphus.fan-out.mode=" + mode);
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.mateuszuran.sisyphus_app.integration;
+
+import io.github.mateuszuran.sisyphus_app.AbstractIntegrationTest;
+import io.github.mateuszuran.sisyphus_app.SisyphusAppApplication;
+import io.github.mateuszuran.sisyphus_app.migration.InlineCvMigration;
+import io.github.mateuszuran.sisyphus_app.model.CvBlob;
+import io.github.mateuszuran.sisyphus_app.repository.WorkGroupRepository;
+import io.github.mateuszuran.sisyphus_app.storage.CvStorage;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Date;
+
+@SpringBootTest(classes = SisyphusAppApplication.class, properties = "sisyphus.migration.enabled=true")
+public class InlineCvMigrationIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private WorkGroupRepository groupRepository;
+    @Autowired
+    private CvStorage cvStorage;
+    @Autowired
+    private InlineCvMigration migration;
+
+    @BeforeEach
+    public void setUp() {
+        groupRepository.deleteAll();
+        mongoTemplate.remove(new Query(), CvBlob.class);
+    }
+
+    @Test
+    void givenGroupWithInlineCv_whenMigrate_thenMoveCvToStorage() throws Exception {
+        //given
+        byte[] pdf = Files.readAllBytes(Paths.get("src/test/resources/LoremIpsum.pdf"));
+        var groupId = new ObjectId();
+        mongoTemplate.getCollection("work_group").insertOne(new Document("_id", groupId)
+                .append("cvData", new Binary(pdf))
+                .append("cvFileName", "LoremIpsum.pdf")
+                .append("creationTime", new Date()));
+
+        //when
+        migration.run(null);
+
+        //then
+        var rawGroup = mongoTemplate.getCollection("work_group").find(new Document("_id", groupId)).first();
+        Assertions.assertNotNull(rawGroup);
+        Assertions.assertFalse(rawGroup.containsKey("cvData"));
+
+        var group = groupRepository.findById(groupId.toHexString()).orElseThrow();
+        Assertions.assertEquals(pdf.length, group.getCvSize());
+        Assertions.assertEquals("application/pdf", group.getCvContentType());
+        try (var storedCv = cvStorage.load(group.getCvFileId()).getInputStream()) {
+            Assertions.assertArrayEquals(pdf, storedCv.readAllBytes());
+        }
+    }
+
+    @Test
+    void givenGroupsWithSameInlineCv_whenMigrate_thenShareOneCountedFile() throws Exception {
+        //given
+        byte[] pdf = Files.readAllBytes(Paths.get("src/test/resources/LoremIpsum.pdf"));
+        var firstId = new ObjectId();
+        var secondId = new ObjectId();
+        for (var groupId : new ObjectId[]{firstId, secondId}) {
+            mongoTemplate.getCollection("work_group").insertOne(new Document("_id", groupId)
+                    .append("cvData", new Binary(pdf))
+                    .append("cvFileName", "LoremIpsum.pdf")
+                    .append("creationTime", new Date()));
+        }
+
+        //when
+        migration.run(null);
+        migration.run(null);
+
+        //then
+        var first = groupRepository.findById(firstId.toHexString()).orElseThrow();
+        var second = groupRepository.findById(secondId.toHexString()).orElseThrow();
+        Assertions.assertEquals(first.getCvFileId(), second.getCvFileId());
+        Assertions.assertEquals(first.getCvHash(), second.getCvHash());
+
+        var blobs = mongoTemplate.findAll(CvBlob.class);
+        Assertions.assertEquals(1, blobs.size());
+        Assertions.assertEquals(first.getCvHash(), blobs.get(0).getHash());
+        Assertions.assertEquals(first.getCvFileId(), blobs.get(0).getFileId());
+        Assertions.assertEquals(2, blobs.get(0).getRefCount());
+    }
+}
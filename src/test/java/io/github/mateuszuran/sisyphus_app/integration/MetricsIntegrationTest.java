@@ -0,0 +1,59 @@
+package io.github.mateuszuran.sisyphus_app.integration;
+
+import io.github.mateuszuran.sisyphus_app.AbstractIntegrationTest;
+import io.github.mateuszuran.sisyphus_app.SisyphusAppApplication;
+import io.github.mateuszuran.sisyphus_app.repository.WorkGroupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+        classes = SisyphusAppApplication.class)
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class MetricsIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private WorkGroupRepository repository;
+
+    @BeforeEach
+    public void setUp() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void givenTraffic_whenScrapePrometheus_thenExposeControllerMongoAndPayloadMetrics() throws Exception {
+        //given
+        mockMvc.perform(multipart("/group/create")
+                        .file(new MockMultipartFile("cv", "cv.pdf", MediaType.APPLICATION_PDF_VALUE, "%PDF-1.4 sample content".getBytes())))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/group/all"))
+                .andExpect(status().isOk());
+
+        //when
+        //then
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("sisyphus_controller_seconds_bucket{class=\"io.github.mateuszuran.sisyphus_app.controller.WorkGroupController\"")))
+                .andExpect(content().string(containsString("mongodb_driver_commands_seconds_count{")))
+                .andExpect(content().string(containsString("collection=\"work_group\"")))
+                .andExpect(content().string(containsString("sisyphus_cv_upload_size_bytes_count 1.0")))
+                .andExpect(content().string(containsString("sisyphus_cv_encode_seconds_count")))
+                .andExpect(content().string(containsString("sisyphus_http_response_size_bytes_count{method=\"GET\",status=\"200\",uri=\"/group/all\"}")));
+    }
+}
@@ -0,0 +1,232 @@
+package io.github.mateuszuran.sisyphus_app.integration;
+
+import io.github.mateuszuran.sisyphus_app.AbstractIntegrationTest;
+import io.github.mateuszuran.sisyphus_app.MongoCommandCounter;
+import io.github.mateuszuran.sisyphus_app.SisyphusAppApplication;
+import io.github.mateuszuran.sisyphus_app.model.ApplicationStatus;
+import io.github.mateuszuran.sisyphus_app.model.CvBlob;
+import io.github.mateuszuran.sisyphus_app.model.WorkApplications;
+import io.github.mateuszuran.sisyphus_app.model.WorkGroup;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepository;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepositoryCustom.ApplicationSearch;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepositoryCustom.SearchOrder;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepositoryCustom.SearchPosition;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepositoryCustom.StatusChange;
+import io.github.mateuszuran.sisyphus_app.repository.WorkGroupRepository;
+import io.github.mateuszuran.sisyphus_app.repository.WorkGroupRepositoryCustom.GroupCounters;
+import io.github.mateuszuran.sisyphus_app.storage.CvBlobRegistry;
+import io.github.mateuszuran.sisyphus_app.util.TimeUtil;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Range;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Runs every repository query, captures the commands it sends and explains them. None may scan a whole collection.
+ */
+@SpringBootTest(classes = SisyphusAppApplication.class)
+@Import(MongoCommandCounter.Config.class)
+public class QueryPlanIntegrationTest extends AbstractIntegrationTest {
+    private static final Set<String> EXPLAINABLE_COMMANDS = Set.of("find", "aggregate", "count", "distinct", "update", "delete", "findAndModify");
+    private static final Set<String> COLLECTIONS = Set.of("work_group", "work_applications", "cv_blobs");
+
+    @Autowired
+    private WorkGroupRepository groupRepository;
+    @Autowired
+    private WorkApplicationsRepository applicationsRepository;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private MongoCommandCounter commandCounter;
+    @Autowired
+    private CvBlobRegistry cvBlobs;
+
+    private WorkGroup group;
+    private List<WorkApplications> applications;
+
+    @BeforeEach
+    public void setUp() {
+        applicationsRepository.deleteAll();
+        groupRepository.deleteAll();
+        group = groupRepository.save(WorkGroup.builder().creationTime(Instant.parse("2024-05-01T10:15:30Z")).build());
+        applications = applicationsRepository.saveAll(IntStream.range(0, 20)
+                .mapToObj(i -> WorkApplications.builder()
+                        .id(new ObjectId().toHexString())
+                        .workUrl("https://example.com/job/" + i)
+                        .normalizedWorkUrl("example.com/job/" + i)
+                        .appliedDate(LocalDate.of(2024, 5, 1).plusDays(i))
+                        .status(ApplicationStatus.SEND)
+                        .workGroupId(group.getId())
+                        .build())
+                .toList());
+        groupRepository.pushWorkApplications(group.getId(), applications.stream().map(WorkApplications::getId).toList(), true);
+    }
+
+    @Test
+    void givenDefaultProperties_whenStarted_thenBuildDeclaredIndexes() {
+        //given
+        //when
+        var indexes = mongoTemplate.indexOps(WorkApplications.class).getIndexInfo();
+
+        //then
+        var dedup = indexes.stream()
+                .filter(index -> index.getName().equals("workGroupId_normalizedWorkUrl"))
+                .findFirst()
+                .orElseThrow();
+        Assertions.assertTrue(dedup.isUnique());
+        Assertions.assertTrue(indexes.stream().anyMatch(index -> index.getName().equals("workGroupId_status_appliedDate")));
+        Assertions.assertTrue(mongoTemplate.indexOps(CvBlob.class).getIndexInfo().stream()
+                .anyMatch(index -> index.getName().equals("refCount")));
+    }
+
+    @Test
+    void givenGroupId_whenFindById_thenUseIndex() {
+        assertNoCollectionScan(() -> groupRepository.findById(group.getId()));
+    }
+
+    @Test
+    void givenGroupIds_whenFindAllById_thenUseIndex() {
+        assertNoCollectionScan(() -> groupRepository.findAllById(List.of(group.getId())));
+    }
+
+    @Test
+    void givenGroups_whenFindSummaries_thenUseIndex() {
+        assertNoCollectionScan(() -> groupRepository.findAllSummaries());
+    }
+
+    @Test
+    void givenGroups_whenFindPages_thenUseIndex() {
+        assertNoCollectionScan(() -> groupRepository.findAllByOrderByIdAsc(Limit.of(10)));
+        assertNoCollectionScan(() -> groupRepository.findByIdGreaterThanOrderByIdAsc(group.getId(), Limit.of(10)));
+    }
+
+    @Test
+    void givenGroups_whenFindCreatedInMonth_thenUseIndex() {
+        assertNoCollectionScan(() -> groupRepository.findSummariesCreatedBetween(
+                TimeUtil.startOf(YearMonth.of(2024, 5)), TimeUtil.startOf(YearMonth.of(2024, 6))));
+    }
+
+    @Test
+    void givenGroup_whenUpdateCounters_thenUseIndex() {
+        assertNoCollectionScan(() -> groupRepository.updateCounters(group.getId(), new Update().inc("send", 1)));
+        assertNoCollectionScan(() -> groupRepository.replaceCounters(group.getId(),
+                new GroupCounters(21, 0, 0, false), new GroupCounters(20, 0, 0, false)));
+        assertNoCollectionScan(() -> groupRepository.pushWorkApplications(group.getId(), List.of(new ObjectId().toHexString()), true));
+    }
+
+    @Test
+    void givenGroupIds_whenFindApplicationsOfGroups_thenUseIndex() {
+        assertNoCollectionScan(() -> groupRepository.findWorkApplicationsOfGroups(List.of(group.getId())));
+        assertNoCollectionScan(() -> groupRepository.findGroupsWithUnlinkedApplications(List.of(group.getId())));
+    }
+
+    @Test
+    void givenApplicationIds_whenFindById_thenUseIndex() {
+        assertNoCollectionScan(() -> applicationsRepository.findById(applications.get(0).getId()));
+        assertNoCollectionScan(() -> applicationsRepository.findAllById(List.of(applications.get(0).getId(), applications.get(1).getId())));
+    }
+
+    @Test
+    void givenApplications_whenFindPages_thenUseIndex() {
+        assertNoCollectionScan(() -> applicationsRepository.findByWorkGroupIdOrderByIdAsc(group.getId(), Limit.of(10)));
+        assertNoCollectionScan(() -> applicationsRepository.findByWorkGroupIdAndIdGreaterThanOrderByIdAsc(group.getId(), applications.get(5).getId(), Limit.of(10)));
+    }
+
+    @Test
+    void givenApplications_whenFindAppliedBetween_thenUseIndex() {
+        assertNoCollectionScan(() -> applicationsRepository.findByAppliedDateBetweenOrderByAppliedDateAscIdAsc(
+                Range.closed(LocalDate.of(2024, 5, 3), LocalDate.of(2024, 5, 10))));
+    }
+
+    @Test
+    void givenApplications_whenSearch_thenUseIndex() {
+        var filtered = new ApplicationSearch(List.of(ApplicationStatus.SEND, ApplicationStatus.DENIED), LocalDate.of(2024, 5, 2), LocalDate.of(2024, 5, 12),
+                "job/1", "example.com", null, SearchOrder.ID);
+        assertNoCollectionScan(() -> applicationsRepository.search(group.getId(), filtered, null, Limit.of(10)));
+        for (var order : SearchOrder.values()) {
+            var ordered = new ApplicationSearch(List.of(), null, null, null, null, null, order);
+            var after = new SearchPosition(applications.get(5).getAppliedDate(), applications.get(5).getId());
+            assertNoCollectionScan(() -> applicationsRepository.search(group.getId(), ordered, after, Limit.of(10)));
+        }
+    }
+
+    @Test
+    void givenApplications_whenSearchByDomainOrWords_thenUseIndex() {
+        var byDomain = new ApplicationSearch(List.of(), null, null, null, "example.com", null, SearchOrder.ID);
+        var byWords = new ApplicationSearch(List.of(ApplicationStatus.SEND), null, null, null, null, "job", SearchOrder.APPLIED_DATE);
+        assertNoCollectionScan(() -> applicationsRepository.search(group.getId(), byDomain, null, Limit.of(10)));
+        assertNoCollectionScan(() -> applicationsRepository.search(group.getId(), byWords, null, Limit.of(10)));
+    }
+
+    @Test
+    void givenApplications_whenCompareAndSetStatus_thenUseIndex() {
+        assertNoCollectionScan(() -> applicationsRepository.compareAndSetStatus(applications.get(0).getId(), ApplicationStatus.SEND, ApplicationStatus.DENIED));
+        assertNoCollectionScan(() -> applicationsRepository.bulkCompareAndSetStatus(List.of(
+                new StatusChange(applications.get(1).getId(), ApplicationStatus.SEND, ApplicationStatus.HIRED),
+                new StatusChange(applications.get(2).getId(), ApplicationStatus.SEND, ApplicationStatus.IN_PROGRESS))));
+    }
+
+    @Test
+    void givenApplications_whenAggregateStatistics_thenUseIndex() {
+        assertNoCollectionScan(() -> applicationsRepository.aggregateStatistics());
+        assertNoCollectionScan(() -> applicationsRepository.countStatusesOfGroups(List.of(group.getId())));
+        assertNoCollectionScan(() -> applicationsRepository.countStatusesByDomain());
+    }
+
+    @Test
+    void givenCvBlobs_whenShareReleaseAndCollect_thenUseIndex() {
+        var fileId = new ObjectId().toHexString();
+        assertNoCollectionScan(() -> cvBlobs.share("a".repeat(64), fileId, 10));
+        assertNoCollectionScan(() -> cvBlobs.release("a".repeat(64), fileId));
+        assertNoCollectionScan(() -> cvBlobs.collectUnreferenced());
+    }
+
+    @Test
+    void givenApplicationIds_whenDelete_thenUseIndex() {
+        assertNoCollectionScan(() -> applicationsRepository.deleteById(applications.get(0).getId()));
+        assertNoCollectionScan(() -> applicationsRepository.deleteAllById(List.of(applications.get(1).getId())));
+    }
+
+    private void assertNoCollectionScan(Runnable repositoryCall) {
+        commandCounter.reset();
+        repositoryCall.run();
+
+        var queries = commandCounter.getCommands().stream()
+                .filter(command -> EXPLAINABLE_COMMANDS.contains(command.name()) && COLLECTIONS.contains(command.collection()))
+                .toList();
+        Assertions.assertFalse(queries.isEmpty(), "No query was sent");
+        for (var query : queries) {
+            var plan = explain(query.command()).toJson();
+            Assertions.assertFalse(plan.contains("COLLSCAN"), query + " scans the collection: " + plan);
+        }
+    }
+
+    private Document explain(BsonDocument command) {
+        var explained = new BsonDocument();
+        // session, cluster time and target database are added by the driver, explain takes only the command itself
+        command.forEach((key, value) -> {
+            if (!key.startsWith("$") && !key.equals("lsid") && !key.equals("txnNumber")) {
+                explained.append(key, value);
+            }
+        });
+        return mongoTemplate.getDb().runCommand(new BsonDocument("explain", explained)
+                .append("verbosity", new BsonString("queryPlanner")));
+    }
+}
@@ -0,0 +1,177 @@
+package io.github.mateuszuran.sisyphus_app.integration;
+
+import io.github.mateuszuran.sisyphus_app.AbstractIntegrationTest;
+import io.github.mateuszuran.sisyphus_app.SisyphusAppApplication;
+import io.github.mateuszuran.sisyphus_app.cache.WorkGroupCache;
+import io.github.mateuszuran.sisyphus_app.dto.WorkApplicationDTO;
+import io.github.mateuszuran.sisyphus_app.dto.WorkGroupDTO;
+import io.github.mateuszuran.sisyphus_app.model.WorkApplications;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepository;
+import io.github.mateuszuran.sisyphus_app.repository.WorkGroupRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.BodyInserters;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        classes = SisyphusAppApplication.class,
+        properties = {
+                "spring.main.web-application-type=reactive",
+                "spring.autoconfigure.exclude=",
+                "sisyphus.cv.max-size=64KB"
+        })
+public class ReactiveApiIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private WorkGroupRepository groupRepository;
+    @Autowired
+    private WorkApplicationsRepository applicationsRepository;
+    @Autowired
+    private WorkGroupCache workGroupCache;
+
+    private final byte[] cv = "%PDF-1.4 reactive sample content".getBytes();
+
+    @BeforeEach
+    public void setUp() {
+        applicationsRepository.deleteAll();
+        groupRepository.deleteAll();
+        workGroupCache.evictAll();
+    }
+
+    @Test
+    void givenFile_whenCreate_thenGroupIsReadableWithEncodedCv() {
+        //when
+        upload(cv).expectStatus().isOk();
+
+        //then
+        var groups = client.get().uri("/group/all")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(WorkGroupDTO.class)
+                .returnResult()
+                .getResponseBody();
+        Assertions.assertEquals(1, groups.size());
+        Assertions.assertArrayEquals(cv, Base64.getDecoder().decode(groups.get(0).cvData()));
+        Assertions.assertEquals(cv.length, groupRepository.findAll().get(0).getCvSize());
+    }
+
+    @Test
+    void givenOversizedOrNonPdfFile_whenCreate_thenReturnStatusOfRejection() {
+        upload(Arrays.copyOf("%PDF-1.4\n".getBytes(), 256 * 1024)).expectStatus().isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE);
+        upload(new byte[256 * 1024]).expectStatus().isEqualTo(HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+
+        Assertions.assertTrue(groupRepository.findAll().isEmpty());
+    }
+
+    @Test
+    void givenEmptyFile_whenCreate_thenReturnStatus404() {
+        upload(new byte[0]).expectStatus().isNotFound();
+
+        Assertions.assertTrue(groupRepository.findAll().isEmpty());
+    }
+
+    @Test
+    void givenGroups_whenGetPage_thenReturnNextCursorHeader() {
+        //given
+        upload(cv).expectStatus().isOk();
+        upload(cv).expectStatus().isOk();
+        var firstId = groupRepository.findAllByOrderByIdAsc(Limit.of(1)).get(0).getId();
+
+        //when
+        //then
+        client.get().uri("/group/all?limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Next-Cursor", firstId)
+                .expectBodyList(WorkGroupDTO.class).hasSize(1);
+    }
+
+    @Test
+    void givenGroup_whenGetCvRange_thenReturnPartialContent() {
+        //given
+        upload(cv).expectStatus().isOk();
+        var group = groupRepository.findAll().get(0);
+
+        //when
+        //then
+        client.get().uri("/group/{id}/cv", group.getId())
+                .header(HttpHeaders.RANGE, HttpRange.toString(List.of(HttpRange.createByteRange(2, 5))))
+                .exchange()
+                .expectStatus().isEqualTo(206)
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_RANGE, "bytes 2-5/" + cv.length)
+                .expectBody(byte[].class).isEqualTo("DF-1".getBytes());
+
+        client.get().uri("/group/{id}/cv", group.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"" + group.getCvHash() + "\"")
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    void givenGroup_whenSaveAndUpdateApplications_thenCountersFollow() {
+        //given
+        upload(cv).expectStatus().isOk();
+        var groupId = groupRepository.findAll().get(0).getId();
+
+        //when
+        client.post().uri("/applications/save/{id}", groupId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(new WorkApplicationDTO("https://example.com/job/1"), new WorkApplicationDTO("https://example.com/job/2")))
+                .exchange()
+                .expectStatus().isCreated();
+        var applications = client.get().uri("/applications/all/{id}", groupId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(WorkApplications.class)
+                .returnResult()
+                .getResponseBody();
+        client.patch().uri("/applications/update/{id}/{status}", applications.get(0).getId(), "denied")
+                .exchange()
+                .expectStatus().isOk();
+
+        //then
+        var group = groupRepository.findById(groupId).orElseThrow();
+        Assertions.assertEquals(2, applications.size());
+        Assertions.assertEquals(1, group.getSend());
+        Assertions.assertEquals(1, group.getDenied());
+    }
+
+    @Test
+    void givenMissingGroup_whenGetApplications_thenReturnError() {
+        client.get().uri("/applications/all/{id}", "66f000000000000000000000")
+                .exchange()
+                .expectStatus().is5xxServerError();
+    }
+
+    private WebTestClient.ResponseSpec upload(byte[] content) {
+        var body = new MultipartBodyBuilder();
+        body.part("cv", new ByteArrayResource(content) {
+            @Override
+            public String getFilename() {
+                return "cv.pdf";
+            }
+        }).contentType(MediaType.APPLICATION_PDF);
+        return client.post().uri("/group/create")
+                .contentType(MediaType.MULTIPART_FORM_DATA)
+                .body(BodyInserters.fromMultipartData(body.build()))
+                .exchange();
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.mateuszuran.sisyphus_app.integration;
+
+import io.github.mateuszuran.sisyphus_app.AbstractIntegrationTest;
+import io.github.mateuszuran.sisyphus_app.SisyphusAppApplication;
+import io.github.mateuszuran.sisyphus_app.dto.WorkApplicationDTO;
+import io.github.mateuszuran.sisyphus_app.service.WorkApplicationsServiceImpl;
+import io.github.mateuszuran.sisyphus_app.service.WorkGroupServiceImpl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Runs the same read mix against the servlet and the reactive stack, both backed by the same Mongo, and prints
+ * throughput and p99 latency of each. Run with {@code -Dloadtest=true}, optionally tuning
+ * {@code -Dloadtest.requests} and {@code -Dloadtest.concurrency}.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+public class ServletVsReactiveLoadTest extends AbstractIntegrationTest {
+    private static final int REQUESTS = Integer.getInteger("loadtest.requests", 5000);
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 64);
+    private static final int GROUPS = 20;
+    private static final int APPLICATIONS_PER_GROUP = 50;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    void compareServletAndReactiveReads() throws Exception {
+        List<String> groupIds;
+        try (var servlet = start("servlet")) {
+            groupIds = seed(servlet);
+            var servletResult = run(port(servlet), groupIds);
+            try (var reactive = start("reactive")) {
+                var reactiveResult = run(port(reactive), groupIds);
+
+                System.out.printf("servlet:  %s%nreactive: %s%n", servletResult, reactiveResult);
+                Assertions.assertEquals(0, servletResult.errors());
+                Assertions.assertEquals(0, reactiveResult.errors());
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext start(String webApplicationType) {
+        return new SpringApplicationBuilder(SisyphusAppApplication.class)
+                .run("--server.port=0",
+                        "--spring.data.mongodb.uri=" + mongoUri(),
+                        "--spring.main.web-application-type=" + webApplicationType,
+                        "--spring.autoconfigure.exclude=");
+    }
+
+    private int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    private List<String> seed(ConfigurableApplicationContext context) {
+        var groupService = context.getBean(WorkGroupServiceImpl.class);
+        var applicationsService = context.getBean(WorkApplicationsServiceImpl.class);
+        return IntStream.range(0, GROUPS)
+                .mapToObj(i -> {
+                    var groupId = groupService.createNewWorkGroup(
+                            new ByteArrayInputStream(Arrays.copyOf("%PDF-1.4\n".getBytes(), 32 * 1024)), "cv-" + i + ".pdf", "application/pdf");
+                    applicationsService.createWorkApplication(IntStream.range(0, APPLICATIONS_PER_GROUP)
+                            .mapToObj(j -> new WorkApplicationDTO("https://example.com/" + groupId + "/job/" + j))
+                            .toList(), groupId);
+                    return groupId;
+                })
+                .toList();
+    }
+
+    private LoadResult run(int port, List<String> groupIds) throws InterruptedException {
+        var latencies = Collections.synchronizedList(new ArrayList<Long>(REQUESTS));
+        var errors = new AtomicInteger();
+        var permits = new Semaphore(CONCURRENCY);
+        var pending = new ArrayList<CompletableFuture<?>>(REQUESTS);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            var path = switch (i % 3) {
+                case 0 -> "/group/summary";
+                case 1 -> "/group/single/" + groupIds.get(i % groupIds.size());
+                default -> "/applications/all/" + groupIds.get(i % groupIds.size()) + "?limit=20";
+            };
+            var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+
+            permits.acquire();
+            long sent = System.nanoTime();
+            pending.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        latencies.add(System.nanoTime() - sent);
+                        if (failure != null || response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                        permits.release();
+                    }));
+        }
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).exceptionally(failure -> null).join();
+        long elapsed = System.nanoTime() - start;
+
+        var sorted = latencies.stream().sorted().toList();
+        long p99 = sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+        return new LoadResult(REQUESTS * 1_000_000_000.0 / elapsed, p99 / 1_000_000.0, errors.get());
+    }
+
+    private record LoadResult(double requestsPerSecond, double p99Millis, int errors) {
+        @Override
+        public String toString() {
+            return String.format("%.0f req/s, p99 %.1f ms, %d errors", requestsPerSecond, p99Millis, errors);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package io.github.mateuszuran.sisyphus_app.integration;
+
+import io.github.mateuszuran.sisyphus_app.AbstractIntegrationTest;
+import io.github.mateuszuran.sisyphus_app.SisyphusAppApplication;
+import io.github.mateuszuran.sisyphus_app.model.ApplicationStatus;
+import io.github.mateuszuran.sisyphus_app.model.WorkApplications;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+        classes = SisyphusAppApplication.class)
+@AutoConfigureMockMvc
+public class StatsIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WorkApplicationsRepository applicationsRepository;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        applicationsRepository.deleteAll();
+    }
+
+    @Test
+    void givenApplicationsInManyGroups_whenGetStats_thenReturnCountsRatesAndMonths() throws Exception {
+        //given
+        applicationsRepository.saveAll(List.of(
+                work("1", ApplicationStatus.SEND, LocalDate.of(2024, 5, 3)),
+                work("1", ApplicationStatus.IN_PROGRESS, LocalDate.of(2024, 5, 10)),
+                work("1", ApplicationStatus.DENIED, LocalDate.of(2024, 6, 1)),
+                work("1", ApplicationStatus.HIRED, LocalDate.of(2024, 6, 2)),
+                work("2", ApplicationStatus.SEND, LocalDate.of(2024, 6, 15))));
+
+        //when + then
+        mockMvc.perform(get("/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(5))
+                .andExpect(jsonPath("$.byStatus.SEND").value(2))
+                .andExpect(jsonPath("$.byStatus.HIRED").value(1))
+                .andExpect(jsonPath("$.groups[0].workGroupId").value("1"))
+                .andExpect(jsonPath("$.groups[0].total").value(4))
+                .andExpect(jsonPath("$.groups[0].conversionRate").value(0.5))
+                .andExpect(jsonPath("$.groups[1].conversionRate").value(0.0))
+                .andExpect(jsonPath("$.perMonth[0].month").value("2024-05"))
+                .andExpect(jsonPath("$.perMonth[0].count").value(2))
+                .andExpect(jsonPath("$.perMonth[1].month").value("2024-06"))
+                .andExpect(jsonPath("$.perMonth[1].count").value(3));
+    }
+
+    @Test
+    void givenApplicationsOnManyJobBoards_whenGetDomainStats_thenReturnCountsPerDomain() throws Exception {
+        //given
+        applicationsRepository.saveAll(List.of(
+                onDomain("linkedin.com", ApplicationStatus.SEND),
+                onDomain("linkedin.com", ApplicationStatus.HIRED),
+                onDomain("pracuj.pl", ApplicationStatus.DENIED),
+                work("1", ApplicationStatus.SEND, LocalDate.of(2024, 5, 3))));
+
+        //when + then
+        mockMvc.perform(get("/stats/domains"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].domain").value("linkedin.com"))
+                .andExpect(jsonPath("$[0].total").value(2))
+                .andExpect(jsonPath("$[0].conversionRate").value(0.5))
+                .andExpect(jsonPath("$[1].domain").value("pracuj.pl"))
+                .andExpect(jsonPath("$[1].denied").value(1));
+    }
+
+    @Test
+    void givenStatsPipeline_whenExplain_thenScanOnlyTheIndex() {
+        //given
+        applicationsRepository.save(work("1", ApplicationStatus.SEND, LocalDate.of(2024, 5, 3)));
+        var explain = new Document("explain", new Document("aggregate", "work_applications")
+                .append("pipeline", List.of(
+                        new Document("$sort", new Document("workGroupId", 1).append("status", 1).append("appliedDate", 1)),
+                        new Document("$project", new Document("workGroupId", 1).append("status", 1).append("appliedDate", 1).append("_id", 0))))
+                .append("cursor", new Document()))
+                .append("verbosity", "queryPlanner");
+
+        //when
+        var plan = mongoTemplate.executeCommand(explain).toJson();
+
+        //then
+        Assertions.assertTrue(plan.contains("IXSCAN"), plan);
+        Assertions.assertFalse(plan.contains("COLLSCAN"), plan);
+    }
+
+    private WorkApplications work(String workGroupId, ApplicationStatus status, LocalDate appliedDate) {
+        return WorkApplications.builder()
+                .workUrl("url-" + workGroupId + "-" + status + "-" + appliedDate)
+                .workGroupId(workGroupId)
+                .status(status)
+                .appliedDate(appliedDate)
+                .build();
+    }
+
+    private WorkApplications onDomain(String domain, ApplicationStatus status) {
+        var application = work("1", status, LocalDate.of(2024, 5, 3));
+        application.setWorkUrl("https://" + domain + "/" + status);
+        application.setDomain(domain);
+        return application;
+    }
+}
@@ -0,0 +1,209 @@
+package io.github.mateuszuran.sisyphus_app.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mateuszuran.sisyphus_app.AbstractIntegrationTest;
+import io.github.mateuszuran.sisyphus_app.SisyphusAppApplication;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Uploads many multi-MB CVs at once to the servlet app running in its own JVM with a heap smaller than all uploads
+ * together, so it only passes when uploads stream into storage instead of being buffered whole.
+ * Run with {@code -Dloadtest=true}, optionally tuning {@code -Dloadtest.uploads}, {@code -Dloadtest.cv-size} and
+ * {@code -Dloadtest.heap}.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+public class UploadMemoryLoadTest extends AbstractIntegrationTest {
+    private static final int UPLOADS = Integer.getInteger("loadtest.uploads", 24);
+    private static final long CV_SIZE = DataSize.parse(System.getProperty("loadtest.cv-size", "4MB")).toBytes();
+    private static final DataSize HEAP = DataSize.parse(System.getProperty("loadtest.heap", "96MB"));
+    private static final String BOUNDARY = "upload-boundary";
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void givenSmallHeap_whenUploadManyLargeCvsAtOnce_thenStoreEveryOneWhole() throws Exception {
+        //given
+        Assertions.assertTrue(UPLOADS * CV_SIZE > HEAP.toBytes(), "the uploads together have to exceed the heap");
+        var run = UUID.randomUUID().toString();
+        var log = Files.createTempFile("upload-memory", ".log");
+        int port = freePort();
+        var app = startApp(port, log);
+        try {
+            awaitStarted(app, port, log);
+
+            //when
+            var responses = IntStream.range(0, UPLOADS)
+                    .mapToObj(i -> httpClient.sendAsync(upload(port, run + "-" + i + ".pdf", i), HttpResponse.BodyHandlers.ofString()))
+                    .toList();
+            CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).get(5, TimeUnit.MINUTES);
+
+            //then
+            for (var response : responses) {
+                Assertions.assertEquals(200, response.get().statusCode(), response.get().body());
+            }
+            Assertions.assertTrue(app.isAlive(), "the app exited during the uploads");
+            Assertions.assertFalse(Files.readString(log).contains("OutOfMemoryError"));
+
+            var stored = storedCvSizes(port, run);
+            Assertions.assertEquals(UPLOADS, stored.size());
+            for (var cv : stored.entrySet()) {
+                Assertions.assertEquals(CV_SIZE, cv.getValue(), "recorded size of group " + cv.getKey());
+                Assertions.assertEquals(CV_SIZE, downloadedSize(port, cv.getKey()), "stored bytes of group " + cv.getKey());
+            }
+        } finally {
+            app.destroy();
+            app.waitFor(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private Process startApp(int port, Path log) throws IOException {
+        var java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        return new ProcessBuilder(java,
+                "-Xmx" + HEAP.toMegabytes() + "m",
+                "-XX:+ExitOnOutOfMemoryError",
+                "-cp", System.getProperty("java.class.path"),
+                SisyphusAppApplication.class.getName(),
+                "--server.port=" + port,
+                "--spring.data.mongodb.uri=" + mongoUri())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+    }
+
+    private void awaitStarted(Process app, int port, Path log) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofMinutes(2).toNanos();
+        while (System.nanoTime() < deadline) {
+            Assertions.assertTrue(app.isAlive(), () -> "the app did not start: " + readLog(log));
+            try {
+                var response = httpClient.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health")).build(),
+                        HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(500);
+        }
+        Assertions.fail("the app did not start in time: " + readLog(log));
+    }
+
+    /**
+     * A multipart request whose CV is generated while it is sent, so the test JVM does not hold the uploads either.
+     */
+    private HttpRequest upload(int port, String fileName, int seed) {
+        var head = ("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"cv\"; filename=\"" + fileName + "\"\r\n"
+                + "Content-Type: application/pdf\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+        var tail = ("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/group/create"))
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .POST(HttpRequest.BodyPublishers.fromPublisher(HttpRequest.BodyPublishers.ofInputStream(() -> new SequenceInputStream(
+                        new SequenceInputStream(new ByteArrayInputStream(head), new GeneratedPdf(seed, CV_SIZE)),
+                        new ByteArrayInputStream(tail))), head.length + CV_SIZE + tail.length))
+                .build();
+    }
+
+    private Map<String, Long> storedCvSizes(int port, String run) throws Exception {
+        var response = httpClient.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/group/summary")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        Map<String, Long> sizes = new HashMap<>();
+        for (JsonNode summary : objectMapper.readTree(response.body())) {
+            if (summary.path("cvFileName").asText().startsWith(run)) {
+                sizes.put(summary.get("id").asText(), summary.get("cvSize").asLong());
+            }
+        }
+        return sizes;
+    }
+
+    private long downloadedSize(int port, String groupId) throws Exception {
+        var response = httpClient.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/group/" + groupId + "/cv")).build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            Assertions.assertEquals(200, response.statusCode());
+            return body.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static String readLog(Path log) {
+        try {
+            List<String> lines = Files.readAllLines(log);
+            return String.join("\n", lines.subList(Math.max(0, lines.size() - 50), lines.size()));
+        } catch (IOException e) {
+            return e.toString();
+        }
+    }
+
+    /**
+     * A PDF header followed by seeded random bytes, generated on read.
+     */
+    private static class GeneratedPdf extends InputStream {
+        private static final byte[] HEADER = "%PDF-1.4\n".getBytes(StandardCharsets.US_ASCII);
+
+        private final Random random;
+        private final long size;
+        private long position;
+
+        GeneratedPdf(int seed, long size) {
+            this.random = new Random(seed);
+            this.size = size;
+        }
+
+        @Override
+        public int read() {
+            if (position >= size) {
+                return -1;
+            }
+            int value = position < HEADER.length ? HEADER[(int) position] : random.nextInt(256);
+            position++;
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (position >= size) {
+                return -1;
+            }
+            int count = (int) Math.min(length, size - position);
+            for (int i = 0; i < count; i++) {
+                buffer[offset + i] = (byte) read();
+            }
+            return count;
+        }
+    }
+}
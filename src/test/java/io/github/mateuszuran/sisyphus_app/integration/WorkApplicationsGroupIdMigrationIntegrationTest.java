@@ -0,0 +1,58 @@
+package io.github.mateuszuran.sisyphus_app.integration;
+
+import io.github.mateuszuran.sisyphus_app.AbstractIntegrationTest;
+import io.github.mateuszuran.sisyphus_app.SisyphusAppApplication;
+import io.github.mateuszuran.sisyphus_app.migration.WorkApplicationsGroupIdMigration;
+import io.github.mateuszuran.sisyphus_app.model.ApplicationStatus;
+import io.github.mateuszuran.sisyphus_app.model.WorkApplications;
+import io.github.mateuszuran.sisyphus_app.model.WorkGroup;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepository;
+import io.github.mateuszuran.sisyphus_app.repository.WorkGroupRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@SpringBootTest(classes = SisyphusAppApplication.class, properties = "sisyphus.migration.enabled=true")
+public class WorkApplicationsGroupIdMigrationIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private WorkGroupRepository groupRepository;
+    @Autowired
+    private WorkApplicationsRepository applicationsRepository;
+    @Autowired
+    private WorkApplicationsGroupIdMigration migration;
+
+    @BeforeEach
+    public void setUp() {
+        applicationsRepository.deleteAll();
+        groupRepository.deleteAll();
+    }
+
+    @Test
+    void givenApplicationsWithoutGroupId_whenMigrate_thenBackfillOwningGroup() {
+        //given
+        var work1 = WorkApplications.builder().workUrl("url1").status(ApplicationStatus.SEND).build();
+        var work2 = WorkApplications.builder().workUrl("url2").status(ApplicationStatus.DENIED).build();
+        var orphan = WorkApplications.builder().workUrl("url3").status(ApplicationStatus.SEND).build();
+        applicationsRepository.saveAll(List.of(work1, work2, orphan));
+
+        var group = groupRepository.save(WorkGroup.builder()
+                .creationTime(Instant.now())
+                .workApplications(new ArrayList<>(List.of(work1, work2)))
+                .build());
+
+        //when
+        migration.run(null);
+
+        //then
+        Assertions.assertEquals(group.getId(), applicationsRepository.findById(work1.getId()).orElseThrow().getWorkGroupId());
+        Assertions.assertEquals(group.getId(), applicationsRepository.findById(work2.getId()).orElseThrow().getWorkGroupId());
+        Assertions.assertNull(applicationsRepository.findById(orphan.getId()).orElseThrow().getWorkGroupId());
+    }
+}
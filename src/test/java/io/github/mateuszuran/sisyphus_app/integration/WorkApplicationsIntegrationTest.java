@@ -2,12 +2,21 @@ package io.github.mateuszuran.sisyphus_app.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.mateuszuran.sisyphus_app.AbstractIntegrationTest;
+import io.github.mateuszuran.sisyphus_app.cache.WorkGroupCache;
+import io.github.mateuszuran.sisyphus_app.MongoCommandCounter;
 import io.github.mateuszuran.sisyphus_app.SisyphusAppApplication;
+import io.github.mateuszuran.sisyphus_app.dto.ApplicationStatusChangeDTO;
+import io.github.mateuszuran.sisyphus_app.dto.WorkApplicationDTO;
 import io.github.mateuszuran.sisyphus_app.model.ApplicationStatus;
 import io.github.mateuszuran.sisyphus_app.model.WorkApplications;
 import io.github.mateuszuran.sisyphus_app.model.WorkGroup;
 import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepository;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepositoryCustom.StatusChange;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepositoryCustom.StatusChangeOutcome;
 import io.github.mateuszuran.sisyphus_app.repository.WorkGroupRepository;
+import io.github.mateuszuran.sisyphus_app.util.CursorPagination;
+import io.github.mateuszuran.sisyphus_app.util.WorkUrlNormalizer;
+import io.github.mateuszuran.sisyphus_app.util.WorkUrlParts;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,19 +24,25 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @Slf4j
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, classes = SisyphusAppApplication.class)
 @AutoConfigureMockMvc
+@Import(MongoCommandCounter.Config.class)
 public class WorkApplicationsIntegrationTest extends AbstractIntegrationTest {
 
     @Autowired
@@ -41,16 +56,22 @@ public class WorkApplicationsIntegrationTest extends AbstractIntegrationTest {
     @Autowired
     private WorkApplicationsRepository applicationsRepository;
 
+    @Autowired
+    private MongoCommandCounter commandCounter;
+    @Autowired
+    private WorkGroupCache workGroupCache;
+
     @BeforeEach
     public void setUp() throws Exception {
         applicationsRepository.deleteAll();
         groupRepository.deleteAll();
+        workGroupCache.evictAll();
     }
 
     @Test
     void givenWorkGroupId_whenGetAllApplications_thenReturnListOfWorkApplications() throws Exception {
         //given
-        WorkGroup group = WorkGroup.builder().creationTime("today").build();
+        WorkGroup group = WorkGroup.builder().creationTime(Instant.now()).build();
         WorkGroup savedWorkGroup = groupRepository.save(group);
 
         WorkApplications app1 = WorkApplications.builder().workUrl("url1").build();
@@ -70,10 +91,149 @@ public class WorkApplicationsIntegrationTest extends AbstractIntegrationTest {
 
     }
 
+    @Test
+    void givenGroupWithManyApplications_whenGetAll_thenResolveReferencesWithSingleCommand() throws Exception {
+        //given
+        var group = groupRepository.save(WorkGroup.builder().creationTime(Instant.now()).build());
+        var works = new ArrayList<WorkApplications>();
+        for (int i = 0; i < 20; i++) {
+            works.add(WorkApplications.builder().workUrl("url" + i).status(ApplicationStatus.SEND).workGroupId(group.getId()).build());
+        }
+        group.setWorkApplications(applicationsRepository.saveAll(works));
+        groupRepository.save(group);
+        commandCounter.reset();
+
+        //when
+        mockMvc.perform(get("/applications/all/" + group.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(20))
+                .andExpect(jsonPath("$.[0].workUrl").value("url0"))
+                .andExpect(jsonPath("$.[19].workUrl").value("url19"));
+
+        //then
+        Assertions.assertEquals(1, commandCounter.count("aggregate", "work_group"));
+        Assertions.assertEquals(0, commandCounter.count("find", "work_applications"));
+        Assertions.assertEquals(1, commandCounter.count());
+    }
+
+    @Test
+    void givenManyApplications_whenGetPages_thenFollowNextCursorUntilExhausted() throws Exception {
+        //given
+        var group = groupRepository.save(WorkGroup.builder().creationTime(Instant.now()).build());
+        var works = new ArrayList<WorkApplications>();
+        for (int i = 0; i < 5; i++) {
+            works.add(WorkApplications.builder().workUrl("url" + i).status(ApplicationStatus.SEND).workGroupId(group.getId()).build());
+        }
+        applicationsRepository.saveAll(works);
+        applicationsRepository.save(WorkApplications.builder().workUrl("other_group_url").workGroupId("other").build());
+
+        //when
+        var firstPage = mockMvc.perform(get("/applications/all/" + group.getId()).param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$.[0].workUrl").value("url0"))
+                .andReturn().getResponse();
+        var cursor = firstPage.getHeader(CursorPagination.NEXT_CURSOR_HEADER);
+
+        //then
+        Assertions.assertEquals(works.get(2).getId(), cursor);
+        mockMvc.perform(get("/applications/all/" + group.getId()).param("limit", "3").param("after", cursor))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(CursorPagination.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$.[0].workUrl").value("url3"))
+                .andExpect(jsonPath("$.[1].workUrl").value("url4"));
+    }
+
+    @Test
+    void givenApplicationsOfManyDays_whenGetAppliedBetween_thenReturnOnlyThoseInRangeOrderedByDate() throws Exception {
+        //given
+        applicationsRepository.saveAll(List.of(
+                WorkApplications.builder().workUrl("url3").appliedDate(LocalDate.of(2024, 5, 31)).workGroupId("1").build(),
+                WorkApplications.builder().workUrl("url1").appliedDate(LocalDate.of(2024, 4, 30)).workGroupId("1").build(),
+                WorkApplications.builder().workUrl("url2").appliedDate(LocalDate.of(2024, 5, 1)).workGroupId("2").build(),
+                WorkApplications.builder().workUrl("url4").appliedDate(LocalDate.of(2024, 6, 1)).workGroupId("2").build()));
+
+        //when + then
+        mockMvc.perform(get("/applications/applied").param("from", "2024-05-01").param("to", "2024-05-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$.[0].workUrl").value("url2"))
+                .andExpect(jsonPath("$.[0].appliedDate").value("01-05-2024"))
+                .andExpect(jsonPath("$.[1].workUrl").value("url3"));
+    }
+
+    @Test
+    void givenFiltersAndDateOrder_whenGetPages_thenReturnMatchingApplicationsNewestFirst() throws Exception {
+        //given
+        var group = groupRepository.save(WorkGroup.builder().creationTime(Instant.now()).build());
+        applicationsRepository.saveAll(List.of(
+                work(group.getId(), "https://example.com/jobs/1", ApplicationStatus.SEND, LocalDate.of(2024, 5, 1)),
+                work(group.getId(), "https://jobs.example.com/2", ApplicationStatus.DENIED, LocalDate.of(2024, 5, 3)),
+                work(group.getId(), "https://example.com/jobs/3", ApplicationStatus.SEND, LocalDate.of(2024, 5, 3)),
+                work(group.getId(), "https://example.com/jobs/4", ApplicationStatus.HIRED, LocalDate.of(2024, 5, 4)),
+                work(group.getId(), "https://other.org/jobs/5", ApplicationStatus.SEND, LocalDate.of(2024, 5, 5)),
+                work("other", "https://example.com/jobs/6", ApplicationStatus.SEND, LocalDate.of(2024, 5, 6))));
+
+        //when
+        var firstPage = mockMvc.perform(get("/applications/all/" + group.getId())
+                        .param("status", "send,denied")
+                        .param("domain", "example.com")
+                        .param("sort", "-appliedDate")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$.[0].workUrl").value("https://example.com/jobs/3"))
+                .andExpect(jsonPath("$.[1].workUrl").value("https://jobs.example.com/2"))
+                .andReturn().getResponse();
+        var cursor = firstPage.getHeader(CursorPagination.NEXT_CURSOR_HEADER);
+
+        //then
+        mockMvc.perform(get("/applications/all/" + group.getId())
+                        .param("status", "send,denied")
+                        .param("domain", "example.com")
+                        .param("sort", "-appliedDate")
+                        .param("limit", "2")
+                        .param("after", cursor))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(CursorPagination.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$.[0].workUrl").value("https://example.com/jobs/1"));
+        mockMvc.perform(get("/applications/all/" + group.getId()).param("url", "JOBS/4").param("from", "2024-05-02").param("to", "2024-05-04"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$.[0].status").value("HIRED"));
+    }
+
+    @Test
+    void givenPostingsOnJobBoards_whenSearchByDomainAndWords_thenMatchSubdomainsAndPathWords() throws Exception {
+        //given
+        var group = groupRepository.save(WorkGroup.builder().creationTime(Instant.now()).build());
+        applicationsRepository.saveAll(List.of(
+                work(group.getId(), "https://pl.linkedin.com/jobs/view/senior-java-developer-3912345678", ApplicationStatus.SEND, LocalDate.of(2024, 5, 1)),
+                work(group.getId(), "https://www.linkedin.com/jobs/view/python-developer-3912345679", ApplicationStatus.SEND, LocalDate.of(2024, 5, 2)),
+                work(group.getId(), "https://justjoin.it/offers/acme-java-developer", ApplicationStatus.SEND, LocalDate.of(2024, 5, 3)),
+                work("other", "https://www.linkedin.com/jobs/view/java-developer-3912345670", ApplicationStatus.SEND, LocalDate.of(2024, 5, 4))));
+
+        //when + then
+        mockMvc.perform(get("/applications/all/" + group.getId()).param("domain", "www.LinkedIn.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+        mockMvc.perform(get("/applications/all/" + group.getId()).param("q", "java"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$.[0].domain").value("linkedin.com"))
+                .andExpect(jsonPath("$.[1].domain").value("justjoin.it"));
+        mockMvc.perform(get("/applications/all/" + group.getId()).param("q", "java").param("domain", "linkedin.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$.[0].postingKey").value("linkedin.com:3912345678"));
+    }
+
     @Test
     void givenListOfWorkApplicationsAndWorkGroupId_whenSave_thenReturnStatusCreated() throws Exception {
         //given
-        WorkGroup group = WorkGroup.builder().creationTime("tomorrow").build();
+        WorkGroup group = WorkGroup.builder().creationTime(Instant.now()).build();
         var savedGroup = groupRepository.save(group);
 
         WorkApplications work = WorkApplications.builder().workUrl("work_url").build();
@@ -99,6 +259,37 @@ public class WorkApplicationsIntegrationTest extends AbstractIntegrationTest {
         Assertions.assertEquals(groupResult.getSend(), 1);
     }
 
+    @Test
+    void givenDuplicatedPostings_whenSaveTwice_thenInsertOnceAndReportSkipped() throws Exception {
+        //given
+        var group = groupRepository.save(WorkGroup.builder().creationTime(Instant.now()).build());
+        var works = List.of(
+                WorkApplicationDTO.builder().workUrl("https://www.example.com/jobs/1?utm_source=mail").build(),
+                WorkApplicationDTO.builder().workUrl("https://example.com/jobs/1/").build(),
+                WorkApplicationDTO.builder().workUrl("https://example.com/jobs/2").build());
+
+        //when
+        mockMvc.perform(post("/applications/save/" + group.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(works)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.inserted").value(2))
+                .andExpect(jsonPath("$.skipped").value(1));
+
+        mockMvc.perform(post("/applications/save/" + group.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(works)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.inserted").value(0))
+                .andExpect(jsonPath("$.skipped").value(3));
+
+        //then
+        var updatedGroup = groupRepository.findById(group.getId()).orElseThrow();
+        Assertions.assertEquals(2, applicationsRepository.count());
+        Assertions.assertEquals(2, updatedGroup.getSend());
+        Assertions.assertEquals(2, updatedGroup.getWorkApplications().size());
+    }
+
     @Test
     void givenWorkApplication_whenDelete_thenReturnStatus() throws Exception {
         //given
@@ -107,8 +298,7 @@ public class WorkApplicationsIntegrationTest extends AbstractIntegrationTest {
         applicationsRepository.saveAll(List.of(work1, work2));
 
         WorkGroup group = WorkGroup.builder()
-                .cvData(null)
-                .creationTime("today")
+                .creationTime(Instant.now())
                 .send(15)
                 .denied(4)
                 .inProgress(12)
@@ -116,6 +306,8 @@ public class WorkApplicationsIntegrationTest extends AbstractIntegrationTest {
                 .build();
         group.getWorkApplications().addAll(List.of(work1, work2));
         groupRepository.save(group);
+        work1.setWorkGroupId(group.getId());
+        applicationsRepository.save(work1);
 
         //when
         mockMvc.perform(delete("/applications/delete/" + work1.getId()))
@@ -136,8 +328,7 @@ public class WorkApplicationsIntegrationTest extends AbstractIntegrationTest {
         applicationsRepository.save(work1);
 
         WorkGroup group = WorkGroup.builder()
-                .cvData(null)
-                .creationTime("today")
+                .creationTime(Instant.now())
                 .send(15)
                 .denied(4)
                 .inProgress(12)
@@ -145,6 +336,8 @@ public class WorkApplicationsIntegrationTest extends AbstractIntegrationTest {
                 .build();
         group.getWorkApplications().add(work1);
         var savedGroup = groupRepository.save(group);
+        work1.setWorkGroupId(savedGroup.getId());
+        applicationsRepository.save(work1);
 
         //when
         mockMvc.perform(patch("/applications/update/" + work1.getId() + "/" + newStatus))
@@ -166,8 +359,7 @@ public class WorkApplicationsIntegrationTest extends AbstractIntegrationTest {
         applicationsRepository.save(work1);
 
         WorkGroup group = WorkGroup.builder()
-                .cvData(null)
-                .creationTime("today")
+                .creationTime(Instant.now())
                 .send(15)
                 .denied(4)
                 .inProgress(12)
@@ -176,6 +368,8 @@ public class WorkApplicationsIntegrationTest extends AbstractIntegrationTest {
                 .build();
         group.getWorkApplications().add(work1);
         var savedGroup = groupRepository.save(group);
+        work1.setWorkGroupId(savedGroup.getId());
+        applicationsRepository.save(work1);
 
         //when
         mockMvc.perform(patch("/applications/update/" + work1.getId() + "/" + newStatus))
@@ -198,8 +392,7 @@ public class WorkApplicationsIntegrationTest extends AbstractIntegrationTest {
         applicationsRepository.save(work1);
 
         WorkGroup group = WorkGroup.builder()
-                .cvData(null)
-                .creationTime("today")
+                .creationTime(Instant.now())
                 .send(15)
                 .denied(4)
                 .inProgress(12)
@@ -208,6 +401,8 @@ public class WorkApplicationsIntegrationTest extends AbstractIntegrationTest {
                 .build();
         group.getWorkApplications().add(work1);
         var savedGroup = groupRepository.save(group);
+        work1.setWorkGroupId(savedGroup.getId());
+        applicationsRepository.save(work1);
 
         //when
         mockMvc.perform(patch("/applications/update/" + work1.getId() + "/" + newStatus))
@@ -221,4 +416,155 @@ public class WorkApplicationsIntegrationTest extends AbstractIntegrationTest {
         Assertions.assertEquals(updatedGroup.getSend(), 15);
         Assertions.assertFalse(updatedGroup.isHired());
     }
+
+    @Test
+    void givenManyWorkGroups_whenUpdateStatus_thenIssueConstantNumberOfMongoCommands() throws Exception {
+        //given
+        for (int i = 0; i < 20; i++) {
+            var otherWork = applicationsRepository.save(WorkApplications.builder().workUrl("other_url" + i).status(ApplicationStatus.SEND).build());
+            groupRepository.save(WorkGroup.builder().creationTime(Instant.now()).workApplications(new ArrayList<>(List.of(otherWork))).build());
+        }
+        var group = groupRepository.save(WorkGroup.builder().creationTime(Instant.now()).send(1).workApplications(new ArrayList<>()).build());
+        var work = applicationsRepository.save(WorkApplications.builder()
+                .workUrl("work_url")
+                .status(ApplicationStatus.SEND)
+                .workGroupId(group.getId())
+                .build());
+        group.getWorkApplications().add(work);
+        groupRepository.save(group);
+        commandCounter.reset();
+
+        //when
+        mockMvc.perform(patch("/applications/update/" + work.getId() + "/denied"))
+                .andExpect(status().isOk());
+
+        //then
+        log.info("Commands issued for status update: {}", commandCounter.getCommands());
+        Assertions.assertEquals(0, commandCounter.count("find", "work_group"));
+        Assertions.assertEquals(1, commandCounter.count("update", "work_group"));
+        Assertions.assertEquals(3, commandCounter.count());
+    }
+
+    @Test
+    void givenStatusChangesForManyApplications_whenBulkUpdate_thenUpdateStatusesAndCountersPerGroup() throws Exception {
+        //given
+        var firstGroup = groupRepository.save(WorkGroup.builder().creationTime(Instant.now()).send(2).build());
+        var secondGroup = groupRepository.save(WorkGroup.builder().creationTime(Instant.now()).send(1).inProgress(1).build());
+        var work1 = WorkApplications.builder().workUrl("url1").status(ApplicationStatus.SEND).workGroupId(firstGroup.getId()).build();
+        var work2 = WorkApplications.builder().workUrl("url2").status(ApplicationStatus.SEND).workGroupId(firstGroup.getId()).build();
+        var work3 = WorkApplications.builder().workUrl("url3").status(ApplicationStatus.SEND).workGroupId(secondGroup.getId()).build();
+        var work4 = WorkApplications.builder().workUrl("url4").status(ApplicationStatus.IN_PROGRESS).workGroupId(secondGroup.getId()).build();
+        applicationsRepository.saveAll(List.of(work1, work2, work3, work4));
+
+        var changes = List.of(
+                ApplicationStatusChangeDTO.builder().applicationId(work1.getId()).status("denied").build(),
+                ApplicationStatusChangeDTO.builder().applicationId(work2.getId()).status("denied").build(),
+                ApplicationStatusChangeDTO.builder().applicationId(work3.getId()).status("in_progress").build(),
+                ApplicationStatusChangeDTO.builder().applicationId(work4.getId()).status("in_progress").build(),
+                ApplicationStatusChangeDTO.builder().applicationId("665f1c2a9b1e8a3d4c5b6a7f").status("denied").build());
+
+        //when
+        mockMvc.perform(patch("/applications/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(changes)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].outcome").value("UPDATED"))
+                .andExpect(jsonPath("$.[1].outcome").value("UPDATED"))
+                .andExpect(jsonPath("$.[2].outcome").value("UPDATED"))
+                .andExpect(jsonPath("$.[3].outcome").value("UNCHANGED"))
+                .andExpect(jsonPath("$.[4].outcome").value("NOT_FOUND"));
+
+        //then
+        Assertions.assertEquals(ApplicationStatus.DENIED, applicationsRepository.findById(work2.getId()).orElseThrow().getStatus());
+        Assertions.assertEquals(4, applicationsRepository.count());
+
+        var updatedFirstGroup = groupRepository.findById(firstGroup.getId()).orElseThrow();
+        Assertions.assertEquals(0, updatedFirstGroup.getSend());
+        Assertions.assertEquals(2, updatedFirstGroup.getDenied());
+
+        var updatedSecondGroup = groupRepository.findById(secondGroup.getId()).orElseThrow();
+        Assertions.assertEquals(0, updatedSecondGroup.getSend());
+        Assertions.assertEquals(2, updatedSecondGroup.getInProgress());
+    }
+
+    @Test
+    void givenApplicationsChangedOrDeletedMeanwhile_whenBulkCompareAndSet_thenReportEachWithoutCreatingDocuments() {
+        //given
+        var applied = WorkApplications.builder().workUrl("url1").status(ApplicationStatus.SEND).workGroupId("123").build();
+        var sameStatus = WorkApplications.builder().workUrl("url2").status(ApplicationStatus.DENIED).workGroupId("123").build();
+        var otherStatus = WorkApplications.builder().workUrl("url3").status(ApplicationStatus.HIRED).workGroupId("123").build();
+        applicationsRepository.saveAll(List.of(applied, sameStatus, otherStatus));
+        String deletedId = "665f1c2a9b1e8a3d4c5b6a7f";
+
+        //when
+        var outcomes = applicationsRepository.bulkCompareAndSetStatus(List.of(
+                new StatusChange(applied.getId(), ApplicationStatus.SEND, ApplicationStatus.DENIED),
+                new StatusChange(sameStatus.getId(), ApplicationStatus.SEND, ApplicationStatus.DENIED),
+                new StatusChange(otherStatus.getId(), ApplicationStatus.SEND, ApplicationStatus.DENIED),
+                new StatusChange(deletedId, ApplicationStatus.SEND, ApplicationStatus.DENIED)));
+
+        //then
+        Assertions.assertEquals(List.of(StatusChangeOutcome.APPLIED, StatusChangeOutcome.UNCHANGED, StatusChangeOutcome.CONFLICT,
+                StatusChangeOutcome.NOT_FOUND), outcomes);
+        Assertions.assertEquals(ApplicationStatus.DENIED, applicationsRepository.findById(applied.getId()).orElseThrow().getStatus());
+        Assertions.assertEquals(ApplicationStatus.HIRED, applicationsRepository.findById(otherStatus.getId()).orElseThrow().getStatus());
+        Assertions.assertFalse(applicationsRepository.existsById(deletedId));
+        Assertions.assertEquals(3, applicationsRepository.count());
+    }
+
+    @Test
+    void givenManyThreads_whenUpdateStatusesConcurrently_thenWorkGroupCountersMatchApplications() throws Exception {
+        //given
+        int applicationsCount = 30;
+        var group = groupRepository.save(WorkGroup.builder().creationTime(Instant.now()).send(applicationsCount).workApplications(new ArrayList<>()).build());
+        var works = new ArrayList<WorkApplications>();
+        for (int i = 0; i < applicationsCount; i++) {
+            works.add(WorkApplications.builder().workUrl("work_url" + i).status(ApplicationStatus.SEND).workGroupId(group.getId()).build());
+        }
+        applicationsRepository.saveAll(works);
+
+        var statuses = List.of("send", "in_progress", "denied");
+        var executor = Executors.newFixedThreadPool(8);
+        var tasks = new ArrayList<Callable<Void>>();
+        for (int thread = 0; thread < 8; thread++) {
+            var random = new Random(thread);
+            tasks.add(() -> {
+                for (int i = 0; i < 50; i++) {
+                    var work = works.get(random.nextInt(applicationsCount));
+                    var newStatus = statuses.get(random.nextInt(statuses.size()));
+                    mockMvc.perform(patch("/applications/update/" + work.getId() + "/" + newStatus))
+                            .andExpect(status().isOk());
+                }
+                return null;
+            });
+        }
+
+        //when
+        for (var result : executor.invokeAll(tasks)) {
+            result.get();
+        }
+        executor.shutdown();
+
+        //then
+        var savedWorks = applicationsRepository.findAll();
+        var updatedGroup = groupRepository.findById(group.getId()).orElseThrow();
+        Assertions.assertEquals(savedWorks.stream().filter(w -> w.getStatus() == ApplicationStatus.SEND).count(), updatedGroup.getSend());
+        Assertions.assertEquals(savedWorks.stream().filter(w -> w.getStatus() == ApplicationStatus.IN_PROGRESS).count(), updatedGroup.getInProgress());
+        Assertions.assertEquals(savedWorks.stream().filter(w -> w.getStatus() == ApplicationStatus.DENIED).count(), updatedGroup.getDenied());
+    }
+
+    private WorkApplications work(String workGroupId, String workUrl, ApplicationStatus status, LocalDate appliedDate) {
+        var urlParts = WorkUrlParts.of(workUrl);
+        return WorkApplications.builder()
+                .workUrl(workUrl)
+                .normalizedWorkUrl(WorkUrlNormalizer.normalize(workUrl))
+                .host(urlParts.host())
+                .domain(urlParts.domain())
+                .postingKey(urlParts.postingKey())
+                .urlKeywords(urlParts.keywords())
+                .status(status)
+                .appliedDate(appliedDate)
+                .workGroupId(workGroupId)
+                .build();
+    }
 }
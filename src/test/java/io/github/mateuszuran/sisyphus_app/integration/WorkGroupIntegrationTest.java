@@ -2,29 +2,37 @@ package io.github.mateuszuran.sisyphus_app.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.mateuszuran.sisyphus_app.AbstractIntegrationTest;
+import io.github.mateuszuran.sisyphus_app.cache.WorkGroupCache;
 import io.github.mateuszuran.sisyphus_app.SisyphusAppApplication;
+import io.github.mateuszuran.sisyphus_app.model.CvBlob;
 import io.github.mateuszuran.sisyphus_app.model.WorkGroup;
 import io.github.mateuszuran.sisyphus_app.repository.WorkGroupRepository;
-import org.bson.types.Binary;
+import io.github.mateuszuran.sisyphus_app.storage.CvStorage;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 
 @SpringBootTest(
@@ -32,6 +40,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
         classes = SisyphusAppApplication.class)
 @AutoConfigureMockMvc
 public class WorkGroupIntegrationTest extends AbstractIntegrationTest {
+    private static final Instant CREATED = Instant.parse("2024-05-01T10:15:30Z");
 
     @Autowired
     private MockMvc mockMvc;
@@ -40,10 +49,18 @@ public class WorkGroupIntegrationTest extends AbstractIntegrationTest {
 
     @Autowired
     private WorkGroupRepository repository;
+    @Autowired
+    private CvStorage cvStorage;
+    @Autowired
+    private WorkGroupCache workGroupCache;
+    @Autowired
+    private MongoTemplate mongoTemplate;
 
     @BeforeEach
     public void setUp() throws Exception {
         repository.deleteAll();
+        mongoTemplate.remove(new Query(), CvBlob.class);
+        workGroupCache.evictAll();
     }
 
     @Test
@@ -52,7 +69,7 @@ public class WorkGroupIntegrationTest extends AbstractIntegrationTest {
                 "cv",
                 "cv.pdf",
                 MediaType.APPLICATION_PDF_VALUE,
-                "sample content".getBytes()
+                "%PDF-1.4 sample content".getBytes()
         );
 
         mockMvc.perform(MockMvcRequestBuilders.multipart("/group/create")
@@ -62,35 +79,108 @@ public class WorkGroupIntegrationTest extends AbstractIntegrationTest {
 
         Assertions.assertNotNull(groups);
         Assertions.assertEquals(groups.get(0).getSend(), 0);
+        Assertions.assertEquals(file.getSize(), groups.get(0).getCvSize());
+        try (var storedCv = cvStorage.load(groups.get(0).getCvFileId()).getInputStream()) {
+            Assertions.assertArrayEquals(file.getBytes(), storedCv.readAllBytes());
+        }
+    }
+
+    @Test
+    void givenNonPdfOrOversizedFile_whenCreate_thenRejectWithoutStoringAnything() throws Exception {
+        //given
+        var notPdf = new MockMultipartFile("cv", "cv.pdf", MediaType.APPLICATION_PDF_VALUE, "plain text".getBytes());
+        var oversized = new MockMultipartFile("cv", "cv.pdf", MediaType.APPLICATION_PDF_VALUE,
+                Arrays.copyOf("%PDF-1.4\n".getBytes(), 6 * 1024 * 1024));
+
+        //when
+        //then
+        mockMvc.perform(MockMvcRequestBuilders.multipart("/group/create").file(notPdf))
+                .andExpect(status().isUnsupportedMediaType());
+        mockMvc.perform(MockMvcRequestBuilders.multipart("/group/create").file(oversized))
+                .andExpect(status().isPayloadTooLarge());
+        Assertions.assertTrue(repository.findAll().isEmpty());
+        Assertions.assertEquals(0, mongoTemplate.count(new Query(), CvBlob.class));
     }
 
     @Test
     void givenNothing_whenGetAllGroups_thenExpectListOfObjects() throws Exception {
-        var pdf = new Binary(fakePdf());
+        var pdf = fakePdf();
 
-        repository.save(WorkGroup.builder().cvData(pdf).creationTime("today").build());
+        repository.save(WorkGroup.builder().cvFileId(storeCv(pdf)).cvSize(pdf.length).creationTime(CREATED).build());
 
         mockMvc.perform(get("/group/all"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.[0].creationTime").value("today"));
+                .andExpect(jsonPath("$.[0].creationTime").value("01-05-2024"));
+    }
+
+    @Test
+    void givenGroupWithCv_whenGetSummaries_thenReturnCvSizeWithoutCvData() throws Exception {
+        var pdf = fakePdf();
+
+        repository.save(WorkGroup.builder().cvFileId(storeCv(pdf)).cvSize(pdf.length).cvFileName("cv.pdf").creationTime(CREATED).send(3).build());
+
+        mockMvc.perform(get("/group/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].cvFileName").value("cv.pdf"))
+                .andExpect(jsonPath("$.[0].cvSize").value(pdf.length))
+                .andExpect(jsonPath("$.[0].applied").value(3))
+                .andExpect(jsonPath("$.[0].cvData").doesNotExist());
+    }
+
+    @Test
+    void givenGroupsOfManyMonths_whenGetCreatedInMonth_thenReturnOnlyThatMonth() throws Exception {
+        repository.save(WorkGroup.builder().cvFileName("april.pdf").creationTime(Instant.parse("2024-04-30T23:59:59Z")).build());
+        repository.save(WorkGroup.builder().cvFileName("may.pdf").creationTime(CREATED).build());
+        repository.save(WorkGroup.builder().cvFileName("june.pdf").creationTime(Instant.parse("2024-06-01T00:00:00Z")).build());
+
+        mockMvc.perform(get("/group/created").param("month", "2024-05"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$.[0].cvFileName").value("may.pdf"))
+                .andExpect(jsonPath("$.[0].creationTime").value("01-05-2024"));
     }
 
     @Test
     void givenWorKGroup_whenGet_thenReturnSingleObject() throws Exception {
-        var pdf = new Binary(fakePdf());
+        var pdf = fakePdf();
 
-        WorkGroup group = WorkGroup.builder().cvData(pdf).creationTime("tomorrow").send(15).denied(4).inProgress(12).build();
+        WorkGroup group = WorkGroup.builder().cvFileId(storeCv(pdf)).cvSize(pdf.length).creationTime(CREATED).send(15).denied(4).inProgress(12).build();
         var savedWorkGroup = repository.save(group);
 
         mockMvc.perform(get("/group/single/" + savedWorkGroup.getId()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(savedWorkGroup.getId()))
-                .andExpect(jsonPath("$.creationTime").value("tomorrow"));
+                .andExpect(jsonPath("$.creationTime").value("01-05-2024"))
+                .andExpect(jsonPath("$.cvData").value(Base64.getEncoder().encodeToString(pdf)));
+    }
+
+    @Test
+    void givenUploadedCv_whenDownload_thenStreamRawPdfAndHonourETagAndRange() throws Exception {
+        var pdf = fakePdf();
+        mockMvc.perform(MockMvcRequestBuilders.multipart("/group/create")
+                        .file(new MockMultipartFile("cv", "LoremIpsum.pdf", MediaType.APPLICATION_PDF_VALUE, pdf)))
+                .andExpect(status().isOk());
+        var group = repository.findAll().get(0);
+
+        var etag = mockMvc.perform(get("/group/" + group.getId() + "/cv"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_PDF))
+                .andExpect(content().bytes(pdf))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Assertions.assertEquals("\"" + group.getCvHash() + "\"", etag);
+
+        mockMvc.perform(get("/group/" + group.getId() + "/cv").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get("/group/" + group.getId() + "/cv").header(HttpHeaders.RANGE, "bytes=0-9"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().bytes(Arrays.copyOfRange(pdf, 0, 10)));
     }
 
     @Test
     void givenWorkGroup_thenDelete_thenReturnStatusOk() throws Exception {
-        WorkGroup group = WorkGroup.builder().creationTime("tomorrow").send(15).denied(4).inProgress(12).build();
+        var cvFileId = storeCv(fakePdf());
+        WorkGroup group = WorkGroup.builder().cvFileId(cvFileId).creationTime(CREATED).send(15).denied(4).inProgress(12).build();
         var savedWorkGroup = repository.save(group);
 
         mockMvc.perform(delete("/group/delete/" + savedWorkGroup.getId()))
@@ -98,6 +188,11 @@ public class WorkGroupIntegrationTest extends AbstractIntegrationTest {
 
         Assertions.assertTrue(repository.findAll().isEmpty());
         Assertions.assertTrue(repository.findById(savedWorkGroup.getId()).isEmpty());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> cvStorage.load(cvFileId));
+    }
+
+    private String storeCv(byte[] pdf) {
+        return cvStorage.store(new ByteArrayInputStream(pdf), "cv.pdf", MediaType.APPLICATION_PDF_VALUE);
     }
 
     private byte[] fakePdf() throws IOException {
@@ -0,0 +1,55 @@
+package io.github.mateuszuran.sisyphus_app.integration;
+
+import io.github.mateuszuran.sisyphus_app.AbstractIntegrationTest;
+import io.github.mateuszuran.sisyphus_app.SisyphusAppApplication;
+import io.github.mateuszuran.sisyphus_app.migration.WorkUrlPartsMigration;
+import io.github.mateuszuran.sisyphus_app.model.ApplicationStatus;
+import io.github.mateuszuran.sisyphus_app.model.WorkApplications;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+@SpringBootTest(classes = SisyphusAppApplication.class, properties = "sisyphus.migration.enabled=true")
+public class WorkUrlPartsMigrationIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private WorkApplicationsRepository applicationsRepository;
+    @Autowired
+    private WorkUrlPartsMigration migration;
+
+    @BeforeEach
+    public void setUp() {
+        applicationsRepository.deleteAll();
+    }
+
+    @Test
+    void givenLegacyApplications_whenMigrate_thenBackfillUrlPartsAndNormalizedUrl() {
+        //given
+        var work = legacy("https://www.linkedin.com/jobs/view/3912345678/?utm_source=feed", "group-1");
+        var repeated = legacy("https://linkedin.com/jobs/view/3912345678", "group-1");
+        var otherGroup = legacy("https://linkedin.com/jobs/view/3912345678", "group-2");
+        applicationsRepository.saveAll(List.of(work, repeated, otherGroup));
+
+        //when
+        migration.run(null);
+
+        //then
+        var migrated = applicationsRepository.findAllById(List.of(work.getId(), repeated.getId(), otherGroup.getId()));
+        Assertions.assertTrue(migrated.stream().allMatch(application -> "linkedin.com:3912345678".equals(application.getPostingKey())));
+        // only one application per group keeps the posting's dedup key
+        Assertions.assertEquals(1, migrated.stream()
+                .filter(application -> application.getWorkGroupId().equals("group-1") && application.getNormalizedWorkUrl() != null)
+                .count());
+        Assertions.assertEquals("linkedin.com/jobs/view/3912345678",
+                applicationsRepository.findById(otherGroup.getId()).orElseThrow().getNormalizedWorkUrl());
+    }
+
+    private WorkApplications legacy(String workUrl, String workGroupId) {
+        return WorkApplications.builder().workUrl(workUrl).workGroupId(workGroupId).status(ApplicationStatus.SEND).build();
+    }
+}
@@ -0,0 +1,99 @@
+package io.github.mateuszuran.sisyphus_app.unit.cache;
+
+import io.github.mateuszuran.sisyphus_app.cache.WorkGroupCache;
+import io.github.mateuszuran.sisyphus_app.dto.WorkGroupDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkGroupCacheTest {
+    private WorkGroupCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new WorkGroupCache(new SimpleMeterRegistry(), 100, DataSize.ofMegabytes(1), Duration.ofMinutes(10));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void givenLoadedViews_whenGetAgain_thenServeFromCache() {
+        //given
+        cache.getViews(List.of("g1", "g2"), this::load);
+
+        //when
+        var views = cache.getViews(List.of("g1", "g2"), this::load);
+
+        //then
+        assertEquals(1, loads.get());
+        assertEquals(2, views.size());
+        assertEquals(1, views.get("g1").applied());
+    }
+
+    @Test
+    void givenGroupEvictedDuringLoad_whenGetViews_thenReturnButNotCacheLoadedView() throws Exception {
+        //given
+        var loading = new CountDownLatch(1);
+        var evicted = new CountDownLatch(1);
+        var reader = CompletableFuture.supplyAsync(() -> cache.getViews(List.of("g1", "g2"), ids -> {
+            loading.countDown();
+            await(evicted);
+            return load(ids);
+        }));
+
+        //when
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        cache.evict("g1");
+        evicted.countDown();
+        var firstRead = reader.get(5, TimeUnit.SECONDS);
+        var secondRead = cache.getViews(List.of("g1", "g2"), this::load);
+
+        //then
+        assertEquals(1, firstRead.get("g1").applied());
+        assertEquals(2, loads.get());
+        assertEquals(2, secondRead.get("g1").applied());
+        assertEquals(1, secondRead.get("g2").applied());
+    }
+
+    @Test
+    void givenViewLoadedBeforeEviction_whenEvict_thenLoadAgain() {
+        //given
+        cache.getView("g1", id -> view(id, loads.incrementAndGet()));
+
+        //when
+        cache.evict("g1");
+        var view = cache.getView("g1", id -> view(id, loads.incrementAndGet()));
+
+        //then
+        assertEquals(2, view.applied());
+    }
+
+    private Map<String, WorkGroupDTO> load(List<String> ids) {
+        int load = loads.incrementAndGet();
+        return ids.stream().collect(Collectors.toMap(id -> id, id -> view(id, load)));
+    }
+
+    private static WorkGroupDTO view(String id, int applied) {
+        return WorkGroupDTO.builder().id(id).applied(applied).build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.mateuszuran.sisyphus_app.unit.controller;
+
+import io.github.mateuszuran.sisyphus_app.controller.StatsController;
+import io.github.mateuszuran.sisyphus_app.dto.WorkStatsDTO;
+import io.github.mateuszuran.sisyphus_app.model.ApplicationStatus;
+import io.github.mateuszuran.sisyphus_app.service.StatsServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(StatsController.class)
+@AutoConfigureMockMvc
+class StatsControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockBean
+    StatsServiceImpl service;
+
+    @Test
+    void givenNothing_whenGetStats_thenReturnAggregatedStats() throws Exception {
+        //given
+        var stats = WorkStatsDTO.builder()
+                .total(3)
+                .byStatus(Map.of(ApplicationStatus.SEND, 2L, ApplicationStatus.HIRED, 1L))
+                .groups(List.of(WorkStatsDTO.GroupStats.builder().workGroupId("1").total(3).send(2).hired(1).conversionRate(1.0 / 3).build()))
+                .perMonth(List.of(new WorkStatsDTO.MonthlyCount("2024-06", 3)))
+                .build();
+        when(service.getStats()).thenReturn(stats);
+
+        //when + then
+        mockMvc.perform(get("/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.byStatus.SEND").value(2))
+                .andExpect(jsonPath("$.groups[0].workGroupId").value("1"))
+                .andExpect(jsonPath("$.perMonth[0].month").value("2024-06"));
+    }
+
+    @Test
+    void givenNothing_whenGetDomainStats_thenReturnCountsPerJobBoard() throws Exception {
+        //given
+        when(service.getDomainStats()).thenReturn(List.of(
+                WorkStatsDTO.DomainStats.builder().domain("linkedin.com").total(2).send(1).hired(1).conversionRate(0.5).build()));
+
+        //when + then
+        mockMvc.perform(get("/stats/domains"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].domain").value("linkedin.com"))
+                .andExpect(jsonPath("$[0].conversionRate").value(0.5));
+    }
+}
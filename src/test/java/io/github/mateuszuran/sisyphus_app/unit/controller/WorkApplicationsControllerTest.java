@@ -1,10 +1,14 @@
 package io.github.mateuszuran.sisyphus_app.unit.controller;
 
 import io.github.mateuszuran.sisyphus_app.controller.WorkApplicationsController;
+import io.github.mateuszuran.sisyphus_app.dto.ApplicationSearchDTO;
+import io.github.mateuszuran.sisyphus_app.dto.ApplicationStatusChangeResultDTO;
+import io.github.mateuszuran.sisyphus_app.dto.CursorPageDTO;
 import io.github.mateuszuran.sisyphus_app.model.ApplicationStatus;
 import io.github.mateuszuran.sisyphus_app.model.WorkApplications;
 import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepository;
 import io.github.mateuszuran.sisyphus_app.service.WorkApplicationsServiceImpl;
+import io.github.mateuszuran.sisyphus_app.util.CursorPagination;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,14 +18,15 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(WorkApplicationsController.class)
 @AutoConfigureMockMvc
@@ -65,6 +70,59 @@ class WorkApplicationsControllerTest {
                 .andExpect(jsonPath("$.[0].status").value("SEND"));
     }
 
+    @Test
+    void givenDateRange_whenGetApplied_thenReturnApplicationsWithDisplayDates() throws Exception {
+        //given
+        var from = LocalDate.of(2024, 5, 1);
+        var to = LocalDate.of(2024, 5, 31);
+        var work = WorkApplications.builder().workUrl("url1").appliedDate(LocalDate.of(2024, 5, 3)).build();
+        when(serviceImpl.getApplicationsAppliedBetween(from, to)).thenReturn(List.of(work));
+
+        //when + then
+        mockMvc.perform(get("/applications/applied").param("from", "2024-05-01").param("to", "2024-05-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].workUrl").value("url1"))
+                .andExpect(jsonPath("$.[0].appliedDate").value("03-05-2024"));
+    }
+
+    @Test
+    void givenLimit_whenGetApplications_thenReturnPageWithNextCursorHeader() throws Exception {
+        //given
+        String workGroupId = "1234";
+        var page = new CursorPageDTO<>(works.subList(0, 2), "665f1c2a9b1e8a3d4c5b6a7f");
+        when(serviceImpl.getApplicationsPageByWorkGroupId(workGroupId, 2, null)).thenReturn(page);
+
+        //when + then
+        mockMvc.perform(get("/applications/all/" + workGroupId).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CursorPagination.NEXT_CURSOR_HEADER, "665f1c2a9b1e8a3d4c5b6a7f"))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$.[1].workUrl").value("url2"));
+    }
+
+    @Test
+    void givenFilters_whenGetApplications_thenSearchWithBoundParameters() throws Exception {
+        //given
+        var search = ApplicationSearchDTO.builder()
+                .status(List.of("SEND", "DENIED"))
+                .from(LocalDate.of(2024, 5, 1))
+                .url("jobs")
+                .sort("-appliedDate")
+                .build();
+        when(serviceImpl.searchApplications("1234", search, 2, null)).thenReturn(new CursorPageDTO<>(works.subList(0, 2), "2024-05-01_665f1c2a9b1e8a3d4c5b6a7f"));
+
+        //when + then
+        mockMvc.perform(get("/applications/all/1234")
+                        .param("status", "SEND,DENIED")
+                        .param("from", "2024-05-01")
+                        .param("url", "jobs")
+                        .param("sort", "-appliedDate")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CursorPagination.NEXT_CURSOR_HEADER, "2024-05-01_665f1c2a9b1e8a3d4c5b6a7f"))
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
     @Test
     void givenWorkGroupIdAndApplicationsList_whenPost_thenCreateNewApplications() throws Exception {
         //given
@@ -99,4 +157,21 @@ class WorkApplicationsControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.status").value(newStatus.name()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenStatusChanges_whenPatch_thenReturnResultPerItem() throws Exception {
+        //given
+        var changesJson = "[{\"applicationId\":\"1\",\"status\":\"denied\"},{\"applicationId\":\"2\",\"status\":\"denied\"}]";
+        when(serviceImpl.updateApplicationStatuses(anyList())).thenReturn(List.of(
+                new ApplicationStatusChangeResultDTO("1", "denied", ApplicationStatusChangeResultDTO.Outcome.UPDATED),
+                new ApplicationStatusChangeResultDTO("2", "denied", ApplicationStatusChangeResultDTO.Outcome.NOT_FOUND)));
+
+        //when + then
+        mockMvc.perform(patch("/applications/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(changesJson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].outcome").value("UPDATED"))
+                .andExpect(jsonPath("$.[1].outcome").value("NOT_FOUND"));
+    }
+}
@@ -1,28 +1,39 @@
 package io.github.mateuszuran.sisyphus_app.unit.controller;
 
 import io.github.mateuszuran.sisyphus_app.controller.WorkGroupController;
+import io.github.mateuszuran.sisyphus_app.dto.CursorPageDTO;
 import io.github.mateuszuran.sisyphus_app.dto.WorkGroupDTO;
+import io.github.mateuszuran.sisyphus_app.dto.WorkGroupSummaryDTO;
 import io.github.mateuszuran.sisyphus_app.repository.WorkGroupRepository;
+import io.github.mateuszuran.sisyphus_app.service.CvRejectedException;
 import io.github.mateuszuran.sisyphus_app.service.WorkGroupServiceImpl;
+import io.github.mateuszuran.sisyphus_app.storage.CvResource;
+import io.github.mateuszuran.sisyphus_app.util.CursorPagination;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(WorkGroupController.class)
 @AutoConfigureMockMvc
@@ -58,6 +69,58 @@ class WorkGroupControllerTest {
                 .andExpect(jsonPath("$.[0].creationTime").value("date1"));
     }
 
+    @Test
+    void givenLastPage_whenGetWithLimit_thenOmitNextCursorHeader() throws Exception {
+        //given
+        when(service.getMappedWorkGroupsPage(5, "665f1c2a9b1e8a3d4c5b6a7f")).thenReturn(new CursorPageDTO<>(groupDTOS, null));
+
+        //when + then
+        mockMvc.perform(get("/group/all").param("limit", "5").param("after", "665f1c2a9b1e8a3d4c5b6a7f"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(CursorPagination.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$.length()").value(3));
+    }
+
+    @Test
+    void givenMalformedCursor_whenGetWithLimit_thenReturnBadRequest() throws Exception {
+        //given
+        when(service.getMappedWorkGroupsPage(5, "not-a-cursor")).thenAnswer(invocation -> {
+            CursorPagination.validateCursor(invocation.getArgument(1));
+            return new CursorPageDTO<>(groupDTOS, null);
+        });
+
+        //when + then
+        mockMvc.perform(get("/group/all").param("limit", "5").param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void givenNothing_whenGetSummaries_thenReturnGroupsWithoutCv() throws Exception {
+        //given
+        var summary = WorkGroupSummaryDTO.builder().id("1234").cvFileName("cv.pdf").cvSize(2048).creationTime("date1").applied(3).build();
+        when(service.getAllWorkGroupSummaries()).thenReturn(List.of(summary));
+
+        //when + then
+        mockMvc.perform(get("/group/summary"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].cvSize").value(2048))
+                .andExpect(jsonPath("$.[0].applied").value(3))
+                .andExpect(jsonPath("$.[0].cvData").doesNotExist());
+    }
+
+    @Test
+    void givenMonth_whenGetCreated_thenReturnSummariesOfThatMonth() throws Exception {
+        //given
+        var summary = WorkGroupSummaryDTO.builder().id("1234").creationTime("03-05-2024").build();
+        when(service.getWorkGroupSummariesCreatedIn(YearMonth.of(2024, 5))).thenReturn(List.of(summary));
+
+        //when + then
+        mockMvc.perform(get("/group/created").param("month", "2024-05"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].creationTime").value("03-05-2024"));
+    }
+
     @Test
     void givenPdfFile_whenAdd_thenCreateWorkGroupObject() throws Exception {
         //given
@@ -72,6 +135,17 @@ class WorkGroupControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void givenRejectedCv_whenAdd_thenReturnStatusOfRejection() throws Exception {
+        //given
+        MockMultipartFile file = new MockMultipartFile("cv", "cv.txt", MediaType.TEXT_PLAIN_VALUE, "CV".getBytes());
+        doThrow(CvRejectedException.notPdf()).when(service).createNewWorkGroup(any(MultipartFile.class));
+
+        //when + then
+        mockMvc.perform(multipart("/group/create").file(file))
+                .andExpect(status().isUnsupportedMediaType());
+    }
+
     @Test
     void givenWorkGroupId_whenGet_thenReturnSingleWorkGroup() throws Exception {
         //given
@@ -84,6 +158,52 @@ class WorkGroupControllerTest {
                 .andExpect(jsonPath("$.creationTime").value("date1"));
     }
 
+    @Test
+    void givenWorkGroupWithCv_whenGetCv_thenStreamPdfWithETag() throws Exception {
+        //given
+        when(service.getWorkGroupCv("1234")).thenReturn(Optional.of(cvResource()));
+
+        //when + then
+        mockMvc.perform(get("/group/{workGroupId}/cv", "1234"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_PDF))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"cv-hash\""))
+                .andExpect(content().bytes("CV-PDF".getBytes()));
+    }
+
+    @Test
+    void givenMatchingETag_whenGetCv_thenReturnNotModified() throws Exception {
+        //given
+        when(service.getWorkGroupCv("1234")).thenReturn(Optional.of(cvResource()));
+
+        //when + then
+        mockMvc.perform(get("/group/{workGroupId}/cv", "1234").header(HttpHeaders.IF_NONE_MATCH, "\"cv-hash\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void givenRangeHeader_whenGetCv_thenReturnPartialContent() throws Exception {
+        //given
+        when(service.getWorkGroupCv("1234")).thenReturn(Optional.of(cvResource()));
+
+        //when + then
+        mockMvc.perform(get("/group/{workGroupId}/cv", "1234").header(HttpHeaders.RANGE, "bytes=3-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 3-5/6"))
+                .andExpect(content().bytes("PDF".getBytes()));
+    }
+
+    @Test
+    void givenWorkGroupWithoutCv_whenGetCv_thenReturnNotFound() throws Exception {
+        //given
+        when(service.getWorkGroupCv("1234")).thenReturn(Optional.empty());
+
+        //when + then
+        mockMvc.perform(get("/group/{workGroupId}/cv", "1234"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void givenWorkGroupId_whenDelete_thenReturnStatus() throws Exception {
         //when + then
@@ -91,4 +211,8 @@ class WorkGroupControllerTest {
                 .andDo(print())
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    private CvResource cvResource() {
+        return new CvResource(new ByteArrayResource("CV-PDF".getBytes()), "cv.pdf", MediaType.APPLICATION_PDF_VALUE, "cv-hash");
+    }
+}
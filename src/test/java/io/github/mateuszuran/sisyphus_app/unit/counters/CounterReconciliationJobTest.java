@@ -0,0 +1,124 @@
+package io.github.mateuszuran.sisyphus_app.unit.counters;
+
+import io.github.mateuszuran.sisyphus_app.counters.CounterReconciliationJob;
+import io.github.mateuszuran.sisyphus_app.model.WorkGroup;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepository;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepositoryCustom.GroupStatusCounts;
+import io.github.mateuszuran.sisyphus_app.repository.WorkGroupRepository;
+import io.github.mateuszuran.sisyphus_app.repository.WorkGroupRepositoryCustom.GroupCounters;
+import io.github.mateuszuran.sisyphus_app.service.WorkGroupServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CounterReconciliationJobTest {
+
+    @Mock
+    WorkGroupRepository groupRepository;
+    @Mock
+    WorkApplicationsRepository applicationsRepository;
+    @Mock
+    WorkGroupServiceImpl groupService;
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    MongoTemplate mongoTemplate;
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    CounterReconciliationJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new CounterReconciliationJob(groupRepository, applicationsRepository, groupService, mongoTemplate, meterRegistry, 2);
+        when(mongoTemplate.getCollection(anyString()).find(any(Bson.class)).first()).thenReturn(null);
+    }
+
+    @Test
+    void givenDriftedGroup_whenReconcile_thenReplaceOnlyItsCounters() {
+        //given
+        var drifted = WorkGroup.builder().id("1").send(5).denied(0).inProgress(0).isHired(false).build();
+        var accurate = WorkGroup.builder().id("2").send(1).denied(1).inProgress(0).isHired(false).build();
+        when(groupRepository.findAllByOrderByIdAsc(Limit.of(2))).thenReturn(List.of(drifted, accurate));
+        when(groupRepository.findByIdGreaterThanOrderByIdAsc("2", Limit.of(2))).thenReturn(List.of());
+        when(applicationsRepository.countStatusesOfGroups(List.of("1", "2"))).thenReturn(List.of(
+                new GroupStatusCounts("1", 4, 3, 0, 0, 1),
+                new GroupStatusCounts("2", 2, 1, 0, 1, 0)));
+        when(groupRepository.replaceCounters("1", new GroupCounters(5, 0, 0, false), new GroupCounters(3, 0, 0, true))).thenReturn(true);
+
+        //when
+        var result = job.reconcile();
+
+        //then
+        assertEquals(2, result.checked());
+        assertEquals(1, result.corrected());
+        verify(groupRepository, never()).replaceCounters(eq("2"), any(), any());
+        verify(groupService).evictCachedGroup("1");
+        assertEquals(1, meterRegistry.get("sisyphus.counters.reconciliation.corrected").counter().count());
+        assertEquals(1, meterRegistry.get("sisyphus.counters.reconciliation.pass").timer().count());
+    }
+
+    @Test
+    void givenGroupWithoutApplications_whenReconcile_thenResetCountersToZero() {
+        //given
+        var group = WorkGroup.builder().id("1").send(2).isHired(true).build();
+        when(groupRepository.findAllByOrderByIdAsc(Limit.of(2))).thenReturn(List.of(group));
+        when(applicationsRepository.countStatusesOfGroups(List.of("1"))).thenReturn(List.of());
+        when(groupRepository.replaceCounters("1", new GroupCounters(2, 0, 0, true), new GroupCounters(0, 0, 0, false))).thenReturn(true);
+
+        //when
+        var result = job.reconcile();
+
+        //then
+        assertEquals(1, result.corrected());
+    }
+
+    @Test
+    void givenGroupChangedMeanwhile_whenReconcile_thenLeaveItForNextPass() {
+        //given
+        var group = WorkGroup.builder().id("1").send(2).build();
+        when(groupRepository.findAllByOrderByIdAsc(Limit.of(2))).thenReturn(List.of(group));
+        when(applicationsRepository.countStatusesOfGroups(List.of("1"))).thenReturn(List.of(new GroupStatusCounts("1", 1, 1, 0, 0, 0)));
+        when(groupRepository.replaceCounters(eq("1"), any(), any())).thenReturn(false);
+
+        //when
+        var result = job.reconcile();
+
+        //then
+        assertEquals(0, result.corrected());
+        verify(groupService, never()).evictCachedGroup(any());
+    }
+
+    @Test
+    void givenGroupWithApplicationsNotBackfilled_whenReconcile_thenSkipItInsteadOfResettingCounters() {
+        //given
+        var unlinked = WorkGroup.builder().id("1").send(3).build();
+        var linked = WorkGroup.builder().id("2").send(2).build();
+        when(groupRepository.findAllByOrderByIdAsc(Limit.of(2))).thenReturn(List.of(unlinked, linked));
+        when(groupRepository.findByIdGreaterThanOrderByIdAsc("2", Limit.of(2))).thenReturn(List.of());
+        when(groupRepository.findGroupsWithUnlinkedApplications(List.of("1", "2"))).thenReturn(Set.of("1"));
+        when(applicationsRepository.countStatusesOfGroups(List.of("2"))).thenReturn(List.of(new GroupStatusCounts("2", 2, 2, 0, 0, 0)));
+
+        //when
+        var result = job.reconcile();
+
+        //then
+        assertEquals(1, result.checked());
+        assertEquals(1, result.skipped());
+        assertEquals(0, result.corrected());
+        verify(groupRepository, never()).replaceCounters(any(), any(), any());
+    }
+}
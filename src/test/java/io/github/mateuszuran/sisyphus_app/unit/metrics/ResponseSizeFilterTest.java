@@ -0,0 +1,44 @@
+package io.github.mateuszuran.sisyphus_app.unit.metrics;
+
+import io.github.mateuszuran.sisyphus_app.metrics.ResponseSizeFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ResponseSizeFilterTest {
+
+    @Test
+    void givenBodyWrittenToStreamAndWriter_whenFilter_thenRecordBytesPerEndpoint() throws Exception {
+        //given
+        var registry = new SimpleMeterRegistry();
+        var filter = new ResponseSizeFilter(registry);
+        var request = new MockHttpServletRequest("GET", "/group/single/1");
+        var response = new MockHttpServletResponse();
+        response.setCharacterEncoding("UTF-8");
+
+        //when
+        filter.doFilter(request, response, (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/group/single/{workGroupId}");
+            res.getOutputStream().write(new byte[]{1, 2, 3});
+            res.getWriter().write("żółw");
+        });
+
+        //then
+        var summary = registry.get("sisyphus.http.response.size")
+                .tag("uri", "/group/single/{workGroupId}")
+                .tag("method", "GET")
+                .tag("status", "200")
+                .summary();
+        assertEquals(1, summary.count());
+        assertEquals(3 + "żółw".getBytes(StandardCharsets.UTF_8).length, summary.totalAmount());
+        assertArrayEquals(new byte[]{1, 2, 3}, Arrays.copyOf(response.getContentAsByteArray(), 3));
+    }
+}
@@ -0,0 +1,31 @@
+package io.github.mateuszuran.sisyphus_app.unit.migration;
+
+import io.github.mateuszuran.sisyphus_app.config.MongoIndexInitializer;
+import io.github.mateuszuran.sisyphus_app.migration.DateFieldsMigration;
+import io.github.mateuszuran.sisyphus_app.migration.InlineCvMigration;
+import io.github.mateuszuran.sisyphus_app.migration.WorkApplicationsGroupIdMigration;
+import io.github.mateuszuran.sisyphus_app.migration.WorkUrlPartsMigration;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class MigrationOrderTest {
+
+    @Test
+    void givenStartupRunners_whenSorted_thenBuildIndexesAndBackfillGroupIdBeforeUrlParts() {
+        //given
+        List<Class<?>> runners = new ArrayList<>(List.of(InlineCvMigration.class, WorkUrlPartsMigration.class,
+                WorkApplicationsGroupIdMigration.class, DateFieldsMigration.class, MongoIndexInitializer.class));
+
+        //when
+        AnnotationAwareOrderComparator.sort(runners);
+
+        //then
+        assertEquals(List.of(MongoIndexInitializer.class, DateFieldsMigration.class, WorkApplicationsGroupIdMigration.class,
+                WorkUrlPartsMigration.class, InlineCvMigration.class), runners);
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.mateuszuran.sisyphus_app.unit.reactive;
+
+import io.github.mateuszuran.sisyphus_app.model.WorkGroup;
+import io.github.mateuszuran.sisyphus_app.reactive.ReactiveWorkGroupController;
+import io.github.mateuszuran.sisyphus_app.reactive.ReactiveWorkGroupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveWorkGroupControllerTest {
+    private static final String HASH = "a".repeat(64);
+    private static final byte[] CV = "%PDF-1.4 sample".getBytes(StandardCharsets.US_ASCII);
+
+    @Mock
+    ReactiveWorkGroupService service;
+
+    WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = WebTestClient.bindToController(new ReactiveWorkGroupController(service)).build();
+        when(service.getWorkGroup("1")).thenReturn(Mono.just(WorkGroup.builder()
+                .id("1").cvFileId("file").cvSize(CV.length).cvHash(HASH).cvContentType("application/pdf").build()));
+    }
+
+    @Test
+    void givenAnyOrWeakMatchingETag_whenGetCv_thenReturnNotModified() {
+        //given
+        var conditions = new String[]{"*", "W/\"" + HASH + "\"", "\"other\", \"" + HASH + "\""};
+
+        //when + then
+        for (var ifNoneMatch : conditions) {
+            client.get().uri("/group/1/cv").header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch)
+                    .exchange()
+                    .expectStatus().isNotModified()
+                    .expectHeader().valueEquals(HttpHeaders.ETAG, "\"" + HASH + "\"");
+        }
+        verify(service, never()).readCv(eq("file"), anyLong(), anyLong());
+    }
+
+    @Test
+    void givenOtherETag_whenGetCv_thenStreamCv() {
+        //given
+        when(service.readCv("file", 0, CV.length)).thenReturn(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(CV)));
+
+        //when + then
+        client.get().uri("/group/1/cv").header(HttpHeaders.IF_NONE_MATCH, "\"other\"")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"" + HASH + "\"")
+                .expectBody(byte[].class).isEqualTo(CV);
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.mateuszuran.sisyphus_app.unit.reactive;
+
+import io.github.mateuszuran.sisyphus_app.reactive.ReactiveWorkGroupRepository;
+import io.github.mateuszuran.sisyphus_app.reactive.ReactiveWorkGroupService;
+import io.github.mateuszuran.sisyphus_app.service.CvRejectedException;
+import io.github.mateuszuran.sisyphus_app.service.WorkGroupServiceImpl;
+import io.github.mateuszuran.sisyphus_app.storage.CvStorage;
+import io.github.mateuszuran.sisyphus_app.util.TimeUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveWorkGroupServiceTest {
+    @Mock
+    ReactiveWorkGroupRepository repository;
+    @Mock
+    WorkGroupServiceImpl groupService;
+    @Mock
+    CvStorage cvStorage;
+    @Mock
+    TimeUtil timeUtil;
+    @InjectMocks
+    ReactiveWorkGroupService service;
+
+    @Test
+    void givenUploadRejectedWhileStreaming_whenCreate_thenFailWithRejection() {
+        //given
+        var file = filePart(Flux.range(0, 64).map(i -> chunk()));
+        when(groupService.createNewWorkGroup(any(InputStream.class), eq("cv.pdf"), eq(MediaType.APPLICATION_PDF_VALUE)))
+                .thenAnswer(invocation -> {
+                    invocation.<InputStream>getArgument(0).readNBytes(1024);
+                    throw CvRejectedException.tooLarge(DataSize.ofKilobytes(1));
+                });
+
+        //when
+        var rejected = assertThrows(CvRejectedException.class, () -> service.createNewWorkGroup(file).block());
+
+        //then
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, rejected.getStatusCode());
+    }
+
+    @Test
+    void givenUploadFailingMidway_whenCreate_thenServiceDoesNotSeeTruncatedCv() {
+        //given
+        var file = filePart(Flux.concat(Flux.range(0, 2).map(i -> chunk()), Flux.error(new IllegalStateException("Client went away"))));
+        when(groupService.createNewWorkGroup(any(InputStream.class), eq("cv.pdf"), eq(MediaType.APPLICATION_PDF_VALUE)))
+                .thenAnswer(invocation -> {
+                    try {
+                        invocation.<InputStream>getArgument(0).readAllBytes();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return "group-id";
+                });
+
+        //when + then
+        assertThrows(UncheckedIOException.class, () -> service.createNewWorkGroup(file).block());
+    }
+
+    private FilePart filePart(Flux<DataBuffer> content) {
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        var file = mock(FilePart.class);
+        when(file.content()).thenReturn(content);
+        when(file.filename()).thenReturn("cv.pdf");
+        when(file.headers()).thenReturn(headers);
+        return file;
+    }
+
+    private DataBuffer chunk() {
+        return DefaultDataBufferFactory.sharedInstance.wrap(new byte[64 * 1024]);
+    }
+}
@@ -0,0 +1,110 @@
+package io.github.mateuszuran.sisyphus_app.unit.service;
+
+import io.github.mateuszuran.sisyphus_app.dto.WorkStatsDTO;
+import io.github.mateuszuran.sisyphus_app.model.ApplicationStatus;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepository;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepositoryCustom.ApplicationStatistics;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepositoryCustom.DomainStatusCounts;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepositoryCustom.GroupStatusCounts;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepositoryCustom.MonthCount;
+import io.github.mateuszuran.sisyphus_app.service.StatsServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StatsServiceTest {
+
+    @Mock
+    WorkApplicationsRepository repository;
+
+    ApplicationStatistics statistics = new ApplicationStatistics(
+            List.of(
+                    new GroupStatusCounts(null, 1, 1, 0, 0, 0),
+                    new GroupStatusCounts("1", 4, 1, 1, 1, 1),
+                    new GroupStatusCounts("2", 2, 2, 0, 0, 0)),
+            List.of(new MonthCount("2024-05", 3), new MonthCount("2024-06", 4)));
+
+    @Test
+    void givenAggregatedCounts_whenGetStats_thenSumTotalsAndComputeConversionRates() {
+        //given
+        when(repository.aggregateStatistics()).thenReturn(statistics);
+        var service = new StatsServiceImpl(repository, new SimpleMeterRegistry(), Duration.ZERO);
+
+        //when
+        var result = service.getStats();
+
+        //then
+        assertEquals(7, result.total());
+        assertEquals(4, result.byStatus().get(ApplicationStatus.SEND));
+        assertEquals(1, result.byStatus().get(ApplicationStatus.HIRED));
+        assertThat(result.groups())
+                .extracting(WorkStatsDTO.GroupStats::workGroupId, WorkStatsDTO.GroupStats::conversionRate)
+                .containsExactly(
+                        tuple("1", 0.5),
+                        tuple("2", 0.0));
+        assertThat(result.perMonth())
+                .extracting(WorkStatsDTO.MonthlyCount::month)
+                .containsExactly("2024-05", "2024-06");
+    }
+
+    @Test
+    void givenCountsPerDomain_whenGetDomainStats_thenOrderByConversionRateThenTotal() {
+        //given
+        when(repository.countStatusesByDomain()).thenReturn(List.of(
+                new DomainStatusCounts("indeed.com", 2, 2, 0, 0, 0),
+                new DomainStatusCounts("justjoin.it", 2, 1, 1, 0, 0),
+                new DomainStatusCounts("linkedin.com", 6, 3, 2, 0, 1)));
+        var service = new StatsServiceImpl(repository, new SimpleMeterRegistry(), Duration.ZERO);
+
+        //when
+        var result = service.getDomainStats();
+
+        //then
+        assertThat(result)
+                .extracting(WorkStatsDTO.DomainStats::domain, WorkStatsDTO.DomainStats::conversionRate)
+                .containsExactly(
+                        tuple("linkedin.com", 0.5),
+                        tuple("justjoin.it", 0.5),
+                        tuple("indeed.com", 0.0));
+    }
+
+    @Test
+    void givenNoCacheTtl_whenGetStatsTwice_thenAggregateEveryTime() {
+        //given
+        when(repository.aggregateStatistics()).thenReturn(statistics);
+        var service = new StatsServiceImpl(repository, new SimpleMeterRegistry(), Duration.ZERO);
+
+        //when
+        service.getStats();
+        service.getStats();
+
+        //then
+        verify(repository, times(2)).aggregateStatistics();
+    }
+
+    @Test
+    void givenCacheTtl_whenGetStatsTwice_thenAggregateOnce() {
+        //given
+        when(repository.aggregateStatistics()).thenReturn(statistics);
+        var service = new StatsServiceImpl(repository, new SimpleMeterRegistry(), Duration.ofSeconds(30));
+
+        //when
+        var first = service.getStats();
+        var second = service.getStats();
+
+        //then
+        assertEquals(first, second);
+        verify(repository, times(1)).aggregateStatistics();
+    }
+}
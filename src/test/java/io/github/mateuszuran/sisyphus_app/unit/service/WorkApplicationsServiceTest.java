@@ -1,26 +1,46 @@
 package io.github.mateuszuran.sisyphus_app.unit.service;
 
+import io.github.mateuszuran.sisyphus_app.dto.ApplicationSearchDTO;
+import io.github.mateuszuran.sisyphus_app.dto.ApplicationStatusChangeDTO;
+import io.github.mateuszuran.sisyphus_app.dto.ApplicationStatusChangeResultDTO;
+import io.github.mateuszuran.sisyphus_app.dto.ApplicationStatusChangeResultDTO.Outcome;
 import io.github.mateuszuran.sisyphus_app.dto.WorkApplicationDTO;
 import io.github.mateuszuran.sisyphus_app.model.ApplicationStatus;
 import io.github.mateuszuran.sisyphus_app.model.WorkApplications;
 import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepository;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepositoryCustom.ApplicationSearch;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepositoryCustom.SearchOrder;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepositoryCustom.SearchPosition;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepositoryCustom.StatusChange;
+import io.github.mateuszuran.sisyphus_app.repository.WorkApplicationsRepositoryCustom.StatusChangeOutcome;
+import io.github.mateuszuran.sisyphus_app.service.DuplicateApplicationException;
+import io.github.mateuszuran.sisyphus_app.service.InvalidWorkUrlException;
+import io.github.mateuszuran.sisyphus_app.service.StatusTransition;
 import io.github.mateuszuran.sisyphus_app.service.WorkApplicationsServiceImpl;
 import io.github.mateuszuran.sisyphus_app.service.WorkGroupServiceImpl;
+import io.github.mateuszuran.sisyphus_app.util.CursorPagination;
 import io.github.mateuszuran.sisyphus_app.util.TimeUtil;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Range;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.assertArg;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,17 +60,76 @@ public class WorkApplicationsServiceTest {
     public void givenWorkApplicationAndWorkGroupId_whenAdd_thenSaveWorkApplication() {
         //given
         String workGroupId = "123";
-        WorkApplications application1 = WorkApplications.builder().workUrl("work1").build();
         WorkApplicationDTO applicationDTO = WorkApplicationDTO.builder().workUrl("work1").build();
+        when(util.today()).thenReturn(LocalDate.of(2024, 5, 1));
+        when(repository.insertAllUnordered(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
 
         //when
-        serviceImpl.createWorkApplication(List.of(applicationDTO), workGroupId);
+        var result = serviceImpl.createWorkApplication(List.of(applicationDTO), workGroupId);
 
         //then
-        verify(repository).saveAll(assertArg(arg -> {
+        verify(repository).insertAllUnordered(assertArg(arg -> {
             var savedWorkApplication = arg.iterator().next();
             assertEquals(savedWorkApplication.getWorkUrl(), "work1");
+            assertEquals(savedWorkApplication.getWorkGroupId(), workGroupId);
+            assertEquals(LocalDate.of(2024, 5, 1), savedWorkApplication.getAppliedDate());
+            assertNotNull(savedWorkApplication.getId());
         }));
+        verify(groupService).updateWorkGroupWithWorkApplications(anyList(), eq(workGroupId));
+        assertEquals(1, result.inserted());
+        assertEquals(0, result.skipped());
+    }
+
+    @Test
+    public void givenDuplicatedUrls_whenAdd_thenInsertEachPostingOnceAndReportSkipped() {
+        //given
+        String workGroupId = "123";
+        var applications = List.of(
+                WorkApplicationDTO.builder().workUrl("https://www.example.com/jobs/1?utm_source=mail").build(),
+                WorkApplicationDTO.builder().workUrl("http://example.com/jobs/1/").build(),
+                WorkApplicationDTO.builder().workUrl("https://example.com/jobs/2").build(),
+                WorkApplicationDTO.builder().workUrl("https://example.com/jobs/3").build());
+        // jobs/3 was saved by an earlier request, the unique index rejects it
+        when(repository.insertAllUnordered(anyList())).thenAnswer(invocation -> {
+            List<WorkApplications> toInsert = invocation.getArgument(0);
+            assertEquals(3, toInsert.size());
+            return toInsert.subList(0, 2);
+        });
+
+        //when
+        var result = serviceImpl.createWorkApplication(applications, workGroupId);
+
+        //then
+        assertEquals(2, result.inserted());
+        assertEquals(2, result.skipped());
+        verify(groupService).updateWorkGroupWithWorkApplications(assertArg((List<WorkApplications> arg) -> assertEquals(2, arg.size())), eq(workGroupId));
+    }
+
+    @Test
+    public void givenMissingWorkGroup_whenAdd_thenRemoveInsertedApplications() {
+        //given
+        when(repository.insertAllUnordered(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(new RuntimeException("Work group with given ID not found"))
+                .when(groupService).updateWorkGroupWithWorkApplications(anyList(), eq("123"));
+
+        //when + then
+        assertThrows(RuntimeException.class, () -> serviceImpl.createWorkApplication(List.of(WorkApplicationDTO.builder().workUrl("work1").build()), "123"));
+        verify(repository).deleteAllById(assertArg((Iterable<String> ids) -> assertEquals(1, ids.spliterator().getExactSizeIfKnown())));
+    }
+
+    @Test
+    public void givenBlankUrl_whenAdd_thenRejectWholeRequest() {
+        //given
+        var applications = List.of(
+                WorkApplicationDTO.builder().workUrl("https://example.com/jobs/1").build(),
+                WorkApplicationDTO.builder().workUrl("  ").build());
+
+        //when
+        var rejected = assertThrows(InvalidWorkUrlException.class, () -> serviceImpl.createWorkApplication(applications, "123"));
+
+        //then
+        assertEquals(HttpStatus.BAD_REQUEST, rejected.getStatusCode());
+        verifyNoInteractions(repository, groupService);
     }
 
     @Test
@@ -76,13 +155,36 @@ public class WorkApplicationsServiceTest {
         when(repository.findById(workApplicationId)).thenReturn(Optional.of(work));
 
         WorkApplications updatedWork = WorkApplications.builder().workUrl("work1").status(ApplicationStatus.valueOf(newStatus)).build();
-        when(repository.save(any(WorkApplications.class))).thenReturn(updatedWork);
+        when(repository.compareAndSetStatus(workApplicationId, ApplicationStatus.IN_PROGRESS, ApplicationStatus.DENIED)).thenReturn(updatedWork);
 
         //when
         var result = serviceImpl.updateApplicationStatus(workApplicationId, newStatus);
 
         //then
         assertThat(result).isEqualTo(updatedWork);
+        verify(groupService).updateGroupWhenWorkUpdate(updatedWork, "DENIED", "IN_PROGRESS");
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    public void givenApplicationIdAndStatus_whenChangedConcurrently_thenRetryWithFreshStatus() {
+        //given
+        String workApplicationId = "1234";
+        WorkApplications staleWork = WorkApplications.builder().workUrl("work1").status(ApplicationStatus.SEND).build();
+        WorkApplications freshWork = WorkApplications.builder().workUrl("work1").status(ApplicationStatus.IN_PROGRESS).build();
+        when(repository.findById(workApplicationId)).thenReturn(Optional.of(staleWork)).thenReturn(Optional.of(freshWork));
+
+        WorkApplications updatedWork = WorkApplications.builder().workUrl("work1").status(ApplicationStatus.DENIED).build();
+        when(repository.compareAndSetStatus(workApplicationId, ApplicationStatus.SEND, ApplicationStatus.DENIED)).thenReturn(null);
+        when(repository.compareAndSetStatus(workApplicationId, ApplicationStatus.IN_PROGRESS, ApplicationStatus.DENIED)).thenReturn(updatedWork);
+
+        //when
+        var result = serviceImpl.updateApplicationStatus(workApplicationId, "denied");
+
+        //then
+        assertThat(result).isEqualTo(updatedWork);
+        verify(groupService).updateGroupWhenWorkUpdate(updatedWork, "DENIED", "IN_PROGRESS");
+        verify(groupService, never()).updateGroupWhenWorkUpdate(any(), eq("DENIED"), eq("SEND"));
     }
 
     @Test
@@ -99,15 +201,200 @@ public class WorkApplicationsServiceTest {
     public void givenWorkApplicationIdAndUrl_whenUpdate_thenReturnUpdatedWorkApplication() {
         //given
         String workId = "1234";
-        String newWorkUrl = "new_url";
+        String newWorkUrl = "https://pl.linkedin.com/jobs/view/3912345678";
         WorkApplications oldWork = WorkApplications.builder().workUrl("old_url").build();
         when(repository.findById(workId)).thenReturn(Optional.of(oldWork));
-        when(repository.save(any(WorkApplications.class))).thenReturn(WorkApplications.builder().workUrl(newWorkUrl).build());
+        when(repository.save(any(WorkApplications.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         //when
         var updatedWork = serviceImpl.updateWorkApplicationUrl(workId, newWorkUrl);
 
         //then
         assertThat(updatedWork.getWorkUrl()).isEqualTo(newWorkUrl);
+        assertEquals("linkedin.com", updatedWork.getDomain());
+        assertEquals("linkedin.com:3912345678", updatedWork.getPostingKey());
+        assertEquals("jobs view", updatedWork.getUrlKeywords());
+        assertEquals("pl.linkedin.com/jobs/view/3912345678", updatedWork.getNormalizedWorkUrl());
+    }
+
+    @Test
+    public void givenUrlOfPostingSavedInGroup_whenUpdate_thenThrowConflict() {
+        //given
+        String workId = "1234";
+        WorkApplications oldWork = WorkApplications.builder().workUrl("old_url").workGroupId("123").build();
+        when(repository.findById(workId)).thenReturn(Optional.of(oldWork));
+        when(repository.save(any(WorkApplications.class))).thenThrow(new DuplicateKeyException("workGroupId_normalizedWorkUrl"));
+
+        //when
+        var conflict = assertThrows(DuplicateApplicationException.class,
+                () -> serviceImpl.updateWorkApplicationUrl(workId, "https://example.com/job/1"));
+
+        //then
+        assertEquals(HttpStatus.CONFLICT, conflict.getStatusCode());
+        verify(groupService, never()).evictCachedGroup(any());
+    }
+
+    @Test
+    public void givenBlankUrl_whenUpdate_thenThrowBadRequest() {
+        //given
+        String workId = "1234";
+        when(repository.findById(workId)).thenReturn(Optional.of(WorkApplications.builder().workUrl("old_url").workGroupId("123").build()));
+
+        //when
+        var rejected = assertThrows(InvalidWorkUrlException.class, () -> serviceImpl.updateWorkApplicationUrl(workId, ""));
+
+        //then
+        assertEquals(HttpStatus.BAD_REQUEST, rejected.getStatusCode());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    public void givenFullPage_whenGetApplicationsPage_thenReturnLastIdAsNextCursor() {
+        //given
+        String workGroupId = "123";
+        String after = "665f1c2a9b1e8a3d4c5b6a70";
+        var applications = List.of(
+                WorkApplications.builder().id("665f1c2a9b1e8a3d4c5b6a71").build(),
+                WorkApplications.builder().id("665f1c2a9b1e8a3d4c5b6a72").build());
+        when(repository.findByWorkGroupIdAndIdGreaterThanOrderByIdAsc(workGroupId, after, Limit.of(2))).thenReturn(applications);
+
+        //when
+        var page = serviceImpl.getApplicationsPageByWorkGroupId(workGroupId, 2, after);
+
+        //then
+        assertThat(page.items()).isEqualTo(applications);
+        assertEquals("665f1c2a9b1e8a3d4c5b6a72", page.nextCursor());
+    }
+
+    @Test
+    public void givenPartialPage_whenGetApplicationsPage_thenReturnNoCursor() {
+        //given
+        var applications = List.of(WorkApplications.builder().id("665f1c2a9b1e8a3d4c5b6a71").build());
+        when(repository.findByWorkGroupIdOrderByIdAsc("123", Limit.of(CursorPagination.MAX_PAGE_SIZE))).thenReturn(applications);
+
+        //when
+        var page = serviceImpl.getApplicationsPageByWorkGroupId("123", 1000, null);
+
+        //then
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    public void givenMalformedCursor_whenGetApplicationsPage_thenThrow() {
+        var thrown = assertThrows(ResponseStatusException.class, () -> serviceImpl.getApplicationsPageByWorkGroupId("123", 10, "not-an-id"));
+        assertEquals(HttpStatus.BAD_REQUEST, thrown.getStatusCode());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void givenFiltersAndDateOrder_whenSearch_thenContinueAfterDateAndIdOfCursor() {
+        //given
+        var search = ApplicationSearchDTO.builder().status(List.of("send", "denied")).from(LocalDate.of(2024, 5, 1)).sort("-appliedDate").build();
+        var expected = new ApplicationSearch(List.of(ApplicationStatus.SEND, ApplicationStatus.DENIED), LocalDate.of(2024, 5, 1), null, null, null,
+                null, SearchOrder.APPLIED_DATE_DESC);
+        var applications = List.of(
+                WorkApplications.builder().id("665f1c2a9b1e8a3d4c5b6a71").appliedDate(LocalDate.of(2024, 5, 9)).build(),
+                WorkApplications.builder().id("665f1c2a9b1e8a3d4c5b6a72").appliedDate(LocalDate.of(2024, 5, 8)).build());
+        when(repository.search("123", expected, new SearchPosition(LocalDate.of(2024, 5, 10), "665f1c2a9b1e8a3d4c5b6a70"), Limit.of(2)))
+                .thenReturn(applications);
+
+        //when
+        var page = serviceImpl.searchApplications("123", search, 2, "2024-05-10_665f1c2a9b1e8a3d4c5b6a70");
+
+        //then
+        assertThat(page.items()).isEqualTo(applications);
+        assertEquals("2024-05-08_665f1c2a9b1e8a3d4c5b6a72", page.nextCursor());
+    }
+
+    @Test
+    public void givenNoLimit_whenSearch_thenReturnAllMatchesWithoutCursor() {
+        //given
+        var search = ApplicationSearchDTO.builder().url("example.com").build();
+        var expected = new ApplicationSearch(List.of(), null, null, "example.com", null, null, SearchOrder.ID);
+        var applications = List.of(WorkApplications.builder().id("665f1c2a9b1e8a3d4c5b6a71").build());
+        when(repository.search("123", expected, null, Limit.unlimited())).thenReturn(applications);
+
+        //when
+        var page = serviceImpl.searchApplications("123", search, null, null);
+
+        //then
+        assertThat(page.items()).isEqualTo(applications);
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    public void givenUnknownSort_whenSearch_thenThrowBadRequest() {
+        var unknownSort = ApplicationSearchDTO.builder().sort("status").build();
+
+        var rejected = assertThrows(ResponseStatusException.class, () -> serviceImpl.searchApplications("123", unknownSort, 10, null));
+
+        assertEquals(HttpStatus.BAD_REQUEST, rejected.getStatusCode());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void givenUnknownStatus_whenSearch_thenThrowBadRequest() {
+        var unknownStatus = ApplicationSearchDTO.builder().status(List.of("send", "ghosted")).build();
+
+        var rejected = assertThrows(ResponseStatusException.class, () -> serviceImpl.searchApplications("123", unknownStatus, 10, null));
+
+        assertEquals(HttpStatus.BAD_REQUEST, rejected.getStatusCode());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void givenMalformedCursor_whenSearch_thenThrow() {
+        var byDate = ApplicationSearchDTO.builder().sort("appliedDate").build();
+        assertThrows(ResponseStatusException.class, () -> serviceImpl.searchApplications("123", byDate, 10, "665f1c2a9b1e8a3d4c5b6a70"));
+        assertThrows(ResponseStatusException.class, () -> serviceImpl.searchApplications("123", byDate, 10, "05-2024_665f1c2a9b1e8a3d4c5b6a70"));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void givenStatusChanges_whenBulkUpdate_thenReturnResultPerItemAndUpdateCountersOnce() {
+        //given
+        var sendWork = WorkApplications.builder().id("1").workGroupId("123").status(ApplicationStatus.SEND).build();
+        var deniedWork = WorkApplications.builder().id("2").workGroupId("123").status(ApplicationStatus.DENIED).build();
+        var racedWork = WorkApplications.builder().id("3").workGroupId("123").status(ApplicationStatus.SEND).build();
+        var deletedWork = WorkApplications.builder().id("5").workGroupId("123").status(ApplicationStatus.SEND).build();
+        when(repository.findAllById(List.of("1", "2", "3", "4", "5"))).thenReturn(List.of(sendWork, deniedWork, racedWork, deletedWork));
+        when(repository.bulkCompareAndSetStatus(List.of(
+                new StatusChange("1", ApplicationStatus.SEND, ApplicationStatus.DENIED),
+                new StatusChange("3", ApplicationStatus.SEND, ApplicationStatus.DENIED),
+                new StatusChange("5", ApplicationStatus.SEND, ApplicationStatus.DENIED))))
+                .thenReturn(List.of(StatusChangeOutcome.APPLIED, StatusChangeOutcome.CONFLICT, StatusChangeOutcome.NOT_FOUND));
+
+        var changes = List.of(
+                new ApplicationStatusChangeDTO("1", "denied"),
+                new ApplicationStatusChangeDTO("2", "denied"),
+                new ApplicationStatusChangeDTO("3", "denied"),
+                new ApplicationStatusChangeDTO("4", "denied"),
+                new ApplicationStatusChangeDTO("5", "denied"),
+                new ApplicationStatusChangeDTO("1", "unknown"));
+
+        //when
+        var results = serviceImpl.updateApplicationStatuses(changes);
+
+        //then
+        assertThat(results.stream().map(ApplicationStatusChangeResultDTO::outcome).toList()).isEqualTo(List.of(
+                Outcome.UPDATED, Outcome.UNCHANGED, Outcome.CONFLICT, Outcome.NOT_FOUND, Outcome.NOT_FOUND, Outcome.INVALID_STATUS));
+        verify(groupService).updateGroupsWhenWorksUpdate(List.of(
+                new StatusTransition("123", ApplicationStatus.SEND, ApplicationStatus.DENIED)));
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    public void givenDates_whenGetAppliedBetween_thenQueryInclusiveRange() {
+        //given
+        var from = LocalDate.of(2024, 5, 1);
+        var to = LocalDate.of(2024, 5, 31);
+        var work = WorkApplications.builder().id("1").appliedDate(to).build();
+        when(repository.findByAppliedDateBetweenOrderByAppliedDateAscIdAsc(Range.closed(from, to))).thenReturn(List.of(work));
+
+        //when
+        var result = serviceImpl.getApplicationsAppliedBetween(from, to);
+
+        //then
+        assertEquals(List.of(work), result);
     }
 }
@@ -1,34 +1,73 @@
 package io.github.mateuszuran.sisyphus_app.unit.service;
 
+import io.github.mateuszuran.sisyphus_app.cache.WorkGroupCache;
+import io.github.mateuszuran.sisyphus_app.dto.WorkGroupDTO;
+import io.github.mateuszuran.sisyphus_app.dto.WorkGroupSummaryDTO;
+import io.github.mateuszuran.sisyphus_app.metrics.CvMetrics;
 import io.github.mateuszuran.sisyphus_app.model.ApplicationStatus;
 import io.github.mateuszuran.sisyphus_app.model.WorkApplications;
 import io.github.mateuszuran.sisyphus_app.model.WorkGroup;
 import io.github.mateuszuran.sisyphus_app.repository.WorkGroupRepository;
+import io.github.mateuszuran.sisyphus_app.service.StatusTransition;
+import io.github.mateuszuran.sisyphus_app.service.CvRejectedException;
 import io.github.mateuszuran.sisyphus_app.service.WorkGroupServiceImpl;
+import io.github.mateuszuran.sisyphus_app.storage.CvBlobRegistry;
+import io.github.mateuszuran.sisyphus_app.storage.CvStorage;
+import io.github.mateuszuran.sisyphus_app.util.FanOut;
 import io.github.mateuszuran.sisyphus_app.util.TimeUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
 import org.springframework.mock.web.MockMultipartFile;
-
-import java.util.ArrayList;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class WorkGroupServiceTest {
+    static final byte[] CV = "%PDF-1.4 mock CV".getBytes(StandardCharsets.US_ASCII);
+    static final String CV_HASH = "9fc7610efd49bea74c4da7bc5f1ff99d7cfcca80eff250fd93db852b54c28730";
 
     @Mock
     TimeUtil util;
     @Mock
     WorkGroupRepository repository;
+    @Mock
+    CvStorage cvStorage;
+    @Mock
+    CvBlobRegistry cvBlobs;
+    @Spy
+    WorkGroupCache cache = new WorkGroupCache(new SimpleMeterRegistry(), 100, DataSize.ofMegabytes(1), Duration.ofMinutes(1));
+    @Spy
+    FanOut fanOut = FanOut.sequential();
+    @Spy
+    CvMetrics cvMetrics = new CvMetrics(new SimpleMeterRegistry());
     @InjectMocks
     WorkGroupServiceImpl serviceImpl;
 
@@ -37,26 +76,135 @@ public class WorkGroupServiceTest {
     public void givenCvUrl_whenCreateNewWorkGroup_thenCreatePlainWorkGroup() {
         //given
         String filename = "test-cv.pdf";
-        byte[] fileContent = "Mock file content".getBytes();
+        byte[] fileContent = CV;
         MockMultipartFile mockFile = new MockMultipartFile("file", filename, "application/pdf", fileContent);
 
-        var time = util.formatCreationTime();
+        var time = Instant.parse("2024-05-01T10:15:30Z");
+        when(util.now()).thenReturn(time);
+        when(cvStorage.store(any(InputStream.class), eq(filename), eq("application/pdf"))).thenAnswer(invocation -> {
+            InputStream content = invocation.getArgument(0);
+            assertArrayEquals(fileContent, content.readAllBytes());
+            return "cv-file-id";
+        });
+        when(cvBlobs.share(CV_HASH, "cv-file-id", fileContent.length)).thenReturn("cv-file-id");
         //when
         serviceImpl.createNewWorkGroup(mockFile);
         //then
         verify(repository).save(assertArg(arg -> {
-            byte[] cvUrlBytes = arg.getCvData().getData();
             var creationTime = arg.getCreationTime();
-            assertArrayEquals(cvUrlBytes, fileContent);
+            assertEquals("cv-file-id", arg.getCvFileId());
+            assertEquals(fileContent.length, arg.getCvSize());
+            assertEquals("application/pdf", arg.getCvContentType());
+            assertEquals(CV_HASH, arg.getCvHash());
             assertEquals(creationTime, time);
             assertEquals(filename, arg.getCvFileName());
         }));
+        verify(cvMetrics).recordUpload(fileContent.length);
+    }
+
+    @Test
+    public void givenCvStoredAlready_whenCreateNewWorkGroup_thenReferenceSharedFile() {
+        //given
+        MockMultipartFile mockFile = new MockMultipartFile("file", "test-cv.pdf", "application/pdf", CV);
+        when(cvStorage.store(any(InputStream.class), any(), any())).thenAnswer(invocation -> storedAs("cv-file-id", invocation.getArgument(0)));
+        when(cvBlobs.share(CV_HASH, "cv-file-id", CV.length)).thenReturn("shared-file-id");
+
+        //when
+        serviceImpl.createNewWorkGroup(mockFile);
+
+        //then
+        verify(repository).save(assertArg(arg -> assertEquals("shared-file-id", arg.getCvFileId())));
+    }
+
+    @Test
+    public void givenCvFile_whenSaveFails_thenReleaseStoredCv() {
+        //given
+        MockMultipartFile mockFile = new MockMultipartFile("file", "test-cv.pdf", "application/pdf", CV);
+        when(cvStorage.store(any(InputStream.class), any(), any())).thenAnswer(invocation -> storedAs("cv-file-id", invocation.getArgument(0)));
+        when(cvBlobs.share(CV_HASH, "cv-file-id", CV.length)).thenReturn("cv-file-id");
+        when(repository.save(any(WorkGroup.class))).thenThrow(new IllegalStateException("Mongo unavailable"));
+
+        //when + then
+        assertThrows(RuntimeException.class, () -> serviceImpl.createNewWorkGroup(mockFile));
+        verify(cvBlobs).release(CV_HASH, "cv-file-id");
+    }
+
+    @Test
+    public void givenCvFile_whenSharingFails_thenDeleteStoredCv() {
+        //given
+        MockMultipartFile mockFile = new MockMultipartFile("file", "test-cv.pdf", "application/pdf", CV);
+        when(cvStorage.store(any(InputStream.class), any(), any())).thenAnswer(invocation -> storedAs("cv-file-id", invocation.getArgument(0)));
+        when(cvBlobs.share(CV_HASH, "cv-file-id", CV.length)).thenThrow(new IllegalStateException("Mongo unavailable"));
+
+        //when + then
+        assertThrows(RuntimeException.class, () -> serviceImpl.createNewWorkGroup(mockFile));
+        verify(cvStorage).delete("cv-file-id");
+        verify(cvBlobs, never()).release(any(), any());
+    }
+
+    @Test
+    public void givenEmptyStream_whenCreateNewWorkGroup_thenRejectBeforeStoring() {
+        //given
+        var upload = new ByteArrayInputStream(new byte[0]);
+
+        //when + then
+        assertThrows(IllegalArgumentException.class, () -> serviceImpl.createNewWorkGroup(upload, "cv.pdf", "application/pdf"));
+        verifyNoInteractions(cvStorage, repository);
+    }
+
+    @Test
+    public void givenNonPdfContentOrType_whenCreateNewWorkGroup_thenRejectBeforeStoring() {
+        var textFile = new ByteArrayInputStream("plain text CV".getBytes(StandardCharsets.US_ASCII));
+        var wordFile = new ByteArrayInputStream(CV);
+
+        var notPdf = assertThrows(CvRejectedException.class, () -> serviceImpl.createNewWorkGroup(textFile, "cv.pdf", "application/pdf"));
+        var wrongType = assertThrows(CvRejectedException.class, () -> serviceImpl.createNewWorkGroup(wordFile, "cv.docx",
+                "application/vnd.openxmlformats-officedocument.wordprocessingml.document"));
+
+        assertEquals(HttpStatus.UNSUPPORTED_MEDIA_TYPE, notPdf.getStatusCode());
+        assertEquals(HttpStatus.UNSUPPORTED_MEDIA_TYPE, wrongType.getStatusCode());
+        verifyNoInteractions(cvStorage, cvBlobs, repository);
+    }
+
+    @Test
+    public void givenDeclaredSizeOverLimit_whenCreateNewWorkGroup_thenRejectWithoutReading() {
+        //given
+        ReflectionTestUtils.setField(serviceImpl, "maxCvSize", DataSize.ofBytes(8));
+        MockMultipartFile mockFile = new MockMultipartFile("file", "test-cv.pdf", "application/pdf", CV);
+
+        //when
+        var rejected = assertThrows(CvRejectedException.class, () -> serviceImpl.createNewWorkGroup(mockFile));
+
+        //then
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, rejected.getStatusCode());
+        verifyNoInteractions(cvStorage, cvBlobs, repository);
+    }
+
+    @Test
+    public void givenStreamGrowingOverLimit_whenStoring_thenRejectAndKeepNothing() {
+        //given
+        ReflectionTestUtils.setField(serviceImpl, "maxCvSize", DataSize.ofBytes(8));
+        when(cvStorage.store(any(InputStream.class), any(), any())).thenAnswer(invocation -> {
+            try {
+                return storedAs("cv-file-id", invocation.getArgument(0));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to store CV file", e);
+            }
+        });
+
+        //when
+        var rejected = assertThrows(CvRejectedException.class,
+                () -> serviceImpl.createNewWorkGroup(new ByteArrayInputStream(CV), "cv.pdf", "application/pdf"));
+
+        //then
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, rejected.getStatusCode());
+        verifyNoInteractions(cvBlobs, repository);
     }
 
     @Test
     public void givenCvUrl_whenCreateNewWorkGroup_thenThrowException() {
         String filename = "test-cv.pdf";
-        byte[] fileContent = "Mock file content".getBytes();
+        byte[] fileContent = CV;
         MockMultipartFile mockFile = new MockMultipartFile("file", filename, "application/pdf", fileContent);
         //when
         serviceImpl.createNewWorkGroup(mockFile);
@@ -84,35 +232,29 @@ public class WorkGroupServiceTest {
     public void givenWorkApplicationsAndWorkGroupId_whenUpdate_thenAddWorkGroupApplications() {
         //given
         String workGroupId = "123";
-        WorkGroup group = WorkGroup.builder().id(workGroupId).workApplications(new ArrayList<>()).build();
-        when(repository.findById(workGroupId)).thenReturn(Optional.of(group));
-
-        WorkApplications application1 = WorkApplications.builder().workUrl("work1").build();
-        WorkApplications application2 = WorkApplications.builder().workUrl("work2").build();
-        WorkApplications application3 = WorkApplications.builder().workUrl("work3").build();
+        WorkApplications application1 = WorkApplications.builder().id("1").workUrl("work1").build();
+        WorkApplications application2 = WorkApplications.builder().id("2").workUrl("work2").build();
+        WorkApplications application3 = WorkApplications.builder().id("3").workUrl("work3").build();
         var applicationsList = List.of(application1, application2, application3);
-
-        int applicationSize = applicationsList.size();
-        WorkGroup expectedGroup = WorkGroup.builder()
-                .id(workGroupId)
-                .send(applicationSize)
-                .inProgress(0)
-                .workApplications(applicationsList).build();
-        when(repository.save(group)).thenReturn(expectedGroup);
+        when(repository.pushWorkApplications(workGroupId, List.of("1", "2", "3"), true)).thenReturn(true);
 
         //when
-        var updatedGroup = serviceImpl.updateWorkGroupWithWorkApplications(applicationsList, workGroupId);
+        serviceImpl.updateWorkGroupWithWorkApplications(applicationsList, workGroupId);
 
         //then
-        assertNotNull(updatedGroup.getWorkApplications());
-        assertThat(updatedGroup.getWorkApplications())
-                .hasSize(3)
-                .extracting(WorkApplications::getWorkUrl)
-                .containsExactlyInAnyOrder("work1", "work2", "work3");
-        assertThat(updatedGroup.getSend()).isEqualTo(applicationsList.size());
-        assertThat(updatedGroup.getSend()).isEqualTo(3);
-        assertThat(updatedGroup.getInProgress()).isEqualTo(0);
+        verify(repository).pushWorkApplications(workGroupId, List.of("1", "2", "3"), true);
+        verify(repository, never()).findById(workGroupId);
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    public void givenWorkApplicationsAndMissingWorkGroup_whenUpdate_thenThrow() {
+        //given
+        var applicationsList = List.of(WorkApplications.builder().id("1").workUrl("work1").build());
+        when(repository.pushWorkApplications("123", List.of("1"), true)).thenReturn(false);
 
+        //when + then
+        assertThrows(RuntimeException.class, () -> serviceImpl.updateWorkGroupWithWorkApplications(applicationsList, "123"));
     }
 
     @Test
@@ -130,9 +272,9 @@ public class WorkGroupServiceTest {
     @Test
     public void givenNothing_whenGet_thenReturnListOfWorKGroups() {
         //given
-        WorkGroup group1 = WorkGroup.builder().creationTime("date1").build();
-        WorkGroup group2 = WorkGroup.builder().creationTime("date2").build();
-        WorkGroup group3 = WorkGroup.builder().creationTime("date3").build();
+        WorkGroup group1 = WorkGroup.builder().creationTime(Instant.parse("2024-05-01T10:15:30Z")).build();
+        WorkGroup group2 = WorkGroup.builder().creationTime(Instant.parse("2024-05-02T10:15:30Z")).build();
+        WorkGroup group3 = WorkGroup.builder().creationTime(Instant.parse("2024-05-03T10:15:30Z")).build();
         var groupList = List.of(group1, group2, group3);
         when(repository.findAll()).thenReturn(groupList);
         //when
@@ -141,15 +283,87 @@ public class WorkGroupServiceTest {
         assertThat(returnedList)
                 .hasSize(groupList.size())
                 .extracting(WorkGroup::getCreationTime)
-                .containsExactly("date1", "date2", "date3");
+                .containsExactly(group1.getCreationTime(), group2.getCreationTime(), group3.getCreationTime());
+
+    }
+
+    @Test
+    public void givenNothing_whenGetSummaries_thenMapProjectedGroupsWithoutLoadingCv() {
+        //given
+        WorkGroup group = WorkGroup.builder().id("123").cvFileId("cv-file-id").cvFileName("cv.pdf").cvSize(2048).creationTime(Instant.parse("2024-05-01T10:15:30Z")).send(4).denied(1).build();
+        when(repository.findAllSummaries()).thenReturn(List.of(group));
+
+        //when
+        var summaries = serviceImpl.getAllWorkGroupSummaries();
+
+        //then
+        assertThat(summaries).hasSize(1);
+        assertEquals(2048, summaries.get(0).cvSize());
+        assertEquals(4, summaries.get(0).applied());
+        assertEquals("01-05-2024", summaries.get(0).creationTime());
+        verify(repository, never()).findAll();
+        verifyNoInteractions(cvStorage);
+    }
+
+    @Test
+    public void givenMonth_whenGetSummariesCreatedIn_thenQueryFromItsFirstDayToTheNextMonth() {
+        //given
+        WorkGroup group = WorkGroup.builder().id("123").creationTime(Instant.parse("2024-12-31T23:59:59Z")).build();
+        when(repository.findSummariesCreatedBetween(Instant.parse("2024-12-01T00:00:00Z"), Instant.parse("2025-01-01T00:00:00Z")))
+                .thenReturn(List.of(group));
+
+        //when
+        var summaries = serviceImpl.getWorkGroupSummariesCreatedIn(YearMonth.of(2024, 12));
+
+        //then
+        assertThat(summaries).extracting(WorkGroupSummaryDTO::creationTime).containsExactly("31-12-2024");
+        verifyNoInteractions(cvStorage);
+    }
+
+    @Test
+    public void givenNoMonth_whenGetSummariesCreatedIn_thenUseCurrentMonth() {
+        //given
+        when(util.currentMonth()).thenReturn(YearMonth.of(2024, 5));
+
+        //when
+        serviceImpl.getWorkGroupSummariesCreatedIn(null);
+
+        //then
+        verify(repository).findSummariesCreatedBetween(Instant.parse("2024-05-01T00:00:00Z"), Instant.parse("2024-06-01T00:00:00Z"));
+    }
+
+    @Test
+    public void givenWorkGroupWithCv_whenGetCv_thenReturnStoredResourceWithHash() {
+        //given
+        WorkGroup group = WorkGroup.builder().id("123").cvFileId("cv-file-id").cvFileName("cv.pdf").cvContentType("application/pdf").cvHash("cv-hash").cvSize(6).build();
+        when(repository.findById("123")).thenReturn(Optional.of(group));
+        var content = new ByteArrayResource("CV-PDF".getBytes());
+        when(cvStorage.load("cv-file-id", 6)).thenReturn(content);
+
+        //when
+        var cv = serviceImpl.getWorkGroupCv("123");
+
+        //then
+        assertTrue(cv.isPresent());
+        assertEquals(content, cv.get().content());
+        assertEquals("cv-hash", cv.get().hash());
+    }
+
+    @Test
+    public void givenWorkGroupWithoutCv_whenGetCv_thenReturnEmpty() {
+        //given
+        when(repository.findById("123")).thenReturn(Optional.of(WorkGroup.builder().id("123").build()));
 
+        //when + then
+        assertTrue(serviceImpl.getWorkGroupCv("123").isEmpty());
+        verifyNoInteractions(cvStorage);
     }
 
     @Test
     public void givenWorkGroupId_whenExists_thenDeleteWorkGroup() {
         //given
         String workGroupId = "123";
-        WorkGroup groupToDelete = WorkGroup.builder().build();
+        WorkGroup groupToDelete = WorkGroup.builder().cvFileId("cv-file-id").cvHash(CV_HASH).build();
         when(repository.findById(workGroupId)).thenReturn(Optional.of(groupToDelete));
 
         //when
@@ -157,20 +371,18 @@ public class WorkGroupServiceTest {
 
         //then
         verify(repository).delete(any(WorkGroup.class));
+        verify(cvBlobs).release(CV_HASH, "cv-file-id");
     }
 
     @Test
     public void givenWorkGroupId_whenGetAllApplications_thenReturnListOf() {
         //given
         String workGroupId = "123";
-        WorkGroup group = WorkGroup.builder().id(workGroupId).workApplications(new ArrayList<>()).build();
-
         WorkApplications application1 = WorkApplications.builder().workUrl("work1").build();
         WorkApplications application2 = WorkApplications.builder().workUrl("work2").build();
         WorkApplications application3 = WorkApplications.builder().workUrl("work3").build();
         var applicationsList = List.of(application1, application2, application3);
-        group.getWorkApplications().addAll(applicationsList);
-        when(repository.findById(workGroupId)).thenReturn(Optional.of(group));
+        when(repository.findWorkApplicationsOfGroups(List.of(workGroupId))).thenReturn(Map.of(workGroupId, applicationsList));
 
         //when
         var workApplications = serviceImpl.getAllWorkApplicationsFromWorkGroup(workGroupId);
@@ -183,49 +395,53 @@ public class WorkGroupServiceTest {
     }
 
     @Test
-    void givenWorkApplicationAndStatus_whenChangeDeniedToOther_thenDecrementCounter() {
+    public void givenMissingWorkGroupId_whenGetAllApplications_thenThrow() {
         //given
-        WorkApplications application = WorkApplications.builder().id("1234").status(ApplicationStatus.DENIED).build();
-        WorkGroup group = WorkGroup.builder().send(5).inProgress(3).denied(2).workApplications(List.of(application)).build();
+        when(repository.findWorkApplicationsOfGroups(List.of("123"))).thenReturn(Map.of());
+
+        //when + then
+        assertThrows(RuntimeException.class, () -> serviceImpl.getAllWorkApplicationsFromWorkGroup("123"));
+        verify(repository, never()).findById("123");
+    }
 
-        when(repository.findAll()).thenReturn(List.of(group));
+    @Test
+    void givenWorkApplicationAndStatus_whenChangeDeniedToOther_thenDecrementCounter() {
+        //given
+        WorkApplications application = WorkApplications.builder().id("1234").workGroupId("123").status(ApplicationStatus.DENIED).build();
+        when(repository.updateCounters(eq("123"), any(Update.class))).thenReturn(true);
 
-        ArgumentCaptor<WorkGroup> groupCaptor = ArgumentCaptor.forClass(WorkGroup.class);
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
 
         // when
         serviceImpl.updateGroupWhenWorkUpdate(application, ApplicationStatus.IN_PROGRESS.name(), application.getStatus().name());
 
         // then
-        verify(repository).findAll();
-        verify(repository).save(groupCaptor.capture());
-
-        WorkGroup capturedGroup = groupCaptor.getValue();
-        assertNotNull(capturedGroup);
+        verify(repository).updateCounters(eq("123"), updateCaptor.capture());
+        verify(repository, never()).findAll();
+        verify(repository, never()).save(any());
 
-        assertEquals(1, capturedGroup.getDenied());
+        Document increments = updateCaptor.getValue().getUpdateObject().get("$inc", Document.class);
+        assertEquals(-1, increments.get("denied"));
+        assertEquals(1, increments.get("inProgress"));
     }
 
     @Test
     void givenWorkApplicationAndStatus_whenChangeOtherToDenied_thenIncrementCounter() {
         //given
-        WorkApplications application = WorkApplications.builder().id("1234").status(ApplicationStatus.SEND).build();
-        WorkGroup group = WorkGroup.builder().send(5).inProgress(3).denied(2).workApplications(List.of(application)).build();
-
-        when(repository.findAll()).thenReturn(List.of(group));
+        WorkApplications application = WorkApplications.builder().id("1234").workGroupId("123").status(ApplicationStatus.SEND).build();
+        when(repository.updateCounters(eq("123"), any(Update.class))).thenReturn(true);
 
-        ArgumentCaptor<WorkGroup> groupCaptor = ArgumentCaptor.forClass(WorkGroup.class);
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
 
         // when
         serviceImpl.updateGroupWhenWorkUpdate(application, ApplicationStatus.DENIED.name(), application.getStatus().name());
 
         // then
-        verify(repository).findAll();
-        verify(repository).save(groupCaptor.capture());
-
-        WorkGroup capturedGroup = groupCaptor.getValue();
-        assertNotNull(capturedGroup);
+        verify(repository).updateCounters(eq("123"), updateCaptor.capture());
 
-        assertEquals(3, capturedGroup.getDenied());
+        Document increments = updateCaptor.getValue().getUpdateObject().get("$inc", Document.class);
+        assertEquals(-1, increments.get("send"));
+        assertEquals(1, increments.get("denied"));
     }
 
     @Test
@@ -235,70 +451,220 @@ public class WorkGroupServiceTest {
 
         //when + then
         assertThrows(IllegalArgumentException.class, () -> serviceImpl.updateGroupWhenWorkUpdate(application, ApplicationStatus.DENIED.name(), application.getStatus().name()));
+        verify(repository, never()).updateCounters(any(), any());
         verify(repository, never()).save(any());
     }
 
     @Test
-    void givenWorkApplication_whenWorkStatusIsNotDeniedAndDelete_thenUpdateWorkGroupCounters() {
+    void givenWorkApplicationAndStatus_whenWorkGroupDeleted_thenThrowException() {
         //given
-        WorkApplications application = WorkApplications.builder().id("1234").status(ApplicationStatus.SEND).build();
-        WorkGroup group = WorkGroup.builder().send(5).inProgress(3).denied(2).workApplications(List.of(application)).build();
+        WorkApplications application = WorkApplications.builder().id("1234").workGroupId("123").status(ApplicationStatus.SEND).build();
+        when(repository.updateCounters(eq("123"), any(Update.class))).thenReturn(false);
+
+        //when + then
+        assertThrows(IllegalArgumentException.class, () -> serviceImpl.updateGroupWhenWorkUpdate(application, ApplicationStatus.DENIED.name(), application.getStatus().name()));
+    }
 
-        when(repository.findAll()).thenReturn(List.of(group));
+    @Test
+    void givenWorkApplication_whenWorkStatusIsNotDeniedAndDelete_thenUpdateWorkGroupCounters() {
+        //given
+        WorkApplications application = WorkApplications.builder().id("1234").workGroupId("123").status(ApplicationStatus.SEND).build();
+        when(repository.updateCounters(eq("123"), any(Update.class))).thenReturn(true);
 
-        ArgumentCaptor<WorkGroup> groupCaptor = ArgumentCaptor.forClass(WorkGroup.class);
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
         //when
         serviceImpl.updateGroupWhenWorkDelete(application);
 
         //then
-        verify(repository).findAll();
-        verify(repository).save(groupCaptor.capture());
+        verify(repository).updateCounters(eq("123"), updateCaptor.capture());
 
-        WorkGroup capturedGroup = groupCaptor.getValue();
-        assertNotNull(capturedGroup);
-        assertEquals(4, capturedGroup.getSend());
-        assertEquals(3, capturedGroup.getInProgress());
+        Document increments = updateCaptor.getValue().getUpdateObject().get("$inc", Document.class);
+        assertEquals(-1, increments.get("send"));
+        assertFalse(increments.containsKey("inProgress"));
     }
 
     @Test
     void givenWorkApplication_whenWorkStatusDeniedAndDelete_thenUpdateWorkGroupOneCounter() {
         //given
-        WorkApplications application = WorkApplications.builder().id("1234").status(ApplicationStatus.DENIED).build();
-        WorkGroup group = WorkGroup.builder().send(5).inProgress(3).denied(2).workApplications(List.of(application)).build();
-
-        when(repository.findAll()).thenReturn(List.of(group));
+        WorkApplications application = WorkApplications.builder().id("1234").workGroupId("123").status(ApplicationStatus.DENIED).build();
+        when(repository.updateCounters(eq("123"), any(Update.class))).thenReturn(true);
 
-        ArgumentCaptor<WorkGroup> groupCaptor = ArgumentCaptor.forClass(WorkGroup.class);
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
         //when
         serviceImpl.updateGroupWhenWorkDelete(application);
 
         //then
-        verify(repository).findAll();
-        verify(repository).save(groupCaptor.capture());
+        verify(repository).updateCounters(eq("123"), updateCaptor.capture());
 
-        WorkGroup capturedGroup = groupCaptor.getValue();
-        assertNotNull(capturedGroup);
-        assertEquals(1, capturedGroup.getDenied());
+        Document increments = updateCaptor.getValue().getUpdateObject().get("$inc", Document.class);
+        assertEquals(1, increments.size());
+        assertEquals(-1, increments.get("denied"));
     }
 
     @Test
     void givenWorkApplication_whenStatusIsHired_thenToggleWorkGroup() {
         //given
-        WorkApplications application = WorkApplications.builder().id("1234").status(ApplicationStatus.HIRED).build();
-        WorkGroup group = WorkGroup.builder().send(5).inProgress(3).denied(2).workApplications(List.of(application)).build();
+        WorkApplications application = WorkApplications.builder().id("1234").workGroupId("123").status(ApplicationStatus.HIRED).build();
+        when(repository.updateCounters(eq("123"), any(Update.class))).thenReturn(true);
 
-        when(repository.findAll()).thenReturn(List.of(group));
-
-        ArgumentCaptor<WorkGroup> groupCaptor = ArgumentCaptor.forClass(WorkGroup.class);
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
         //when
         serviceImpl.updateGroupWhenWorkUpdate(application, "hired", "in_progress");
 
         //then
-        verify(repository).findAll();
-        verify(repository).save(groupCaptor.capture());
+        verify(repository).updateCounters(eq("123"), updateCaptor.capture());
+
+        Document update = updateCaptor.getValue().getUpdateObject();
+        assertEquals(-1, update.get("$inc", Document.class).get("inProgress"));
+        assertEquals(true, update.get("$set", Document.class).get("isHired"));
+    }
+
+    @Test
+    void givenTransitionsOfManyWorks_whenUpdateGroups_thenIssueOneAggregatedUpdatePerGroup() {
+        //given
+        var transitions = List.of(
+                new StatusTransition("123", ApplicationStatus.SEND, ApplicationStatus.DENIED),
+                new StatusTransition("123", ApplicationStatus.SEND, ApplicationStatus.DENIED),
+                new StatusTransition("123", ApplicationStatus.IN_PROGRESS, ApplicationStatus.SEND),
+                new StatusTransition("456", ApplicationStatus.IN_PROGRESS, ApplicationStatus.HIRED));
+        when(repository.updateCounters(any(), any(Update.class))).thenReturn(true);
+
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+
+        //when
+        serviceImpl.updateGroupsWhenWorksUpdate(transitions);
+
+        //then
+        verify(repository).updateCounters(eq("123"), updateCaptor.capture());
+        Document firstGroup = updateCaptor.getValue().getUpdateObject();
+        assertEquals(-1, firstGroup.get("$inc", Document.class).get("send"));
+        assertEquals(2, firstGroup.get("$inc", Document.class).get("denied"));
+        assertEquals(-1, firstGroup.get("$inc", Document.class).get("inProgress"));
+
+        verify(repository).updateCounters(eq("456"), updateCaptor.capture());
+        Document secondGroup = updateCaptor.getValue().getUpdateObject();
+        assertEquals(-1, secondGroup.get("$inc", Document.class).get("inProgress"));
+        assertEquals(true, secondGroup.get("$set", Document.class).get("isHired"));
+        verifyNoMoreInteractions(repository);
+    }
+
+    @Test
+    void givenCachedWorkGroupView_whenGetAgain_thenSkipRepositoryAndStorage() {
+        //given
+        WorkGroup group = WorkGroup.builder().id("123").cvFileId("cv-file-id").cvFileName("cv.pdf").send(2).build();
+        when(repository.findById("123")).thenReturn(Optional.of(group));
+        when(cvStorage.load("cv-file-id")).thenReturn(new ByteArrayResource("Mock file content".getBytes()));
+
+        //when
+        var first = serviceImpl.getMappedSingleWorkGroup("123");
+        var second = serviceImpl.getMappedSingleWorkGroup("123");
+
+        //then
+        assertSame(first, second);
+        verify(repository, times(1)).findById("123");
+        verify(cvStorage, times(1)).load("cv-file-id");
+    }
+
+    @Test
+    void givenCachedWorkGroupView_whenCountersChange_thenReloadGroup() {
+        //given
+        WorkApplications application = WorkApplications.builder().id("1234").workGroupId("123").status(ApplicationStatus.SEND).build();
+        when(repository.findById("123"))
+                .thenReturn(Optional.of(WorkGroup.builder().id("123").send(1).build()))
+                .thenReturn(Optional.of(WorkGroup.builder().id("123").send(0).denied(1).build()));
+        when(repository.updateCounters(eq("123"), any(Update.class))).thenReturn(true);
+        serviceImpl.getMappedSingleWorkGroup("123");
+
+        //when
+        serviceImpl.updateGroupWhenWorkUpdate(application, "DENIED", "SEND");
+        var result = serviceImpl.getMappedSingleWorkGroup("123");
+
+        //then
+        assertEquals(0, result.applied());
+        assertEquals(1, result.denied());
+        verify(repository, times(2)).findById("123");
+    }
+
+    @Test
+    void givenPartiallyCachedViews_whenGetAllMapped_thenLoadOnlyMissingGroupsInOneQuery() {
+        //given
+        WorkGroup cached = WorkGroup.builder().id("1").creationTime(Instant.parse("2024-05-01T10:15:30Z")).build();
+        WorkGroup missing = WorkGroup.builder().id("2").creationTime(Instant.parse("2024-05-02T10:15:30Z")).build();
+        when(repository.findById("1")).thenReturn(Optional.of(cached));
+        when(repository.findAllSummaries()).thenReturn(List.of(cached, missing));
+        when(repository.findAllById(List.of("2"))).thenReturn(List.of(missing));
+        serviceImpl.getMappedSingleWorkGroup("1");
+
+        //when
+        var result = serviceImpl.getAllMappedWorkGroups();
+        serviceImpl.getAllMappedWorkGroups();
+
+        //then
+        assertThat(result)
+                .extracting(WorkGroupDTO::creationTime)
+                .containsExactly("01-05-2024", "02-05-2024");
+        verify(repository, times(1)).findAllSummaries();
+        verify(repository, times(1)).findAllById(List.of("2"));
+    }
+
+    @Test
+    void givenCachedGroupList_whenGroupDeleted_thenReloadList() {
+        //given
+        WorkGroup group = WorkGroup.builder().id("1").build();
+        when(repository.findAllSummaries()).thenReturn(List.of(group)).thenReturn(List.of());
+        when(repository.findAllById(List.of("1"))).thenReturn(List.of(group));
+        when(repository.findById("1")).thenReturn(Optional.of(group));
+        serviceImpl.getAllMappedWorkGroups();
+
+        //when
+        serviceImpl.deleteSingleGroup("1");
+        var result = serviceImpl.getAllMappedWorkGroups();
+
+        //then
+        assertThat(result).isEmpty();
+        verify(repository, times(2)).findAllSummaries();
+    }
+
+    @Test
+    void givenCountersFromChangeStream_whenWorkUpdatedOrSaved_thenLeaveCountersAlone() {
+        //given
+        ReflectionTestUtils.setField(serviceImpl, "countersFromChangeStream", true);
+        WorkApplications application = WorkApplications.builder().id("1").workGroupId("123").status(ApplicationStatus.SEND).build();
+        when(repository.pushWorkApplications("123", List.of("1"), false)).thenReturn(true);
+
+        //when
+        serviceImpl.updateGroupWhenWorkUpdate(application, "DENIED", "SEND");
+        serviceImpl.updateGroupWhenWorkDelete(application);
+        serviceImpl.updateGroupsWhenWorksUpdate(List.of(new StatusTransition("123", ApplicationStatus.SEND, ApplicationStatus.DENIED)));
+        serviceImpl.updateWorkGroupWithWorkApplications(List.of(application), "123");
+
+        //then
+        verify(repository, never()).updateCounters(any(), any(Update.class));
+        verify(repository).pushWorkApplications("123", List.of("1"), false);
+    }
+
+    @Test
+    void givenInsertAndDeleteTransitions_whenApply_thenCountNewAndDeletedWorks() {
+        //given
+        var transitions = List.of(
+                new StatusTransition("123", null, ApplicationStatus.SEND),
+                new StatusTransition("123", null, ApplicationStatus.SEND),
+                new StatusTransition("123", ApplicationStatus.DENIED, null));
+        when(repository.updateCounters(eq("123"), any(Update.class))).thenReturn(true);
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+
+        //when
+        serviceImpl.applyStatusTransitions(transitions);
+
+        //then
+        verify(repository).updateCounters(eq("123"), updateCaptor.capture());
+        Document update = updateCaptor.getValue().getUpdateObject();
+        assertEquals(2, update.get("$inc", Document.class).get("send"));
+        assertEquals(-1, update.get("$inc", Document.class).get("denied"));
+    }
 
-        WorkGroup capturedGroup = groupCaptor.getValue();
-        assertNotNull(capturedGroup);
-        assertTrue(capturedGroup.isHired());
+    private static String storedAs(String fileId, InputStream content) throws IOException {
+        content.transferTo(OutputStream.nullOutputStream());
+        return fileId;
     }
 }
@@ -0,0 +1,118 @@
+package io.github.mateuszuran.sisyphus_app.unit.storage;
+
+import io.github.mateuszuran.sisyphus_app.metrics.CvMetrics;
+import io.github.mateuszuran.sisyphus_app.storage.CompressingCvStorage;
+import io.github.mateuszuran.sisyphus_app.storage.LocalFileSystemCvStorage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompressingCvStorageTest {
+
+    @TempDir
+    Path directory;
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    LocalFileSystemCvStorage backend;
+    CompressingCvStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        backend = new LocalFileSystemCvStorage(directory);
+        storage = new CompressingCvStorage(backend, new CvMetrics(meterRegistry), true, 0.9);
+    }
+
+    @Test
+    void givenCompressibleCv_whenStore_thenKeepItSmallerAndLoadOriginalBytes() throws Exception {
+        //given
+        byte[] content = "%PDF-1.4 Lorem ipsum dolor sit amet ".repeat(5_000).getBytes(StandardCharsets.US_ASCII);
+
+        //when
+        String fileId = storage.store(new ByteArrayInputStream(content), "cv.pdf", "application/pdf");
+
+        //then
+        assertTrue(Files.size(directory.resolve(fileId)) < content.length / 10);
+        assertArrayEquals(content, load(fileId));
+        assertEquals(1, meterRegistry.get("sisyphus.cv.compression.ratio").tag("codec", "deflate").summary().count());
+        assertEquals(1, meterRegistry.get("sisyphus.cv.decompress").timer().count());
+    }
+
+    @Test
+    void givenIncompressibleOrAlreadyCompressedCv_whenStore_thenStoreItAsIs() throws Exception {
+        //given
+        byte[] random = new byte[100_000];
+        new Random(42).nextBytes(random);
+        var gzipped = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write("Lorem ipsum ".repeat(1_000).getBytes(StandardCharsets.US_ASCII));
+        }
+
+        //when
+        String randomId = storage.store(new ByteArrayInputStream(random), "cv.pdf", "application/pdf");
+        String gzippedId = storage.store(new ByteArrayInputStream(gzipped.toByteArray()), "cv.pdf.gz", "application/gzip");
+
+        //then
+        assertArrayEquals(random, Files.readAllBytes(directory.resolve(randomId)));
+        assertArrayEquals(gzipped.toByteArray(), Files.readAllBytes(directory.resolve(gzippedId)));
+        assertArrayEquals(random, load(randomId));
+        assertEquals(2, meterRegistry.get("sisyphus.cv.compression.ratio").tag("codec", "none").summary().count());
+    }
+
+    @Test
+    void givenCvStoredBeforeCompression_whenLoad_thenReturnItUnchanged() throws Exception {
+        //given
+        byte[] content = "CV-PDF".getBytes(StandardCharsets.US_ASCII);
+        String fileId = backend.store(new ByteArrayInputStream(content), "cv.pdf", "application/pdf");
+
+        //when + then
+        assertArrayEquals(content, load(fileId));
+    }
+
+    @Test
+    void givenIncompressibleCvStartingLikeHeader_whenStore_thenLoadSameBytes() throws Exception {
+        //given
+        byte[] content = new byte[10_000];
+        new Random(7).nextBytes(content);
+        System.arraycopy(new byte[]{'S', 'C', 'V', 1, 1}, 0, content, 0, 5);
+
+        //when
+        String fileId = storage.store(new ByteArrayInputStream(content), "cv.pdf", "application/pdf");
+
+        //then
+        assertArrayEquals(content, load(fileId));
+    }
+
+    @Test
+    void givenCompressedCvOfKnownSize_whenGetContentLength_thenAnswerWithoutDecompressing() throws Exception {
+        //given
+        byte[] content = "%PDF-1.4 Lorem ipsum dolor sit amet ".repeat(1_000).getBytes(StandardCharsets.US_ASCII);
+        String fileId = storage.store(new ByteArrayInputStream(content), "cv.pdf", "application/pdf");
+
+        //when
+        long knownLength = storage.load(fileId, content.length).contentLength();
+        long countedLength = storage.load(fileId).contentLength();
+
+        //then
+        assertEquals(content.length, knownLength);
+        assertEquals(content.length, countedLength);
+        assertEquals(1, meterRegistry.get("sisyphus.cv.decompress").timer().count());
+    }
+
+    private byte[] load(String fileId) throws Exception {
+        try (InputStream stored = storage.load(fileId).getInputStream()) {
+            return stored.readAllBytes();
+        }
+    }
+}
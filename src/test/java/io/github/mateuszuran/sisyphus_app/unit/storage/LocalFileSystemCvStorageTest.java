@@ -0,0 +1,56 @@
+package io.github.mateuszuran.sisyphus_app.unit.storage;
+
+import io.github.mateuszuran.sisyphus_app.storage.LocalFileSystemCvStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalFileSystemCvStorageTest {
+
+    @TempDir
+    Path directory;
+
+    LocalFileSystemCvStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = new LocalFileSystemCvStorage(directory);
+    }
+
+    @Test
+    void givenCvContent_whenStore_thenLoadSameBytes() throws Exception {
+        //given
+        byte[] content = "CV-PDF".getBytes();
+
+        //when
+        String fileId = storage.store(new ByteArrayInputStream(content), "cv.pdf", "application/pdf");
+
+        //then
+        try (InputStream stored = storage.load(fileId).getInputStream()) {
+            assertArrayEquals(content, stored.readAllBytes());
+        }
+    }
+
+    @Test
+    void givenStoredCv_whenDelete_thenLoadThrows() {
+        //given
+        String fileId = storage.store(new ByteArrayInputStream("CV-PDF".getBytes()), "cv.pdf", "application/pdf");
+
+        //when
+        storage.delete(fileId);
+
+        //then
+        assertThrows(IllegalArgumentException.class, () -> storage.load(fileId));
+    }
+
+    @Test
+    void givenPathOutsideDirectory_whenLoad_thenThrow() {
+        assertThrows(IllegalArgumentException.class, () -> storage.load("../secret.pdf"));
+    }
+}
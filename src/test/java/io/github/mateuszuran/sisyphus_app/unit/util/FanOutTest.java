@@ -0,0 +1,99 @@
+package io.github.mateuszuran.sisyphus_app.unit.util;
+
+import io.github.mateuszuran.sisyphus_app.util.FanOut;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FanOutTest {
+
+    @Test
+    void givenPlatformMode_whenMap_thenRunConcurrentlyAndKeepOrder() {
+        //given
+        var fanOut = new FanOut("platform", 4);
+        var started = new CountDownLatch(4);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        //when
+        var results = fanOut.map(List.of(1, 2, 3, 4), item -> {
+            threads.add(Thread.currentThread().getName());
+            started.countDown();
+            try {
+                // only returns when all four run at the same time
+                assertTrue(started.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            return item * 10;
+        });
+
+        //then
+        assertEquals(List.of(10, 20, 30, 40), results);
+        assertEquals(4, threads.size());
+        fanOut.destroy();
+    }
+
+    @Test
+    void givenOffMode_whenMap_thenRunOnCallingThread() {
+        //given
+        var fanOut = FanOut.sequential();
+        var caller = Thread.currentThread().getName();
+
+        //when
+        var threads = fanOut.map(List.of(1, 2, 3), item -> Thread.currentThread().getName());
+
+        //then
+        assertEquals(List.of(caller, caller, caller), threads);
+    }
+
+    @Test
+    void givenFailingPart_whenMap_thenRethrowAndCancelTheOthers() throws InterruptedException {
+        //given
+        var fanOut = new FanOut("platform", 2);
+        var slowPartInterrupted = new AtomicBoolean();
+        var slowPartDone = new CountDownLatch(1);
+
+        //when
+        var exception = assertThrows(IllegalStateException.class, () -> fanOut.map(List.of(0, 1), item -> {
+            if (item == 1) {
+                throw new IllegalStateException("broken part");
+            }
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                slowPartInterrupted.set(true);
+            } finally {
+                slowPartDone.countDown();
+            }
+            return item;
+        }));
+
+        //then
+        assertEquals("broken part", exception.getMessage());
+        assertTrue(slowPartDone.await(5, TimeUnit.SECONDS));
+        assertTrue(slowPartInterrupted.get());
+        fanOut.destroy();
+    }
+
+    @Test
+    void givenVirtualMode_whenMap_thenRunWithAvailableThreads() {
+        //given
+        var fanOut = new FanOut("virtual", 2);
+
+        //when
+        var results = fanOut.map(IntStream.range(0, 100).boxed().toList(), item -> item + 1);
+
+        //then
+        assertEquals(IntStream.range(1, 101).boxed().toList(), results);
+        assertEquals(Runtime.version().feature() >= 21 ? FanOut.Mode.VIRTUAL : FanOut.Mode.PLATFORM, fanOut.mode());
+        fanOut.destroy();
+    }
+}
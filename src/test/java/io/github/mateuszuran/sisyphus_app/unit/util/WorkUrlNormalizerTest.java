@@ -0,0 +1,34 @@
+package io.github.mateuszuran.sisyphus_app.unit.util;
+
+import io.github.mateuszuran.sisyphus_app.util.WorkUrlNormalizer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class WorkUrlNormalizerTest {
+
+    @Test
+    void givenSamePostingWithDifferentSchemeHostCaseAndTrailingSlash_whenNormalize_thenReturnSameKey() {
+        assertEquals("example.com/jobs/123", WorkUrlNormalizer.normalize("https://www.Example.com/jobs/123/"));
+        assertEquals("example.com/jobs/123", WorkUrlNormalizer.normalize("http://example.com/jobs/123"));
+        assertEquals("example.com/jobs/123", WorkUrlNormalizer.normalize("  example.com/jobs/123#apply "));
+    }
+
+    @Test
+    void givenTrackingAndReorderedParameters_whenNormalize_thenKeepOnlyMeaningfulSortedParameters() {
+        assertEquals("example.com/offer?b=2&id=7",
+                WorkUrlNormalizer.normalize("https://example.com/offer?id=7&utm_source=linkedin&b=2&gclid=abc"));
+    }
+
+    @Test
+    void givenNonDefaultPort_whenNormalize_thenKeepPort() {
+        assertEquals("example.com:8080/jobs", WorkUrlNormalizer.normalize("https://example.com:8080/jobs"));
+    }
+
+    @Test
+    void givenBlankUrl_whenNormalize_thenReturnNull() {
+        assertNull(WorkUrlNormalizer.normalize("   "));
+        assertNull(WorkUrlNormalizer.normalize(null));
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.mateuszuran.sisyphus_app.unit.util;
+
+import io.github.mateuszuran.sisyphus_app.util.WorkUrlParts;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class WorkUrlPartsTest {
+
+    @Test
+    void givenSubdomainsAndCountryCodeSecondLevel_whenDomainOf_thenReturnRegistrableDomain() {
+        assertEquals("linkedin.com", WorkUrlParts.domainOf("pl.linkedin.com"));
+        assertEquals("linkedin.com", WorkUrlParts.domainOf("www.linkedin.com"));
+        assertEquals("example.co.uk", WorkUrlParts.domainOf("jobs.example.co.uk"));
+        assertEquals("pracuj.pl", WorkUrlParts.domainOf("it.pracuj.pl"));
+        assertEquals("10.0.0.1", WorkUrlParts.domainOf("10.0.0.1"));
+    }
+
+    @Test
+    void givenSameOfferUnderDifferentUrls_whenOf_thenReturnSamePostingKey() {
+        var view = WorkUrlParts.of("https://pl.linkedin.com/jobs/view/java-developer-at-acme-3912345678/?trk=feed");
+        var search = WorkUrlParts.of("https://www.linkedin.com/jobs/search/?currentJobId=3912345678&keywords=java");
+
+        assertEquals("pl.linkedin.com", view.host());
+        assertEquals("linkedin.com", view.domain());
+        assertEquals("linkedin.com:3912345678", view.postingKey());
+        assertEquals(view.postingKey(), search.postingKey());
+    }
+
+    @Test
+    void givenUrlWithoutJobId_whenOf_thenUseNormalizedUrlAndPathWords() {
+        var parts = WorkUrlParts.of("https://www.example.com/careers/Senior-Java_Developer/");
+
+        assertEquals("example.com/careers/Senior-Java_Developer", parts.postingKey());
+        assertEquals("careers senior java developer", parts.keywords());
+    }
+
+    @Test
+    void givenBlankUrl_whenOf_thenLeaveAllPartsEmpty() {
+        var blank = WorkUrlParts.of(" ");
+        assertNull(blank.domain());
+        assertNull(blank.postingKey());
+        assertNull(blank.keywords());
+    }
+}